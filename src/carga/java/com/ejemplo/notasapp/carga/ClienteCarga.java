@@ -0,0 +1,108 @@
+package com.ejemplo.notasapp.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cliente HTTP de la prueba de carga: inicio de sesión por
+ * POST /identificacion y peticiones con la cookie de la sesión. No sigue
+ * redirecciones, para que la prueba vea el destino de cada una.
+ */
+final class ClienteCarga {
+
+    private final URI base;
+    private final HttpClient cliente;
+
+    ClienteCarga(URI base) {
+        this.base = base;
+        this.cliente = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * Inicia sesión y retorna la cookie JSESSIONID lista para el encabezado
+     * Cookie. estudianteId se ignora para PROFESOR.
+     */
+    String iniciarSesion(String nombre, String rol, long estudianteId) throws IOException, InterruptedException {
+        String cuerpo = "nombre=" + codificar(nombre) + "&rol=" + rol
+                + ("ALUMNO".equals(rol) ? "&estudianteId=" + estudianteId : "");
+        HttpResponse<Void> respuesta = cliente.send(formulario("/identificacion", null, cuerpo),
+                HttpResponse.BodyHandlers.discarding());
+        String destino = respuesta.headers().firstValue("Location").orElse("");
+        if (destino.contains("error=")) {
+            throw new IllegalStateException("Inicio de sesión rechazado para " + nombre + ": " + destino);
+        }
+        return respuesta.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.indexOf(';') > 0 ? c.substring(0, c.indexOf(';')) : c)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("El inicio de sesión no devolvió JSESSIONID (HTTP "
+                        + respuesta.statusCode() + ")"));
+    }
+
+    CompletableFuture<HttpResponse<Void>> enviar(HttpRequest peticion) {
+        return cliente.sendAsync(peticion, HttpResponse.BodyHandlers.discarding());
+    }
+
+    HttpResponse<String> enviarEsperando(HttpRequest peticion) throws IOException, InterruptedException {
+        return cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpRequest get(String ruta, String cookie) {
+        return constructor(ruta, cookie).GET().build();
+    }
+
+    HttpRequest formulario(String ruta, String cookie, String cuerpo) {
+        return constructor(ruta, cookie)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build();
+    }
+
+    /**
+     * POST multipart/form-data con un único archivo y campos de texto.
+     */
+    HttpRequest archivo(String ruta, String cookie, String campo, String nombreArchivo, byte[] contenido,
+            String... camposTexto) {
+        String limite = "----carga" + UUID.randomUUID();
+        List<byte[]> partes = new ArrayList<>();
+        for (int i = 0; i + 1 < camposTexto.length; i += 2) {
+            partes.add(("--" + limite + "\r\nContent-Disposition: form-data; name=\"" + camposTexto[i]
+                    + "\"\r\n\r\n" + camposTexto[i + 1] + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+        partes.add(("--" + limite + "\r\nContent-Disposition: form-data; name=\"" + campo + "\"; filename=\""
+                + nombreArchivo + "\"\r\nContent-Type: application/octet-stream\r\n\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+        partes.add(contenido);
+        partes.add(("\r\n--" + limite + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return constructor(ruta, cookie)
+                .timeout(Duration.ofMinutes(10))
+                .header("Content-Type", "multipart/form-data; boundary=" + limite)
+                .POST(HttpRequest.BodyPublishers.ofByteArrays(partes))
+                .build();
+    }
+
+    private HttpRequest.Builder constructor(String ruta, String cookie) {
+        HttpRequest.Builder constructor = HttpRequest.newBuilder(base.resolve(ruta)).timeout(Duration.ofSeconds(30));
+        if (cookie != null) {
+            constructor.header("Cookie", cookie);
+        }
+        return constructor;
+    }
+
+    static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,115 @@
+package com.ejemplo.notasapp.carga;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Conjunto de datos de la prueba: `estudiantes` estudiantes con ids
+ * consecutivos desde 1 y `notasPorEstudiante` notas cada uno, con ids también
+ * consecutivos en el orden en que se sembraron.
+ *
+ * La siembra usa los endpoints reales como profesor: los estudiantes por
+ * POST /estudiantes/guardar y todas las notas en un único CSV por
+ * POST /notas/importar. Con la misma semilla se generan los mismos valores.
+ * Los ids solo coinciden si la base está vacía al sembrar.
+ */
+final class DatosCarga {
+
+    static final String[] MATERIAS = { "Matematicas", "Fisica", "Quimica", "Historia", "Ingles" };
+
+    private static final int ESTUDIANTES_EN_VUELO = 16;
+
+    private final int estudiantes;
+    private final int notasPorEstudiante;
+
+    DatosCarga(int estudiantes, int notasPorEstudiante) {
+        if (estudiantes < 2) {
+            throw new IllegalArgumentException("Se necesitan al menos 2 estudiantes");
+        }
+        this.estudiantes = estudiantes;
+        this.notasPorEstudiante = notasPorEstudiante;
+    }
+
+    void sembrar(ClienteCarga cliente, String cookieProfesor, long semilla) throws IOException, InterruptedException {
+        Semaphore enVuelo = new Semaphore(ESTUDIANTES_EN_VUELO);
+        CompletableFuture<?>[] pendientes = new CompletableFuture<?>[estudiantes];
+        // Sobre una base vacía los ids quedan en 1..estudiantes aunque las altas lleguen desordenadas
+        for (int i = 1; i <= estudiantes; i++) {
+            enVuelo.acquire();
+            HttpRequest alta = cliente.formulario("/estudiantes/guardar", cookieProfesor,
+                    "nombre=Estudiante" + i + "&apellido=Carga&correo=e" + i + "%40carga.edu");
+            pendientes[i - 1] = cliente.enviar(alta).whenComplete((r, e) -> enVuelo.release())
+                    .thenAccept(r -> comprobar(r, "alta de estudiante"));
+        }
+        CompletableFuture.allOf(pendientes).join();
+
+        if (notasPorEstudiante == 0) {
+            return;
+        }
+        HttpResponse<String> importacion = cliente.enviarEsperando(cliente.archivo("/notas/importar",
+                cookieProfesor, "archivo", "notas.csv", csvNotas(semilla), "formato", "CSV"));
+        comprobar(importacion, "importación de notas");
+    }
+
+    private byte[] csvNotas(long semilla) {
+        Random random = new Random(semilla);
+        StringBuilder csv = new StringBuilder(estudiantes * notasPorEstudiante * 32);
+        csv.append("estudianteId,materia,valor,porcentaje,observacion\n");
+        for (int e = 1; e <= estudiantes; e++) {
+            for (int n = 0; n < notasPorEstudiante; n++) {
+                csv.append(e).append(',')
+                        .append(MATERIAS[n % MATERIAS.length]).append(',')
+                        .append(String.format(Locale.ROOT, "%.1f", random.nextInt(51) / 10.0)).append(',')
+                        .append(5 + random.nextInt(26)).append(",carga\n");
+            }
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void comprobar(HttpResponse<?> respuesta, String paso) {
+        if (respuesta.statusCode() >= 400) {
+            throw new IllegalStateException("Falló la " + paso + ": HTTP " + respuesta.statusCode());
+        }
+    }
+
+    long estudianteAleatorio(Random random) {
+        return 1 + random.nextInt(estudiantes);
+    }
+
+    long otroEstudiante(long estudianteId, Random random) {
+        long otro = 1 + random.nextInt(estudiantes - 1);
+        return otro >= estudianteId ? otro + 1 : otro;
+    }
+
+    long notaDe(long estudianteId, Random random) {
+        if (notasPorEstudiante == 0) {
+            return 1;
+        }
+        return (estudianteId - 1) * notasPorEstudiante + 1 + random.nextInt(notasPorEstudiante);
+    }
+
+    String materiaAleatoria(Random random) {
+        return MATERIAS[random.nextInt(MATERIAS.length)];
+    }
+
+    String formularioNota(long estudianteId, Random random) {
+        return "materia=" + materiaAleatoria(random)
+                + "&valor=" + String.format(Locale.ROOT, "%.1f", random.nextInt(51) / 10.0)
+                + "&porcentaje=" + (5 + random.nextInt(26))
+                + "&observacion=carga&estudiante.id=" + estudianteId;
+    }
+
+    int getEstudiantes() {
+        return estudiantes;
+    }
+
+    int getNotasPorEstudiante() {
+        return notasPorEstudiante;
+    }
+}
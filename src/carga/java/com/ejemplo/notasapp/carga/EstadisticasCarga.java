@@ -0,0 +1,155 @@
+package com.ejemplo.notasapp.carga;
+
+import com.ejemplo.notasapp.metricas.HistogramaLatencia;
+
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resultados de la prueba por operación: latencias en histogramas y conteo de
+ * respuestas según su destino.
+ *
+ * En lazo abierto la latencia se mide desde el instante en que la petición
+ * debía salir según la tasa, no desde que salió: si el servidor o el propio
+ * generador se retrasan, el retraso cuenta (sin omisión coordinada). El
+ * tiempo de servicio, medido desde el envío real, se informa aparte.
+ */
+final class EstadisticasCarga {
+
+    enum Resultado {
+        OK,
+        VIOLACION,
+        BLOQUEADA,
+        ERROR
+    }
+
+    private static final double[] CUANTILES = { 0.50, 0.90, 0.99, 0.999 };
+
+    private final Map<Operacion, PorOperacion> porOperacion = new EnumMap<>(Operacion.class);
+    private final PorOperacion global = new PorOperacion();
+    private final LongAdder descartadas = new LongAdder();
+
+    EstadisticasCarga() {
+        for (Operacion operacion : Operacion.values()) {
+            porOperacion.put(operacion, new PorOperacion());
+        }
+    }
+
+    void registrar(Operacion operacion, long latenciaNanos, long servicioNanos, Resultado resultado) {
+        porOperacion.get(operacion).registrar(latenciaNanos, servicioNanos, resultado);
+        global.registrar(latenciaNanos, servicioNanos, resultado);
+    }
+
+    // Petición no enviada porque se alcanzó el máximo en vuelo
+    void descartar() {
+        descartadas.increment();
+    }
+
+    /**
+     * Clasifica la respuesta: las redirecciones a /error/violacion-seguridad
+     * son violaciones (BLOQUEADA si el motivo es el limitador), las demás
+     * redirecciones a /error/ o al inicio de sesión y los 4xx/5xx son errores.
+     */
+    static Resultado clasificar(HttpResponse<?> respuesta, Throwable error) {
+        if (error != null || respuesta.statusCode() >= 400) {
+            return Resultado.ERROR;
+        }
+        if (respuesta.statusCode() < 300) {
+            return Resultado.OK;
+        }
+        String destino = respuesta.headers().firstValue("Location").orElse("");
+        if (destino.contains("/error/violacion-seguridad")) {
+            return destino.contains("USUARIO_BLOQUEADO") ? Resultado.BLOQUEADA : Resultado.VIOLACION;
+        }
+        if (destino.contains("/error/") || destino.endsWith("/") || destino.contains("/?")) {
+            return Resultado.ERROR;
+        }
+        return Resultado.OK;
+    }
+
+    long getCompletadas() {
+        return global.latencias.getTotal();
+    }
+
+    /**
+     * Informe con la estructura que se serializa a JSON.
+     */
+    Map<String, Object> informe(double segundosMedidos) {
+        Map<String, Object> informe = new LinkedHashMap<>();
+        Map<String, Object> total = global.resumen(segundosMedidos);
+        total.put("descartadas", descartadas.sum());
+        informe.put("total", total);
+
+        Map<String, Object> operaciones = new LinkedHashMap<>();
+        porOperacion.forEach((operacion, datos) -> {
+            if (datos.latencias.getTotal() > 0) {
+                operaciones.put(operacion.name(), datos.resumen(segundosMedidos));
+            }
+        });
+        informe.put("operaciones", operaciones);
+        return informe;
+    }
+
+    private static final class PorOperacion {
+        private final HistogramaLatencia latencias = new HistogramaLatencia();
+        private final HistogramaLatencia servicio = new HistogramaLatencia();
+        private final EnumMap<Resultado, LongAdder> resultados = new EnumMap<>(Resultado.class);
+
+        private PorOperacion() {
+            for (Resultado resultado : Resultado.values()) {
+                resultados.put(resultado, new LongAdder());
+            }
+        }
+
+        private void registrar(long latenciaNanos, long servicioNanos, Resultado resultado) {
+            latencias.registrar(latenciaNanos);
+            servicio.registrar(servicioNanos);
+            resultados.get(resultado).increment();
+        }
+
+        private Map<String, Object> resumen(double segundos) {
+            long total = latencias.getTotal();
+            Map<String, Object> resumen = new LinkedHashMap<>();
+            resumen.put("peticiones", total);
+            resumen.put("rendimiento", redondear(total / segundos));
+            for (Resultado resultado : Resultado.values()) {
+                long cuenta = resultados.get(resultado).sum();
+                resumen.put(resultado.name().toLowerCase(), cuenta);
+            }
+            resumen.put("tasaViolaciones", tasa(resultados.get(Resultado.VIOLACION).sum(), total));
+            resumen.put("tasaBloqueadas", tasa(resultados.get(Resultado.BLOQUEADA).sum(), total));
+            resumen.put("tasaErrores", tasa(resultados.get(Resultado.ERROR).sum(), total));
+            resumen.put("latenciaMs", percentiles(latencias));
+            resumen.put("servicioMs", percentiles(servicio));
+            return resumen;
+        }
+
+        private static Map<String, Object> percentiles(HistogramaLatencia histograma) {
+            long[] valores = histograma.percentiles(CUANTILES);
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            mapa.put("p50", ms(valores[0]));
+            mapa.put("p90", ms(valores[1]));
+            mapa.put("p99", ms(valores[2]));
+            mapa.put("p999", ms(valores[3]));
+            mapa.put("max", ms(histograma.getMaximoNanos()));
+            long total = histograma.getTotal();
+            mapa.put("media", total > 0 ? ms(histograma.getSumaNanos() / total) : 0.0);
+            return mapa;
+        }
+
+        private static double tasa(long parte, long total) {
+            return total > 0 ? redondear((double) parte / total) : 0.0;
+        }
+
+        private static double ms(long nanos) {
+            return redondear(nanos / 1e6);
+        }
+
+        private static double redondear(double valor) {
+            return Math.round(valor * 1000) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ejemplo.notasapp.carga;
+
+import java.net.http.HttpRequest;
+import java.util.Random;
+
+/**
+ * Operaciones que genera la prueba de carga. PROHIBIDA reúne los caminos que
+ * la autorización debe rechazar a un alumno (notas ajenas, edición y
+ * escritura); las demás están permitidas para los roles a los que aplican.
+ */
+enum Operacion {
+
+    LISTAR_NOTAS {
+        @Override
+        HttpRequest peticion(ClienteCarga cliente, SesionCarga sesion, DatosCarga datos, Random random) {
+            return cliente.get("/notas/" + estudianteDe(sesion, datos, random), sesion.getCookie());
+        }
+    },
+    PROMEDIO {
+        @Override
+        HttpRequest peticion(ClienteCarga cliente, SesionCarga sesion, DatosCarga datos, Random random) {
+            return cliente.formulario("/notas/promedio", sesion.getCookie(),
+                    "estudianteId=" + estudianteDe(sesion, datos, random)
+                            + "&materia=" + datos.materiaAleatoria(random));
+        }
+    },
+    PROMEDIOS {
+        @Override
+        HttpRequest peticion(ClienteCarga cliente, SesionCarga sesion, DatosCarga datos, Random random) {
+            return cliente.get("/notas/" + estudianteDe(sesion, datos, random) + "/promedios", sesion.getCookie());
+        }
+    },
+    PROMEDIOS_CURSO {
+        @Override
+        HttpRequest peticion(ClienteCarga cliente, SesionCarga sesion, DatosCarga datos, Random random) {
+            return cliente.get("/notas/promedios", sesion.getCookie());
+        }
+    },
+    ESTUDIANTES {
+        @Override
+        HttpRequest peticion(ClienteCarga cliente, SesionCarga sesion, DatosCarga datos, Random random) {
+            return cliente.get("/estudiantes", sesion.getCookie());
+        }
+    },
+    GUARDAR_NOTA {
+        @Override
+        HttpRequest peticion(ClienteCarga cliente, SesionCarga sesion, DatosCarga datos, Random random) {
+            return cliente.formulario("/notas/guardar", sesion.getCookie(), datos.formularioNota(
+                    estudianteDe(sesion, datos, random), random));
+        }
+    },
+    PROHIBIDA {
+        @Override
+        HttpRequest peticion(ClienteCarga cliente, SesionCarga sesion, DatosCarga datos, Random random) {
+            long ajeno = datos.otroEstudiante(sesion.getEstudianteId(), random);
+            return switch (random.nextInt(3)) {
+                case 0 -> cliente.get("/notas/" + ajeno, sesion.getCookie());
+                case 1 -> cliente.get("/notas/editar/" + datos.notaDe(ajeno, random), sesion.getCookie());
+                default -> cliente.formulario("/notas/guardar", sesion.getCookie(),
+                        datos.formularioNota(sesion.getEstudianteId(), random));
+            };
+        }
+
+        @Override
+        boolean aplicaA(String rol) {
+            return "ALUMNO".equals(rol);
+        }
+    };
+
+    abstract HttpRequest peticion(ClienteCarga cliente, SesionCarga sesion, DatosCarga datos, Random random);
+
+    boolean aplicaA(String rol) {
+        return this != GUARDAR_NOTA && this != PROMEDIOS_CURSO || "PROFESOR".equals(rol);
+    }
+
+    // El alumno consulta su propio estudiante; el profesor uno cualquiera
+    private static long estudianteDe(SesionCarga sesion, DatosCarga datos, Random random) {
+        return sesion.esAlumno() ? sesion.getEstudianteId() : datos.estudianteAleatorio(random);
+    }
+}
@@ -0,0 +1,384 @@
+package com.ejemplo.notasapp.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga con una mezcla de sesiones de alumnos y profesores.
+ *
+ * Inicia `sesiones` sesiones por POST /identificacion (una fracción como
+ * ALUMNO de un estudiante aleatorio, el resto como PROFESOR) y reparte las
+ * peticiones entre ellas según la mezcla de operaciones de cada rol, que
+ * incluye escrituras y caminos prohibidos para los alumnos.
+ *
+ * Modos:
+ * - abierto (por defecto): las peticiones salen a una tasa constante sin
+ *   esperar a las anteriores; la latencia se mide desde el instante previsto
+ * - cerrado: `concurrencia` clientes que envían la siguiente petición al
+ *   recibir la respuesta
+ *
+ * Con --arrancar true levanta la aplicación en un proceso aparte con una base
+ * H2 en memoria y la siembra con `estudiantes` x `notas` (ver DatosCarga).
+ * El informe JSON se escribe en --salida.
+ *
+ * Al terminar consulta /debug/sql: si algún endpoint superó su PresupuestoSql
+ * y --exigir-presupuestos-sql es true, la prueba termina con error para que
+ * la regresión haga fallar el build.
+ *
+ * mvn -Pcarga compile exec:exec -Dcarga.args="--arrancar true --tasa 300 --duracion 60"
+ */
+public final class PruebaCarga {
+
+    private static final Map<String, String> POR_DEFECTO = new LinkedHashMap<>();
+
+    static {
+        POR_DEFECTO.put("url", "http://localhost:8080");
+        POR_DEFECTO.put("arrancar", "false");
+        POR_DEFECTO.put("app-args", "");
+        POR_DEFECTO.put("app-jvm", "");
+        POR_DEFECTO.put("sembrar", "");
+        POR_DEFECTO.put("estudiantes", "200");
+        POR_DEFECTO.put("notas", "20");
+        POR_DEFECTO.put("semilla", "42");
+        POR_DEFECTO.put("sesiones", "100");
+        POR_DEFECTO.put("fraccion-alumnos", "0.8");
+        POR_DEFECTO.put("mezcla-alumno", "LISTAR_NOTAS=55,PROMEDIO=15,PROMEDIOS=15,ESTUDIANTES=10,PROHIBIDA=5");
+        POR_DEFECTO.put("mezcla-profesor",
+                "LISTAR_NOTAS=35,ESTUDIANTES=20,PROMEDIOS=15,PROMEDIO=10,PROMEDIOS_CURSO=5,GUARDAR_NOTA=15");
+        POR_DEFECTO.put("modo", "abierto");
+        POR_DEFECTO.put("tasa", "200");
+        POR_DEFECTO.put("concurrencia", "200");
+        POR_DEFECTO.put("max-en-vuelo", "5000");
+        POR_DEFECTO.put("calentamiento", "5");
+        POR_DEFECTO.put("duracion", "30");
+        POR_DEFECTO.put("salida", "target/carga/informe.json");
+        POR_DEFECTO.put("exigir-presupuestos-sql", "true");
+    }
+
+    private final Map<String, String> opciones;
+    private final URI base;
+    private final ClienteCarga cliente;
+    private final DatosCarga datos;
+    private final Map<String, Mezcla> mezclas = new LinkedHashMap<>();
+    private final EstadisticasCarga estadisticas = new EstadisticasCarga();
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private final List<SesionCarga> sesiones = new ArrayList<>();
+
+    private Process aplicacion;
+
+    private PruebaCarga(Map<String, String> opciones) {
+        this.opciones = opciones;
+        this.base = URI.create(opciones.get("url"));
+        this.cliente = new ClienteCarga(base);
+        this.datos = new DatosCarga(entero("estudiantes"), entero("notas"));
+        mezclas.put("ALUMNO", new Mezcla("ALUMNO", opciones.get("mezcla-alumno")));
+        mezclas.put("PROFESOR", new Mezcla("PROFESOR", opciones.get("mezcla-profesor")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = new LinkedHashMap<>(POR_DEFECTO);
+        for (int i = 0; i < args.length; i++) {
+            String nombre = args[i].replaceFirst("^--", "");
+            if (!POR_DEFECTO.containsKey(nombre) || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Opción desconocida o sin valor: " + args[i]
+                        + ". Opciones: " + POR_DEFECTO.keySet());
+            }
+            opciones.put(nombre, args[++i]);
+        }
+        if (opciones.get("sembrar").isEmpty()) {
+            opciones.put("sembrar", opciones.get("arrancar"));
+        }
+
+        PruebaCarga prueba = new PruebaCarga(opciones);
+        try {
+            prueba.ejecutar();
+        } finally {
+            prueba.detenerAplicacion();
+        }
+    }
+
+    private void ejecutar() throws Exception {
+        if (Boolean.parseBoolean(opciones.get("arrancar"))) {
+            arrancarAplicacion();
+        }
+        String cookieProfesor = cliente.iniciarSesion("carga-profesor", "PROFESOR", 0);
+        if (Boolean.parseBoolean(opciones.get("sembrar"))) {
+            long inicio = System.nanoTime();
+            datos.sembrar(cliente, cookieProfesor, Long.parseLong(opciones.get("semilla")));
+            System.out.printf("Sembrados %d estudiantes con %d notas cada uno en %.1f s%n", datos.getEstudiantes(),
+                    datos.getNotasPorEstudiante(), (System.nanoTime() - inicio) / 1e9);
+        }
+        iniciarSesiones();
+
+        long calentamiento = TimeUnit.SECONDS.toNanos(entero("calentamiento"));
+        long duracion = TimeUnit.SECONDS.toNanos(entero("duracion"));
+        boolean abierto = "abierto".equals(opciones.get("modo"));
+        System.out.printf("Carga %s: %s, %d sesiones, calentamiento %d s, medición %d s%n",
+                opciones.get("modo"), abierto ? opciones.get("tasa") + " peticiones/s"
+                        : opciones.get("concurrencia") + " clientes",
+                sesiones.size(), entero("calentamiento"), entero("duracion"));
+
+        if (abierto) {
+            ejecutarAbierto(calentamiento, duracion);
+        } else {
+            ejecutarCerrado(calentamiento, duracion);
+        }
+        escribirInforme(duracion / 1e9);
+        revisarPresupuestosSql();
+    }
+
+    private void revisarPresupuestosSql() throws IOException, InterruptedException {
+        HttpResponse<String> respuesta = cliente.enviarEsperando(cliente.get("/debug/sql", null));
+        if (respuesta.statusCode() != 200) {
+            System.out.println("Presupuestos SQL: /debug/sql no disponible (" + respuesta.statusCode() + ")");
+            return;
+        }
+        long excedidos = 0;
+        for (String linea : respuesta.body().split("\n")) {
+            if (linea.startsWith("Presupuestos excedidos:") || linea.startsWith("Sospechas N+1:")) {
+                System.out.println(linea);
+            }
+            if (linea.startsWith("Presupuestos excedidos:")) {
+                excedidos = Long.parseLong(linea.substring(linea.indexOf(':') + 1).trim());
+            }
+        }
+        if (excedidos > 0 && Boolean.parseBoolean(opciones.get("exigir-presupuestos-sql"))) {
+            throw new IllegalStateException(excedidos + " peticiones superaron su presupuesto SQL; ver "
+                    + base.resolve("/debug/sql"));
+        }
+    }
+
+    private void iniciarSesiones() throws IOException, InterruptedException {
+        Random random = new Random(Long.parseLong(opciones.get("semilla")));
+        int total = entero("sesiones");
+        int alumnos = (int) Math.round(total * Double.parseDouble(opciones.get("fraccion-alumnos")));
+        for (int i = 0; i < total; i++) {
+            boolean alumno = i < alumnos;
+            long estudianteId = alumno ? datos.estudianteAleatorio(random) : 0;
+            String nombre = (alumno ? "carga-alumno-" : "carga-profesor-") + i;
+            String rol = alumno ? "ALUMNO" : "PROFESOR";
+            sesiones.add(new SesionCarga(nombre, rol, estudianteId, cliente.iniciarSesion(nombre, rol, estudianteId)));
+        }
+    }
+
+    /**
+     * Lazo abierto: la petición i sale en inicio + i * periodo, haya o no
+     * respuestas pendientes, hasta max-en-vuelo.
+     */
+    private void ejecutarAbierto(long calentamiento, long duracion) throws InterruptedException {
+        Random random = new Random(Long.parseLong(opciones.get("semilla")) + 1);
+        long periodo = (long) (1e9 / Double.parseDouble(opciones.get("tasa")));
+        int maximoEnVuelo = entero("max-en-vuelo");
+        long inicio = System.nanoTime();
+        long inicioMedicion = inicio + calentamiento;
+        long fin = inicioMedicion + duracion;
+
+        for (long i = 0; ; i++) {
+            long previsto = inicio + i * periodo;
+            if (previsto >= fin) {
+                break;
+            }
+            long espera = previsto - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            boolean medir = previsto >= inicioMedicion;
+            if (enVuelo.get() >= maximoEnVuelo) {
+                if (medir) {
+                    estadisticas.descartar();
+                }
+                continue;
+            }
+            lanzar(random, previsto, medir, null);
+        }
+        esperarPendientes();
+    }
+
+    /**
+     * Lazo cerrado: cada cliente encadena su siguiente petición al completar
+     * la anterior. La latencia coincide con el tiempo de servicio.
+     */
+    private void ejecutarCerrado(long calentamiento, long duracion) throws InterruptedException {
+        int concurrencia = entero("concurrencia");
+        long inicioMedicion = System.nanoTime() + calentamiento;
+        long fin = inicioMedicion + duracion;
+        CountDownLatch terminados = new CountDownLatch(concurrencia);
+        for (int i = 0; i < concurrencia; i++) {
+            encadenar(inicioMedicion, fin, terminados);
+        }
+        terminados.await();
+    }
+
+    private void encadenar(long inicioMedicion, long fin, CountDownLatch terminados) {
+        long ahora = System.nanoTime();
+        if (ahora >= fin) {
+            terminados.countDown();
+            return;
+        }
+        lanzar(ThreadLocalRandom.current(), ahora, ahora >= inicioMedicion,
+                () -> encadenar(inicioMedicion, fin, terminados));
+    }
+
+    private void lanzar(Random random, long previsto, boolean medir, Runnable alTerminar) {
+        SesionCarga sesion = sesiones.get(random.nextInt(sesiones.size()));
+        Operacion operacion = mezclas.get(sesion.getRol()).elegir(random);
+        HttpRequest peticion = operacion.peticion(cliente, sesion, datos, random);
+
+        enVuelo.incrementAndGet();
+        long envio = System.nanoTime();
+        cliente.enviar(peticion).whenComplete((respuesta, error) -> {
+            long recibido = System.nanoTime();
+            enVuelo.decrementAndGet();
+            if (medir) {
+                estadisticas.registrar(operacion, recibido - previsto, recibido - envio,
+                        EstadisticasCarga.clasificar(respuesta, error));
+            }
+            if (alTerminar != null) {
+                alTerminar.run();
+            }
+        });
+    }
+
+    private void esperarPendientes() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (enVuelo.get() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+    }
+
+    private void escribirInforme(double segundosMedidos) throws IOException {
+        Map<String, Object> informe = new LinkedHashMap<>();
+        informe.put("configuracion", new LinkedHashMap<>(opciones));
+        informe.putAll(estadisticas.informe(segundosMedidos));
+
+        Path salida = Path.of(opciones.get("salida"));
+        if (salida.getParent() != null) {
+            Files.createDirectories(salida.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(salida.toFile(), informe);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> total = (Map<String, Object>) informe.get("total");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> latencia = (Map<String, Object>) total.get("latenciaMs");
+        System.out.printf("Peticiones: %s (%s/s), violaciones %s, bloqueadas %s, errores %s, descartadas %s%n",
+                total.get("peticiones"), total.get("rendimiento"), total.get("violacion"), total.get("bloqueada"),
+                total.get("error"), total.get("descartadas"));
+        System.out.printf("Latencia ms: p50 %s  p90 %s  p99 %s  p99.9 %s  máx %s%n", latencia.get("p50"),
+                latencia.get("p90"), latencia.get("p99"), latencia.get("p999"), latencia.get("max"));
+        System.out.println("Informe: " + salida.toAbsolutePath());
+    }
+
+    private void arrancarAplicacion() throws IOException, InterruptedException {
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(argumentos(opciones.get("app-jvm")));
+        comando.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                "com.ejemplo.notasapp.NotasAppApplication",
+                "--server.port=" + base.getPort(),
+                "--spring.datasource.url=jdbc:h2:mem:carga;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--notasapp.registro.nivel-por-defecto=OFF"));
+        comando.addAll(argumentos(opciones.get("app-args")));
+
+        File registro = Path.of(opciones.get("salida")).resolveSibling("aplicacion.log").toFile();
+        Files.createDirectories(registro.toPath().toAbsolutePath().getParent());
+        aplicacion = new ProcessBuilder(comando).redirectErrorStream(true).redirectOutput(registro).start();
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+        while (System.nanoTime() < limite) {
+            if (!aplicacion.isAlive()) {
+                throw new IllegalStateException("La aplicación terminó al arrancar; ver " + registro);
+            }
+            try {
+                HttpResponse<String> respuesta = cliente.enviarEsperando(cliente.get("/", null));
+                if (respuesta.statusCode() == 200) {
+                    System.out.println("Aplicación lista en " + base + " (registro: " + registro + ")");
+                    return;
+                }
+            } catch (IOException e) {
+                // Todavía no acepta conexiones
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("La aplicación no respondió en 120 s; ver " + registro);
+    }
+
+    private void detenerAplicacion() throws InterruptedException {
+        if (aplicacion != null) {
+            aplicacion.destroy();
+            if (!aplicacion.waitFor(30, TimeUnit.SECONDS)) {
+                aplicacion.destroyForcibly();
+            }
+        }
+    }
+
+    private int entero(String nombre) {
+        return Integer.parseInt(opciones.get(nombre));
+    }
+
+    private static List<String> argumentos(String texto) {
+        return texto.isBlank() ? List.of() : Arrays.asList(texto.trim().split("\\s+"));
+    }
+
+    /**
+     * Elección ponderada de operaciones para un rol, a partir de
+     * "OPERACION=peso,...".
+     */
+    private static final class Mezcla {
+        private final Operacion[] operaciones;
+        private final int[] acumulados;
+
+        private Mezcla(String rol, String definicion) {
+            Map<Operacion, Integer> pesos = new EnumMap<>(Operacion.class);
+            for (String parte : definicion.split(",")) {
+                String[] par = parte.trim().split("=");
+                Operacion operacion = Operacion.valueOf(par[0].trim());
+                if (!operacion.aplicaA(rol)) {
+                    throw new IllegalArgumentException(operacion + " no aplica al rol " + rol);
+                }
+                pesos.put(operacion, Integer.parseInt(par[1].trim()));
+            }
+            operaciones = pesos.keySet().toArray(new Operacion[0]);
+            acumulados = new int[operaciones.length];
+            int suma = 0;
+            for (int i = 0; i < operaciones.length; i++) {
+                suma += pesos.get(operaciones[i]);
+                acumulados[i] = suma;
+            }
+            if (suma <= 0) {
+                throw new IllegalArgumentException("Mezcla vacía para " + rol);
+            }
+        }
+
+        private Operacion elegir(Random random) {
+            int valor = random.nextInt(acumulados[acumulados.length - 1]);
+            for (int i = 0; i < acumulados.length; i++) {
+                if (valor < acumulados[i]) {
+                    return operaciones[i];
+                }
+            }
+            return operaciones[operaciones.length - 1];
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ejemplo.notasapp.carga;
+
+/**
+ * Sesión iniciada por la prueba de carga. estudianteId es 0 para PROFESOR.
+ */
+final class SesionCarga {
+
+    private final String nombre;
+    private final String rol;
+    private final long estudianteId;
+    private final String cookie;
+
+    SesionCarga(String nombre, String rol, long estudianteId, String cookie) {
+        this.nombre = nombre;
+        this.rol = rol;
+        this.estudianteId = estudianteId;
+        this.cookie = cookie;
+    }
+
+    boolean esAlumno() {
+        return "ALUMNO".equals(rol);
+    }
+
+    String getNombre() {
+        return nombre;
+    }
+
+    String getRol() {
+        return rol;
+    }
+
+    long getEstudianteId() {
+        return estudianteId;
+    }
+
+    String getCookie() {
+        return cookie;
+    }
+}
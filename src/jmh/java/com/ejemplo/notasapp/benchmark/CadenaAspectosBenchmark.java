@@ -0,0 +1,130 @@
+package com.ejemplo.notasapp.benchmark;
+
+import com.ejemplo.notasapp.controlador.NotaController;
+import com.ejemplo.notasapp.modelo.Rol;
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+import com.ejemplo.notasapp.modelo.VistaNotasEstudiante;
+import com.ejemplo.notasapp.servicio.ServicioResumenNotas;
+import com.ejemplo.notasapp.servicio.VersionesEstudiante;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de la cadena de advice alrededor de NotaController.listar, editar y
+ * calcularPromedio, con los aspectos activos y sin ellos.
+ *
+ * La diferencia entre aspectos=true y aspectos=false es el costo del AOP
+ * (autorización, métricas y trazado) sobre la misma consulta a H2.
+ * listarAlumnoSinCambios envía el ETag vigente: la misma autorización y un 304.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CadenaAspectosBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Contexto {
+
+        @Param({ "true", "false" })
+        public boolean aspectos;
+
+        ConfigurableApplicationContext contexto;
+        NotaController notaController;
+        long estudianteId;
+        long notaId;
+        VersionesEstudiante versiones;
+
+        @Setup(Level.Trial)
+        public void iniciar() {
+            contexto = ContextoBenchmark.iniciar(aspectos);
+            JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+            estudianteId = GeneradorDatos.sembrar(jdbc, 100, 20, 42L);
+            notaId = jdbc.queryForObject("SELECT MIN(id) FROM nota WHERE estudiante_id = ?", Long.class,
+                    estudianteId);
+            // Las notas se sembraron por JDBC: el resumen se construye antes de medir
+            contexto.getBean(ServicioResumenNotas.class).verificar(true);
+            notaController = contexto.getBean(NotaController.class);
+            versiones = contexto.getBean(VersionesEstudiante.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void cerrar() {
+            contexto.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SesionAlumno {
+        @Setup(Level.Trial)
+        public void iniciar(Contexto contexto) {
+            ContextoBenchmark.iniciarSesion(new UsuarioSesion("Alumno", Rol.ALUMNO, contexto.estudianteId));
+        }
+
+        @TearDown(Level.Trial)
+        public void cerrar() {
+            ContextoBenchmark.cerrarSesion();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SesionProfesor {
+        @Setup(Level.Trial)
+        public void iniciar() {
+            ContextoBenchmark.iniciarSesion(new UsuarioSesion("Profesor", Rol.PROFESOR, null));
+        }
+
+        @TearDown(Level.Trial)
+        public void cerrar() {
+            ContextoBenchmark.cerrarSesion();
+        }
+    }
+
+    @Benchmark
+    public String listarAlumno(Contexto contexto, SesionAlumno sesion) {
+        return listar(contexto, false);
+    }
+
+    @Benchmark
+    public String listarAlumnoSinCambios(Contexto contexto, SesionAlumno sesion) {
+        return listar(contexto, true);
+    }
+
+    private static String listar(Contexto contexto, boolean conEtag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/notas/" + contexto.estudianteId);
+        request.setRequestedSessionIdFromCookie(true);
+        if (conEtag) {
+            // El ETag cambia de periodo con el TTL de la caché: se pide el vigente
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, contexto.versiones.etag(contexto.estudianteId));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        return contexto.notaController.listar(contexto.estudianteId, null, VistaNotasEstudiante.Orden.ID,
+                new ExtendedModelMap(), new ServletWebRequest(request, response), response);
+    }
+
+    @Benchmark
+    public String editarProfesor(Contexto contexto, SesionProfesor sesion) {
+        return contexto.notaController.editar(contexto.notaId, new ExtendedModelMap());
+    }
+
+    @Benchmark
+    public String calcularPromedioAlumno(Contexto contexto, SesionAlumno sesion) {
+        return contexto.notaController.calcularPromedio(contexto.estudianteId, GeneradorDatos.MATERIAS[0],
+                new ExtendedModelMap());
+    }
+}
@@ -0,0 +1,79 @@
+package com.ejemplo.notasapp.benchmark;
+
+import com.ejemplo.notasapp.modelo.Rol;
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+import com.ejemplo.notasapp.sesion.CodecUsuarioSesion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificar y decodificar un UsuarioSesion con CodecUsuarioSesion frente a la
+ * serialización de Java que usa la sesión de Tomcat. Los tamaños en bytes de
+ * cada formato se imprimen al preparar el estado.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CodecSesionBenchmark {
+
+    @Param({ "ALUMNO", "PROFESOR" })
+    public Rol rol;
+
+    private UsuarioSesion usuario;
+    private byte[] codificado;
+    private byte[] serializado;
+
+    @Setup
+    public void preparar() throws IOException {
+        usuario = rol == Rol.ALUMNO
+                ? new UsuarioSesion("Ana García", Rol.ALUMNO, 12345L)
+                : new UsuarioSesion("Prof. Martínez", Rol.PROFESOR, null);
+        codificado = CodecUsuarioSesion.codificar(usuario);
+        serializado = serializar(usuario);
+        System.out.println("\n" + rol + ": codec " + codificado.length + " bytes, serialización Java "
+                + serializado.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] codificarCodec() {
+        return CodecUsuarioSesion.codificar(usuario);
+    }
+
+    @Benchmark
+    public UsuarioSesion decodificarCodec() {
+        return CodecUsuarioSesion.decodificar(codificado);
+    }
+
+    @Benchmark
+    public byte[] serializarJava() throws IOException {
+        return serializar(usuario);
+    }
+
+    @Benchmark
+    public Object deserializarJava() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(serializado))) {
+            return entrada.readObject();
+        }
+    }
+
+    private static byte[] serializar(UsuarioSesion usuario) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream salida = new ObjectOutputStream(bytes)) {
+            salida.writeObject(usuario);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,69 @@
+package com.ejemplo.notasapp.benchmark;
+
+import com.ejemplo.notasapp.NotasAppApplication;
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Arranque del contexto Spring para los benchmarks.
+ *
+ * Usa una base H2 en memoria propia de cada contexto y no levanta Tomcat: los
+ * controladores se invocan directamente a través de sus proxies AOP. Con
+ * aspectos=false se desactiva el auto-proxy (spring.aop.auto=false) para medir
+ * los mismos métodos sin ningún advice.
+ */
+public final class ContextoBenchmark {
+
+    private ContextoBenchmark() {
+    }
+
+    public static ConfigurableApplicationContext iniciar(boolean aspectos, String... propiedadesExtra) {
+        String[] propiedades = {
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false",
+                "spring.h2.console.enabled=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "notasapp.registro.nivel-por-defecto=OFF",
+                // Los benchmarks repiten la ruta de denegación: sin limitador no se bloquea al usuario
+                "notasapp.limitador.habilitado=false",
+                // Sin los proxies JDBC de MonitorSql; un benchmark puede activarlo en propiedadesExtra
+                "notasapp.sql.monitor.habilitado=false",
+                "spring.aop.auto=" + aspectos
+        };
+        // Como argumentos de línea de comandos: prevalecen sobre application.properties
+        String[] argumentos = Stream.concat(Arrays.stream(propiedades), Arrays.stream(propiedadesExtra))
+                .map(propiedad -> "--" + propiedad)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(NotasAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos);
+    }
+
+    /**
+     * Asocia al hilo actual una petición con el usuario dado en sesión, como
+     * lo vería el aspecto de autorización.
+     */
+    public static void iniciarSesion(UsuarioSesion usuario) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("usuario", usuario);
+        request.setSession(session);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    public static void cerrarSesion() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+}
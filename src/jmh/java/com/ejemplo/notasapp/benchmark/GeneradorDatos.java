@@ -0,0 +1,77 @@
+package com.ejemplo.notasapp.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generador de datos sintéticos para los benchmarks.
+ *
+ * Inserta estudiantes y notas con lotes JDBC sobre la base H2 en memoria del
+ * contexto de benchmark. Con la misma semilla genera siempre los mismos datos.
+ */
+public final class GeneradorDatos {
+
+    public static final String[] MATERIAS = { "Matematicas", "Fisica", "Quimica", "Historia", "Ingles" };
+
+    private static final int TAMANO_LOTE = 1000;
+
+    private GeneradorDatos() {
+    }
+
+    /**
+     * Inserta {@code estudiantes} estudiantes con {@code notasPorEstudiante}
+     * notas cada uno, repartidas entre MATERIAS. Retorna el id del primer
+     * estudiante insertado.
+     */
+    public static long sembrar(JdbcTemplate jdbc, int estudiantes, int notasPorEstudiante, long semilla) {
+        Random random = new Random(semilla);
+        Long maximoAnterior = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM estudiante", Long.class);
+
+        List<Object[]> filas = new ArrayList<>(TAMANO_LOTE);
+        for (int i = 0; i < estudiantes; i++) {
+            filas.add(new Object[] { "Nombre" + i, "Apellido" + random.nextInt(estudiantes), "e" + i + "@correo.edu" });
+            if (filas.size() == TAMANO_LOTE) {
+                jdbc.batchUpdate("INSERT INTO estudiante (nombre, apellido, correo) VALUES (?, ?, ?)", filas);
+                filas.clear();
+            }
+        }
+        if (!filas.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO estudiante (nombre, apellido, correo) VALUES (?, ?, ?)", filas);
+            filas.clear();
+        }
+
+        long primerId = maximoAnterior + 1;
+        for (long estudianteId = primerId; estudianteId < primerId + estudiantes; estudianteId++) {
+            sembrarNotas(jdbc, estudianteId, notasPorEstudiante, MATERIAS, random);
+        }
+        return primerId;
+    }
+
+    /**
+     * Inserta notas de un estudiante repartidas entre las materias dadas.
+     */
+    public static void sembrarNotas(JdbcTemplate jdbc, long estudianteId, int cantidad, String[] materias,
+            Random random) {
+        List<Object[]> filas = new ArrayList<>(Math.min(cantidad, TAMANO_LOTE));
+        for (int i = 0; i < cantidad; i++) {
+            double valor = Math.round(random.nextDouble() * 50) / 10.0;
+            double porcentaje = 5 + random.nextInt(26);
+            filas.add(new Object[] { materias[i % materias.length], "Obs " + i, valor, porcentaje, estudianteId });
+            if (filas.size() == TAMANO_LOTE) {
+                insertarNotas(jdbc, filas);
+                filas.clear();
+            }
+        }
+        if (!filas.isEmpty()) {
+            insertarNotas(jdbc, filas);
+        }
+    }
+
+    private static void insertarNotas(JdbcTemplate jdbc, List<Object[]> filas) {
+        jdbc.batchUpdate("INSERT INTO nota (materia, observacion, valor, porcentaje, estudiante_id) "
+                + "VALUES (?, ?, ?, ?, ?)", filas);
+    }
+}
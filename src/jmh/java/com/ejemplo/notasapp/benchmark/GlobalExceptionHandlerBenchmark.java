@@ -0,0 +1,92 @@
+package com.ejemplo.notasapp.benchmark;
+
+import com.ejemplo.notasapp.controlador.GlobalExceptionHandler;
+import com.ejemplo.notasapp.excepcion.EstudianteNoEncontrado;
+import com.ejemplo.notasapp.excepcion.ViolacionSeguridad;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.web.servlet.view.RedirectView;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Ruta de denegación: construcción de la URL de redirección en
+ * GlobalExceptionHandler y costo de crear la excepción.
+ *
+ * Los métodos *Antes reproducen la implementación anterior (excepción con
+ * traza de pila y cuatro URLEncoder.encode por redirección) para comparar con
+ * la actual (ViolacionSeguridad sin traza y plantilla precompilada).
+ *
+ * profundidad simula la pila de una petición real a través de Tomcat, Spring
+ * MVC y los proxies AOP, que suele superar los 100 marcos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GlobalExceptionHandlerBenchmark {
+
+    private static final String DETALLES =
+            "Los alumnos solo pueden acceder a sus propias notas. Intento de acceso a estudiante ID: 2";
+
+    @Param({ "20", "150" })
+    private int profundidad;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    private final ViolacionSeguridad violacion = ViolacionSeguridad.accesoNoAutorizado("Ana", "listar", DETALLES);
+
+    private final EstudianteNoEncontrado noEncontrado = new EstudianteNoEncontrado("Estudiante no encontrado", "404",
+            new RuntimeException());
+
+    @Benchmark
+    public RedirectView redireccionViolacion() {
+        return handler.handleViolacionSeguridad(violacion);
+    }
+
+    @Benchmark
+    public RedirectView redireccionViolacionAntes() {
+        String redirectUrl = "/error/violacion-seguridad?" +
+                "tipoViolacion=" + URLEncoder.encode(violacion.getTipoViolacion(), StandardCharsets.UTF_8) +
+                "&usuario=" + URLEncoder.encode(violacion.getUsuario(), StandardCharsets.UTF_8) +
+                "&operacion=" + URLEncoder.encode(violacion.getOperacion(), StandardCharsets.UTF_8) +
+                "&detalles=" + URLEncoder.encode(violacion.getDetalles(), StandardCharsets.UTF_8) +
+                "&codigoError=" + violacion.getCodigoError();
+        return new RedirectView(redirectUrl);
+    }
+
+    @Benchmark
+    public RedirectView redireccionEstudianteNoEncontrado() {
+        return handler.handleEstudianteNoEncontrado(noEncontrado);
+    }
+
+    @Benchmark
+    public RedirectView crearYManejarViolacion() {
+        return handler.handleViolacionSeguridad(
+                apilar(profundidad, () -> ViolacionSeguridad.accesoNoAutorizado("Ana", "listar", DETALLES)));
+    }
+
+    @Benchmark
+    public RuntimeException crearViolacionAntes() {
+        // Excepción equivalente a la anterior: mensaje formateado y traza completa
+        return apilar(profundidad, () -> new RuntimeException(String.format(
+                "Violación de seguridad: %s - Usuario: %s - Operación: %s", "ACCESO_NO_AUTORIZADO", "Ana",
+                "listar")));
+    }
+
+    @Benchmark
+    public RuntimeException crearViolacion() {
+        return apilar(profundidad, () -> ViolacionSeguridad.accesoNoAutorizado("Ana", "listar", DETALLES));
+    }
+
+    private static <T> T apilar(int marcos, Supplier<T> creador) {
+        return marcos <= 0 ? creador.get() : apilar(marcos - 1, creador);
+    }
+}
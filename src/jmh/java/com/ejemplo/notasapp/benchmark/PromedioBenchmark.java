@@ -0,0 +1,73 @@
+package com.ejemplo.notasapp.benchmark;
+
+import com.ejemplo.notasapp.modelo.PromedioMateria;
+import com.ejemplo.notasapp.repositorio.RepositorioNota;
+import com.ejemplo.notasapp.servicio.ServicioNota;
+import com.ejemplo.notasapp.servicio.ServicioResumenNotas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Promedio de una materia de un estudiante con N notas: lectura de la fila de
+ * resumen (ServicioNota) comparada con agregar las notas en la base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PromedioBenchmark {
+
+    private static final String[] MATERIA = { "Matematicas" };
+
+    @Param({ "10", "1000", "100000" })
+    public int notas;
+
+    private ConfigurableApplicationContext contexto;
+    private ServicioNota servicioNota;
+    private RepositorioNota repositorioNota;
+    private long estudianteId;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar(true);
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        estudianteId = GeneradorDatos.sembrar(jdbc, 1, 0, 7L);
+        GeneradorDatos.sembrarNotas(jdbc, estudianteId, notas, MATERIA, new Random(7L));
+        contexto.getBean(ServicioResumenNotas.class).verificar(true);
+        servicioNota = contexto.getBean(ServicioNota.class);
+        repositorioNota = contexto.getBean(RepositorioNota.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public double promedioDesdeResumen() {
+        return servicioNota.calcularPromedioPorMateria(estudianteId, MATERIA[0]);
+    }
+
+    @Benchmark
+    public List<PromedioMateria> promediosDesdeResumen() {
+        return servicioNota.calcularPromediosPorMateria(estudianteId);
+    }
+
+    @Benchmark
+    public List<PromedioMateria> promediosAgregandoNotas() {
+        return repositorioNota.calcularPromediosPorMateria(estudianteId);
+    }
+}
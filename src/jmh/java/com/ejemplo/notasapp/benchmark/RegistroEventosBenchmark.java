@@ -0,0 +1,82 @@
+package com.ejemplo.notasapp.benchmark;
+
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import com.ejemplo.notasapp.registro.Registrador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bloque de consola con System.out.println (como lo hacían los aspectos)
+ * frente a un evento de RegistroEventos, activo y desactivado por nivel.
+ *
+ * La salida estándar se redirige a un flujo nulo para medir solo el costo en
+ * el hilo que registra, incluida la contención por el candado de PrintStream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class RegistroEventosBenchmark {
+
+    private PrintStream salidaOriginal;
+    private ConfigurableApplicationContext contexto;
+    private Registrador activo;
+    private Registrador desactivado;
+
+    private final String usuario = "Ana";
+    private final String accion = "listar";
+    private final String detalles = "Intento de acceder a notas de estudiante ID: 2";
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        salidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        contexto = ContextoBenchmark.iniciar(false,
+                "notasapp.registro.nivel.Activo=INFO",
+                "notasapp.registro.nivel.Desactivado=WARN");
+        RegistroEventos registroEventos = contexto.getBean(RegistroEventos.class);
+        activo = registroEventos.registrador("Activo");
+        desactivado = registroEventos.registrador("Desactivado");
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+        System.setOut(salidaOriginal);
+    }
+
+    @Benchmark
+    public void consolaSincronizada() {
+        System.out.println("=== VIOLACIÓN DE SEGURIDAD DETECTADA ===");
+        System.out.println("Usuario: " + usuario);
+        System.out.println("Acción intentada: " + accion);
+        System.out.println("Detalles: " + detalles);
+        System.out.println("=========================================");
+    }
+
+    @Benchmark
+    public void eventoActivo() {
+        activo.evento(NivelEvento.INFO, "violacion_seguridad",
+                "usuario", usuario, "accion", accion, "detalles", detalles);
+    }
+
+    @Benchmark
+    public void eventoDesactivado() {
+        desactivado.evento(NivelEvento.INFO, "violacion_seguridad",
+                "usuario", usuario, "accion", accion, "detalles", detalles);
+    }
+}
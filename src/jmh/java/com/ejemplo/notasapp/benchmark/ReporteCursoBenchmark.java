@@ -0,0 +1,70 @@
+package com.ejemplo.notasapp.benchmark;
+
+import com.ejemplo.notasapp.modelo.ReporteCurso;
+import com.ejemplo.notasapp.servicio.ServicioReporteCurso;
+import com.ejemplo.notasapp.servicio.ServicioResumenNotas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reporte del curso completo con 1..N hilos en el ForkJoinPool sobre un
+ * curso sintético (por defecto 100 000 estudiantes con una nota por materia).
+ *
+ * El pool de conexiones se agranda para que no limite al paralelismo medido;
+ * la escala real depende de los núcleos de la máquina.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReporteCursoBenchmark {
+
+    @Param({ "100000" })
+    public int estudiantes;
+
+    @Param({ "1", "2", "4", "8" })
+    public int paralelismo;
+
+    @Param({ "2000" })
+    public int estudiantesPorParticion;
+
+    private ConfigurableApplicationContext contexto;
+    private ServicioReporteCurso servicioReporte;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar(false,
+                "spring.datasource.hikari.maximum-pool-size=" + Math.max(8, paralelismo),
+                "notasapp.reporte.estudiantes-por-particion=" + estudiantesPorParticion,
+                "notasapp.analitica.habilitada=false");
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        GeneradorDatos.sembrar(jdbc, estudiantes, GeneradorDatos.MATERIAS.length, 20L);
+        contexto.getBean(ServicioResumenNotas.class).verificar(true);
+        servicioReporte = contexto.getBean(ServicioReporteCurso.class);
+        pool = ServicioReporteCurso.nuevoPool(paralelismo);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        pool.shutdownNow();
+        contexto.close();
+    }
+
+    @Benchmark
+    public ReporteCurso generar() {
+        return servicioReporte.generar(pool);
+    }
+}
@@ -0,0 +1,103 @@
+package com.ejemplo.notasapp.benchmark;
+
+import com.ejemplo.notasapp.controlador.NotaController;
+import com.ejemplo.notasapp.modelo.Rol;
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo del advice de seguridad (AspectosAutorizacion y Aspectos) según cómo
+ * se aplica: proxies de Spring AOP o tejido por ajc (perfil `aspectj`).
+ *
+ * NotaController.mostrarFormularioPromedio no consulta la base de datos, así
+ * que lo medido es el advice: búsqueda en la tabla de decisiones, lectura de
+ * la sesión, la regla del alumno y el trazado (DEBUG desactivado). Las
+ * métricas y el monitor SQL están apagados para que ningún otro aspecto
+ * envuelva al controlador.
+ *
+ * - mvn clean -Pjmh compile exec:exec: aspectos=true mide los proxies y
+ *   aspectos=false el método sin advice.
+ * - mvn clean -Pjmh,aspectj compile exec:exec: el advice está en el bytecode
+ *   y aspectos solo activa el auto-proxy de Spring, que aquí no envuelve nada;
+ *   ambas filas miden el advice tejido.
+ *
+ * Al arrancar cada contexto se registra el evento modo_aspectos con el modo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TejidoAspectosBenchmark {
+
+    private static final long ESTUDIANTE_ID = 1L;
+
+    @State(Scope.Benchmark)
+    public static class Contexto {
+
+        @Param({ "true", "false" })
+        public boolean aspectos;
+
+        ConfigurableApplicationContext contexto;
+        NotaController notaController;
+
+        @Setup(Level.Trial)
+        public void iniciar() {
+            contexto = ContextoBenchmark.iniciar(aspectos, "notasapp.metricas.habilitadas=false");
+            notaController = contexto.getBean(NotaController.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void cerrar() {
+            contexto.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SesionAlumno {
+        @Setup(Level.Trial)
+        public void iniciar() {
+            ContextoBenchmark.iniciarSesion(new UsuarioSesion("Alumno", Rol.ALUMNO, ESTUDIANTE_ID));
+        }
+
+        @TearDown(Level.Trial)
+        public void cerrar() {
+            ContextoBenchmark.cerrarSesion();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SesionProfesor {
+        @Setup(Level.Trial)
+        public void iniciar() {
+            ContextoBenchmark.iniciarSesion(new UsuarioSesion("Profesor", Rol.PROFESOR, null));
+        }
+
+        @TearDown(Level.Trial)
+        public void cerrar() {
+            ContextoBenchmark.cerrarSesion();
+        }
+    }
+
+    /** Alumno sobre su propio estudianteId: se evalúa la regla ESTUDIANTE_PROPIO. */
+    @Benchmark
+    public String formularioAlumno(Contexto contexto, SesionAlumno sesion) {
+        return contexto.notaController.mostrarFormularioPromedio(ESTUDIANTE_ID, new ExtendedModelMap());
+    }
+
+    /** Profesor: búsqueda en la tabla y lectura de la sesión, sin reglas que evaluar. */
+    @Benchmark
+    public String formularioProfesor(Contexto contexto, SesionProfesor sesion) {
+        return contexto.notaController.mostrarFormularioPromedio(ESTUDIANTE_ID, new ExtendedModelMap());
+    }
+}
@@ -0,0 +1,42 @@
+package com.ejemplo.notasapp.benchmark;
+
+import com.ejemplo.notasapp.modelo.Rol;
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de UsuarioSesion.puedeAccederAEstudiante, que se evalúa en cada
+ * petición de un alumno.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UsuarioSesionBenchmark {
+
+    private final UsuarioSesion alumno = new UsuarioSesion("Ana", Rol.ALUMNO, 1L);
+    private final UsuarioSesion profesor = new UsuarioSesion("Prof", Rol.PROFESOR, null);
+    private Long propio = 1L;
+    private Long ajeno = 2L;
+
+    @Benchmark
+    public boolean alumnoPropio() {
+        return alumno.puedeAccederAEstudiante(propio);
+    }
+
+    @Benchmark
+    public boolean alumnoAjeno() {
+        return alumno.puedeAccederAEstudiante(ajeno);
+    }
+
+    @Benchmark
+    public boolean profesor() {
+        return profesor.puedeAccederAEstudiante(ajeno);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ejemplo.notasapp.aspecto;
+
+import com.ejemplo.notasapp.excepcion.EstudianteNoEncontrado;
+import com.ejemplo.notasapp.excepcion.ViolacionSeguridad;
+import com.ejemplo.notasapp.metricas.RegistroMetricas;
+import com.ejemplo.notasapp.metricas.RegistroMetricas.Resultado;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspecto de métricas: mide la latencia de todos los métodos de @Controller y
+ * @Service de la aplicación y la registra por método y resultado.
+ *
+ * Tiene la máxima precedencia para envolver también a los aspectos de
+ * autorización, de modo que las denegaciones quedan medidas como resultado
+ * ViolacionSeguridad. Se desactiva con notasapp.metricas.habilitadas=false.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "notasapp.metricas.habilitadas", havingValue = "true", matchIfMissing = true)
+public class AspectoMetricas {
+
+    @Autowired
+    private RegistroMetricas registroMetricas;
+
+    @Pointcut("execution(* com.ejemplo.notasapp..*(..)) && " +
+            "(@within(org.springframework.stereotype.Controller) || @within(org.springframework.stereotype.Service))")
+    public void metodosMedidos() {
+    }
+
+    @Around("metodosMedidos()")
+    public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+        long inicio = System.nanoTime();
+        Resultado resultado = Resultado.OK;
+        try {
+            return joinPoint.proceed();
+        } catch (ViolacionSeguridad e) {
+            resultado = Resultado.VIOLACION_SEGURIDAD;
+            throw e;
+        } catch (EstudianteNoEncontrado e) {
+            resultado = Resultado.ESTUDIANTE_NO_ENCONTRADO;
+            throw e;
+        } catch (Throwable e) {
+            resultado = Resultado.OTRO;
+            throw e;
+        } finally {
+            long duracion = System.nanoTime() - inicio;
+            registroMetricas.registrar(((MethodSignature) joinPoint.getSignature()).getMethod(), resultado, duracion);
+        }
+    }
+}
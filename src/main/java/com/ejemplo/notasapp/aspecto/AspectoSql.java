@@ -0,0 +1,78 @@
+package com.ejemplo.notasapp.aspecto;
+
+import com.ejemplo.notasapp.metricas.MonitorSql;
+import com.ejemplo.notasapp.metricas.PresupuestoSql;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enlaza MonitorSql con los repositorios y los controladores: atribuye las
+ * sentencias de cada llamada a "Repositorio.metodo" y fija el presupuesto de
+ * la petición cuando el método del controlador tiene PresupuestoSql.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "notasapp.sql.monitor.habilitado", havingValue = "true", matchIfMissing = true)
+public class AspectoSql {
+
+    private static final String PAQUETE_REPOSITORIOS = "com.ejemplo.notasapp.repositorio.";
+
+    @Autowired
+    private MonitorSql monitorSql;
+
+    // Los métodos heredados de JpaRepository se comparten entre repositorios: la clave es el proxy
+    private final Map<Class<?>, Map<String, String>> nombres = new ConcurrentHashMap<>();
+
+    @Pointcut("target(com.ejemplo.notasapp.repositorio.RepositorioNota) || "
+            + "target(com.ejemplo.notasapp.repositorio.RepositorioEstudiante) || "
+            + "target(com.ejemplo.notasapp.repositorio.RepositorioLogViolacionSeguridad) || "
+            + "target(com.ejemplo.notasapp.repositorio.RepositorioResumenNota)")
+    public void repositorios() {
+    }
+
+    @Around("repositorios()")
+    public Object atribuir(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!monitorSql.entrarRepositorio(nombre(joinPoint))) {
+            return joinPoint.proceed();
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            monitorSql.salirRepositorio();
+        }
+    }
+
+    @Before("@annotation(presupuesto)")
+    public void fijarPresupuesto(JoinPoint joinPoint, PresupuestoSql presupuesto) {
+        monitorSql.establecerPresupuesto(presupuesto.sentencias(),
+                joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName());
+    }
+
+    private String nombre(JoinPoint joinPoint) {
+        Class<?> clase = joinPoint.getTarget().getClass();
+        return nombres.computeIfAbsent(clase, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(joinPoint.getSignature().getName(), metodo -> repositorio(clase) + "." + metodo);
+    }
+
+    private static String repositorio(Class<?> clase) {
+        for (Class<?> interfaz : clase.getInterfaces()) {
+            if (interfaz.getName().startsWith(PAQUETE_REPOSITORIOS)) {
+                return interfaz.getSimpleName();
+            }
+        }
+        return clase.getSimpleName();
+    }
+}
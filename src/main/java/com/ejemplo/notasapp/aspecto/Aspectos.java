@@ -1,7 +1,5 @@
 package com.ejemplo.notasapp.aspecto;
 
-import java.util.Arrays;
-
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.After;
@@ -11,84 +9,104 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.annotation.Pointcut;
-import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import com.ejemplo.notasapp.excepcion.EstudianteNoEncontrado;
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import com.ejemplo.notasapp.registro.Registrador;
+
+import jakarta.annotation.PostConstruct;
 
+/**
+ * Aspectos de trazado del NotaController.
+ *
+ * Los eventos se emiten como JSON mediante RegistroEventos. La traza de cada
+ * llamada es de nivel DEBUG, desactivada por defecto; se activa con
+ * notasapp.registro.nivel.Aspectos=DEBUG. Los argumentos y resultados se
+ * convierten a texto en el hilo del appender, nunca en el de la petición.
+ *
+ * Envuelve a AspectosAutorizacion en ambos modos (ver ConfiguracionAspectos):
+ * con proxies por @Order y, tejido por ajc, por PrecedenciaAspectos.
+ */
 @Aspect
-@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
 public class Aspectos {
 
-    @Pointcut("execution(* com.ejemplo.notasapp.controlador.NotaController.*(..))")
+    @Autowired
+    private RegistroEventos registroEventos;
+
+    private Registrador registro;
+
+    @PostConstruct
+    public void iniciar() {
+        registro = registroEventos.registrador("Aspectos");
+    }
+
+    @Pointcut("execution(public * com.ejemplo.notasapp.controlador.NotaController.*(..))")
     public void puntoDeCorte() {
     }
 
+    // Declarado antes que el resto del advice: ajc ordena el advice de un mismo
+    // aspecto por su posición y, detrás de @Before/@After, la precedencia sería circular
+    @Around("execution(public * com.ejemplo.notasapp.controlador.NotaController.editar(..))")
+    public Object logAlrededorEditarNota(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!registro.habilitado(NivelEvento.INFO)) {
+            return joinPoint.proceed();
+        }
+
+        // editar(Long id, Model model): el ID de la nota es el primer parámetro
+        Object[] args = joinPoint.getArgs();
+        Object idNota = args.length > 0 ? args[0] : null;
+        long inicio = System.nanoTime();
+
+        try {
+            Object resultado = joinPoint.proceed();
+            registro.evento(NivelEvento.INFO, "editar_nota",
+                    "idNota", idNota,
+                    "duracionMs", (System.nanoTime() - inicio) / 1_000_000.0);
+            return resultado;
+        } catch (Exception e) {
+            registro.evento(NivelEvento.WARN, "editar_nota_error",
+                    "idNota", idNota,
+                    "duracionMs", (System.nanoTime() - inicio) / 1_000_000.0,
+                    "error", e.getMessage());
+            throw e;
+        }
+    }
+
     @Before("puntoDeCorte()")
     public void antesDeEjecutar(JoinPoint joinPoint) {
-        System.out.println("--------------------------------");
-        System.out.println("Antes de ejecutar: " + joinPoint.getSignature().getName());
-        System.out.println("Parámetros: " + Arrays.toString(joinPoint.getArgs()));
-        System.out.println("--------------------------------");
+        if (registro.debug()) {
+            registro.evento(NivelEvento.DEBUG, "antes_de_ejecutar",
+                    "metodo", joinPoint.getSignature().getName(),
+                    "parametros", joinPoint.getArgs());
+        }
     }
 
     @AfterReturning(pointcut = "puntoDeCorte()", returning = "resultado")
     public void despuesDeEjecutar(JoinPoint joinPoint, Object resultado) {
-        System.out.println("--------------------------------");
-        System.out.println("Después de ejecutar: " + joinPoint.getSignature().getName());
-        System.out.println("Resultado: " + resultado);
-        System.out.println("--------------------------------");
+        if (registro.debug()) {
+            registro.evento(NivelEvento.DEBUG, "despues_de_ejecutar",
+                    "metodo", joinPoint.getSignature().getName(),
+                    "resultado", resultado);
+        }
     }
 
     @AfterThrowing(pointcut = "puntoDeCorte()", throwing = "ex")
     public void despuesDeExcepcion(JoinPoint joinPoint, EstudianteNoEncontrado ex) {
-        System.out.println("================================");
-        System.out.println("Excepción capturada en: " + joinPoint.getSignature().getName());
-        System.out.println("Mensaje: " + ex.getMessage());
-        System.out.println("Código: " + ex.getCodigoError());
-        System.out.println("Causa: " + ex.getCause());
-        System.out.println("Redirigiendo al ErrorController...");
-        System.out.println("================================");
+        registro.evento(NivelEvento.WARN, "excepcion_capturada",
+                "metodo", joinPoint.getSignature().getName(),
+                "mensaje", ex.getMessage(),
+                "codigo", ex.getCodigoError(),
+                "causa", ex.getCause());
     }
 
     @After("puntoDeCorte()")
     public void despuesDeEjecutar(JoinPoint joinPoint) {
-        System.out.println("--------------------------------");
-        System.out.println("Después de ejecutar: " + joinPoint.getSignature().getName());
-        System.out.println("--------------------------------");
-    }
-
-    @Around("execution(* com.ejemplo.notasapp.controlador.NotaController.editar(..))")
-    public Object logAlrededorEditarNota(ProceedingJoinPoint joinPoint) throws Throwable {
-        System.out.println("-------Iniciando Editar Nota-------");
-
-        Object[] args = joinPoint.getArgs();
-        System.out.println("Número de argumentos: " + args.length);
-
-        // Buscar el ID de la nota (parámetro Long)
-        Long idNota = null;
-        for (Object arg : args) {
-            if (arg instanceof Long) {
-                idNota = (Long) arg;
-                break;
-            }
-        }
-
-        System.out.println("ID de la nota a editar: " + idNota);
-        System.out.println("Argumentos: " + Arrays.toString(args));
-
-        Long inicio = System.currentTimeMillis();
-
-        Object resultado;
-        try {
-            resultado = joinPoint.proceed();
-            System.out.println("Nota editada correctamente");
-        } catch (Exception e) {
-            System.out.println("Error al editar la nota: " + e.getMessage());
-            throw e;
-        } finally {
-            System.out.println("-------Finalizando Editar Nota-------");
-            Long fin = System.currentTimeMillis();
-            System.out.println("Tiempo de ejecución: " + (fin - inicio) + "ms");
+        if (registro.debug()) {
+            registro.evento(NivelEvento.DEBUG, "fin_ejecucion", "metodo", joinPoint.getSignature().getName());
         }
-        return resultado;
     }
 }
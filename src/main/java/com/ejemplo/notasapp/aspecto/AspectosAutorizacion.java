@@ -2,25 +2,28 @@ package com.ejemplo.notasapp.aspecto;
 
 import com.ejemplo.notasapp.excepcion.ViolacionSeguridad;
 import com.ejemplo.notasapp.modelo.LogViolacionSeguridad;
-import com.ejemplo.notasapp.modelo.Nota;
 import com.ejemplo.notasapp.modelo.UsuarioSesion;
-import com.ejemplo.notasapp.repositorio.RepositorioLogViolacionSeguridad;
-import com.ejemplo.notasapp.repositorio.RepositorioNota;
-import org.aspectj.lang.JoinPoint;
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import com.ejemplo.notasapp.registro.Registrador;
+import com.ejemplo.notasapp.servicio.CachePropietarioNota;
+import com.ejemplo.notasapp.servicio.EscritorAuditoria;
+import com.ejemplo.notasapp.servicio.LimitadorViolaciones;
+import com.ejemplo.notasapp.sesion.SesionesCompartidas;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
+import java.lang.reflect.Method;
 import java.util.Arrays;
-import java.util.Optional;
 
 /**
  * Clase de aspectos para la autorización y control de acceso en el sistema de
@@ -28,387 +31,206 @@ import java.util.Optional;
  * 
  * Este sistema implementa Programación Orientada a Aspectos (AOP) para
  * interceptar
- * operaciones y validar permisos de usuario basado en roles:
+ * operaciones y validar permisos de usuario basado en roles (ver Rol):
  * 
  * - ALUMNOS: Solo operaciones de lectura y únicamente sobre sus propias notas
- * - PROFESORES: Acceso completo a todas las funcionalidades
+ * - PROFESORES: Todos los permisos, acceso completo a todas las funcionalidades
+ * 
+ * Las reglas no están repartidas en varios advice: se declaran como datos en
+ * TablaDecisionesAutorizacion, que las compila al arrancar. Cada llamada
+ * interceptada hace una sola lectura de la sesión y una sola búsqueda en la
+ * tabla antes de permitir o denegar.
  * 
  * MANEJO DE VIOLACIONES DE SEGURIDAD:
  * - Todas las violaciones se registran en la base de datos (tabla
- * log_violacion_seguridad)
+ * log_violacion_seguridad) de forma asíncrona mediante EscritorAuditoria
  * - Se lanza ViolacionSeguridad (excepción personalizada) que es capturada por
  * GlobalExceptionHandler
  * - El usuario es redirigido a una pantalla de error específica
  * (/error/violacion-seguridad)
- * - Se mantiene logging detallado en consola para monitoreo en tiempo real
+ * - Cada violación se emite además como evento JSON (RegistroEventos) para
+ * monitoreo en tiempo real
+ * - Cada violación alimenta LimitadorViolaciones; al superar el umbral la
+ * sesión se invalida y el usuario queda bloqueado temporalmente
  * 
- * TIPOS DE VALIDACIONES:
- * 1. Operaciones de escritura en notas (crear, guardar, editar, eliminar)
+ * TIPOS DE VALIDACIONES (ver ReglaAutorizacion):
+ * 1. Operaciones que exigen un permiso que el rol no tiene (escritura en
+ * notas, gestión de estudiantes)
  * 2. Acceso a notas de otros estudiantes
- * 3. Gestión de estudiantes (solo profesores)
- * 4. Servicios de negocio (cálculo de promedios, etc.)
- * 5. Validación de autenticación
+ * 3. Propiedad de una nota concreta por su ID
+ * 4. Validación de autenticación
  */
 @Aspect
-@Component
 public class AspectosAutorizacion {
 
     @Autowired
-    private RepositorioNota repositorioNota;
+    private CachePropietarioNota cachePropietarioNota;
 
     @Autowired
-    private RepositorioLogViolacionSeguridad repositorioLog;
-
-    // =================== POINTCUTS ===================
-
-    // Pointcuts para operaciones de lectura en NotaController
-    @Pointcut("execution(* com.ejemplo.notasapp.controlador.NotaController.listar(..))")
-    public void operacionesLecturaNotas() {
-    }
-
-    @Pointcut("execution(* com.ejemplo.notasapp.controlador.NotaController.mostrarFormularioPromedio(..))")
-    public void operacionesLecturaPromedio() {
-    }
-
-    @Pointcut("execution(* com.ejemplo.notasapp.controlador.NotaController.calcularPromedio(..))")
-    public void operacionesCalculoPromedio() {
-    }
+    private EscritorAuditoria escritorAuditoria;
 
-    // Pointcuts para operaciones de escritura en NotaController
-    @Pointcut("execution(* com.ejemplo.notasapp.controlador.NotaController.nueva(..))")
-    public void operacionesEscrituraCrear() {
-    }
-
-    @Pointcut("execution(* com.ejemplo.notasapp.controlador.NotaController.guardar(..))")
-    public void operacionesEscrituraGuardar() {
-    }
-
-    @Pointcut("execution(* com.ejemplo.notasapp.controlador.NotaController.editar(..))")
-    public void operacionesEscrituraEditar() {
-    }
+    @Autowired
+    private TablaDecisionesAutorizacion tablaDecisiones;
 
-    @Pointcut("execution(* com.ejemplo.notasapp.controlador.NotaController.eliminar(..))")
-    public void operacionesEscrituraEliminar() {
-    }
+    @Autowired
+    private LimitadorViolaciones limitadorViolaciones;
 
-    // Pointcuts para operaciones en ServicioNota
-    @Pointcut("execution(* com.ejemplo.notasapp.servicio.ServicioNota.*(..))")
-    public void operacionesServicioNota() {
-    }
+    @Autowired
+    private SesionesCompartidas sesionesCompartidas;
 
-    // Pointcuts para operaciones de gestión de estudiantes
-    @Pointcut("execution(* com.ejemplo.notasapp.controlador.EstudianteController.nuevo(..))")
-    public void operacionesCrearEstudiante() {
-    }
+    @Autowired
+    private RegistroEventos registroEventos;
 
-    @Pointcut("execution(* com.ejemplo.notasapp.controlador.EstudianteController.guardar(..))")
-    public void operacionesGuardarEstudiante() {
-    }
+    private Registrador registro;
 
-    @Pointcut("execution(* com.ejemplo.notasapp.controlador.EstudianteController.editar(..))")
-    public void operacionesEditarEstudiante() {
+    @PostConstruct
+    public void iniciar() {
+        registro = registroEventos.registrador("AspectosAutorizacion");
     }
 
-    @Pointcut("execution(* com.ejemplo.notasapp.controlador.EstudianteController.eliminar(..))")
-    public void operacionesEliminarEstudiante() {
-    }
+    // =================== POINTCUTS ===================
 
-    @Pointcut("execution(* com.ejemplo.notasapp.controlador.EstudianteController.listar(..))")
-    public void operacionesListarEstudiantes() {
+    @Pointcut("execution(public * com.ejemplo.notasapp.controlador.NotaController.*(..)) || " +
+            "execution(public * com.ejemplo.notasapp.controlador.EstudianteController.*(..)) || " +
+            "execution(public * com.ejemplo.notasapp.servicio.ServicioNota.*(..))")
+    public void operacionesProtegidas() {
     }
 
-    // =================== ASPECTOS PARA ALUMNOS ===================
-
-    /**
-     * Aspecto que valida que los alumnos solo puedan realizar operaciones de
-     * lectura
-     */
-    @Before("operacionesEscrituraCrear() || operacionesEscrituraGuardar() || operacionesEscrituraEditar() || operacionesEscrituraEliminar()")
-    public void validarOperacionesEscrituraAlumno(JoinPoint joinPoint) {
-        UsuarioSesion usuario = obtenerUsuarioSesion();
-
-        if (usuario != null && usuario.isAlumno()) {
-            String accionIntentada = joinPoint.getSignature().getName();
-            String detalles = String.format("Intento de operación de escritura: %s con parámetros: %s",
-                    accionIntentada, Arrays.toString(joinPoint.getArgs()));
-
-            // Registrar violación de seguridad
-            registrarViolacionSeguridad(usuario, accionIntentada, detalles);
-
-            throw ViolacionSeguridad.operacionNoPermitida(
-                    usuario.getNombre(),
-                    accionIntentada,
-                    "Los alumnos no pueden realizar operaciones de escritura en notas");
-        }
-    }
+    // =================== INTERCEPTOR ÚNICO ===================
 
     /**
-     * Aspecto que valida que los alumnos no puedan gestionar estudiantes
-     * Intercepta: crear, guardar, editar y eliminar estudiantes
+     * Interceptor de autorización de todos los endpoints protegidos.
+     * Obtiene el usuario una vez, busca las reglas de (método, rol) en la tabla
+     * compilada y las evalúa en orden. La tabla solo contiene las reglas que
+     * aplican al rol, así que un rol con todos los permisos no evalúa ninguna.
      */
-    @Before("operacionesCrearEstudiante() || operacionesGuardarEstudiante() || operacionesEditarEstudiante() || operacionesEliminarEstudiante()")
-    public void validarGestionEstudiantesAlumno(JoinPoint joinPoint) {
-        UsuarioSesion usuario = obtenerUsuarioSesion();
-
-        if (usuario != null && usuario.isAlumno()) {
-            String accionIntentada = joinPoint.getSignature().getName();
-            String controlador = joinPoint.getTarget().getClass().getSimpleName();
-            String detalles = String.format(
-                    "Intento de gestión de estudiantes: %s.%s con parámetros: %s. Los alumnos no tienen permisos para gestionar estudiantes.",
-                    controlador, accionIntentada, Arrays.toString(joinPoint.getArgs()));
-
-            // Registrar violación de seguridad
-            registrarViolacionSeguridad(usuario, accionIntentada, detalles);
-
-            throw new SecurityException(
-                    String.format(
-                            "Acceso denegado: Los alumnos no pueden gestionar estudiantes. Operación: %s",
-                            accionIntentada));
+    @Around("operacionesProtegidas()")
+    public Object autorizar(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method metodo = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        TablaDecisionesAutorizacion.Entrada entrada = tablaDecisiones.buscar(metodo);
+        if (entrada == null) {
+            return joinPoint.proceed();
         }
-    }
 
-    /**
-     * Aspecto que controla el acceso de alumnos a la lista de estudiantes
-     * Los alumnos solo pueden ver la lista pero no pueden realizar acciones de
-     * gestión
-     */
-    @Around("operacionesListarEstudiantes()")
-    public Object validarAccesoListaEstudiantesAlumno(ProceedingJoinPoint joinPoint) throws Throwable {
         UsuarioSesion usuario = obtenerUsuarioSesion();
+        ReglaAutorizacion[] reglas = entrada.reglasPara(usuario != null ? usuario.getRol() : null);
 
-        if (usuario != null && usuario.isAlumno()) {
-            // Log de acceso a lista de estudiantes por parte de un alumno
-            System.out.println("=== ACCESO A LISTA DE ESTUDIANTES ===");
-            System.out.println("Usuario alumno: " + usuario.getNombre());
-            System.out.println("Estudiante ID: " + usuario.getEstudianteId());
-            System.out.println("Acceso permitido solo para visualización");
-            System.out.println("=====================================");
-
-            // Los alumnos pueden ver la lista pero no pueden realizar acciones
-            // Esto se controla en la vista y con los otros aspectos
+        if (reglas.length > 0) {
+            Object[] args = joinPoint.getArgs();
+            for (ReglaAutorizacion regla : reglas) {
+                evaluar(regla, usuario, entrada.getOperacion(), metodo.getName(), args);
+            }
         }
 
-        // Permitir que continúe la ejecución
         return joinPoint.proceed();
     }
 
     /**
-     * Aspecto que valida que los alumnos solo puedan acceder a sus propias notas
+     * Evalúa una regla y lanza ViolacionSeguridad si no se cumple
      */
-    @Around("operacionesLecturaNotas() || operacionesLecturaPromedio() || operacionesCalculoPromedio()")
-    public Object validarAccesoNotasPropiasAlumno(ProceedingJoinPoint joinPoint) throws Throwable {
-        UsuarioSesion usuario = obtenerUsuarioSesion();
-
-        if (usuario != null && usuario.isAlumno()) {
-            String metodo = joinPoint.getSignature().getName();
-            Object[] args = joinPoint.getArgs();
-
-            // Extraer el estudianteId del primer parámetro (PathVariable)
-            if (args.length > 0 && args[0] instanceof Long) {
-                Long estudianteIdSolicitado = (Long) args[0];
-
-                // Usar el nuevo método para validar acceso
-                if (!usuario.puedeAccederAEstudiante(estudianteIdSolicitado)) {
-                    String detalles = String.format(
-                            "Intento de acceder a notas de estudiante ID: %d, pero el usuario autenticado corresponde al estudiante ID: %d",
-                            estudianteIdSolicitado, usuario.getEstudianteId());
-
-                    registrarViolacionSeguridad(usuario, metodo, detalles);
-
-                    throw ViolacionSeguridad.accesoNoAutorizado(
-                            usuario.getNombre(),
-                            metodo,
-                            String.format(
-                                    "Los alumnos solo pueden acceder a sus propias notas. Intento de acceso a estudiante ID: %d",
-                                    estudianteIdSolicitado));
-                }
+    private void evaluar(ReglaAutorizacion regla, UsuarioSesion usuario, String operacion, String metodo,
+            Object[] args) {
+        switch (regla.getTipo()) {
+            case ESTUDIANTE_PROPIO -> validarEstudiantePropio(regla, usuario, operacion, args);
+            case NOTA_PROPIA -> validarNotaPropia(regla, usuario, operacion, metodo, args);
+            // La tabla solo incluye esta regla para roles sin el permiso
+            case PERMISO -> {
+                String detalles = String.format("Intento de operación no permitida: %s con parámetros: %s",
+                        operacion, Arrays.toString(args));
+                registrarViolacionSeguridad(usuario, operacion, detalles);
+
+                throw ViolacionSeguridad.operacionNoPermitida(usuario.getNombre(), operacion, regla.getMensaje());
             }
+            case REQUIERE_AUTENTICACION -> throw ViolacionSeguridad.usuarioNoAutenticado(operacion,
+                    regla.getMensaje());
         }
-        // Nota: Los profesores pasan sin restricciones por ahora
-        // Aquí se pueden agregar futuras validaciones para profesores
-
-        return joinPoint.proceed();
     }
 
     /**
-     * Aspecto que intercepta llamadas al servicio de notas para validar acceso
+     * Valida que el estudianteId solicitado sea el del alumno autenticado
      */
-    @Around("operacionesServicioNota()")
-    public Object validarAccesoServicioNotasAlumno(ProceedingJoinPoint joinPoint) throws Throwable {
-        UsuarioSesion usuario = obtenerUsuarioSesion();
-
-        if (usuario != null && usuario.isAlumno()) {
-            String metodo = joinPoint.getSignature().getName();
-            Object[] args = joinPoint.getArgs();
-
-            // Para métodos que requieren estudianteId como primer parámetro
-            if (args.length > 0 && args[0] instanceof Long) {
-                Long estudianteIdSolicitado = (Long) args[0];
+    private void validarEstudiantePropio(ReglaAutorizacion regla, UsuarioSesion usuario, String operacion,
+            Object[] args) {
+        int indice = regla.getIndiceArgumento();
+        if (indice >= args.length || !(args[indice] instanceof Long estudianteIdSolicitado)) {
+            return;
+        }
 
-                // Usar el nuevo método para validar acceso
-                if (!usuario.puedeAccederAEstudiante(estudianteIdSolicitado)) {
-                    String detalles = String.format("Intento de acceder al servicio %s para estudiante ID: %d",
-                            metodo, estudianteIdSolicitado);
+        if (!usuario.puedeAccederAEstudiante(estudianteIdSolicitado)) {
+            String detalles = String.format(
+                    "Intento de acceder a notas de estudiante ID: %d, pero el usuario autenticado corresponde al estudiante ID: %d",
+                    estudianteIdSolicitado, usuario.getEstudianteId());
 
-                    registrarViolacionSeguridad(usuario, metodo, detalles);
+            registrarViolacionSeguridad(usuario, operacion, detalles);
 
-                    throw ViolacionSeguridad.accesoNoAutorizado(
-                            usuario.getNombre(),
-                            "ServicioNota." + metodo,
-                            String.format(
-                                    "Los alumnos solo pueden acceder a servicios de sus propias notas. Intento de acceso a estudiante ID: %d",
-                                    estudianteIdSolicitado));
-                }
-            }
+            throw ViolacionSeguridad.accesoNoAutorizado(
+                    usuario.getNombre(),
+                    operacion,
+                    String.format("%s. Intento de acceso a estudiante ID: %d",
+                            regla.getMensaje(), estudianteIdSolicitado));
         }
-        // Nota: Los profesores pasan sin restricciones por ahora
-        // Aquí se pueden agregar futuras validaciones para profesores
-
-        return joinPoint.proceed();
     }
 
     /**
-     * Aspecto que valida el acceso a notas específicas por ID
-     * Intercepta: /notas/editar/{id} y /notas/eliminar/{id}
+     * Valida que la nota solicitada por ID pertenezca al alumno autenticado
      */
+    private void validarNotaPropia(ReglaAutorizacion regla, UsuarioSesion usuario, String operacion, String metodo,
+            Object[] args) {
+        int indice = regla.getIndiceArgumento();
+        if (indice >= args.length || !(args[indice] instanceof Long notaId)) {
+            // Parámetros incorrectos
+            String detalles = String.format("Intento de %s con parámetros inválidos: %s",
+                    metodo, Arrays.toString(args));
+            registrarViolacionSeguridad(usuario, operacion, detalles);
 
-    @Around("execution(* com.ejemplo.notasapp.controlador.NotaController.editar(Long, ..)) || " +
-            "execution(* com.ejemplo.notasapp.controlador.NotaController.eliminar(Long))")
-    public Object validarAccesoNotaPorIdAlumno(ProceedingJoinPoint joinPoint) throws Throwable {
-        UsuarioSesion usuario = obtenerUsuarioSesion();
+            throw ViolacionSeguridad.operacionNoPermitida(
+                    usuario.getNombre(),
+                    operacion,
+                    "Parámetros inválidos para la operación solicitada");
+        }
 
-        if (usuario != null && usuario.isAlumno()) {
-            String metodo = joinPoint.getSignature().getName();
-            Object[] args = joinPoint.getArgs();
+        long estudiantePropietario;
+        try {
+            // Consultar en el índice de propietarios a qué estudiante pertenece la nota
+            estudiantePropietario = cachePropietarioNota.obtenerPropietario(notaId);
+        } catch (Exception e) {
+            // Error al consultar la base de datos
+            String detalles = String.format("Error al validar acceso para %s nota ID: %d - %s",
+                    metodo, notaId, e.getMessage());
+            registrarViolacionSeguridad(usuario, operacion, detalles);
 
-            // El primer argumento siempre es el ID de la nota
-            if (args.length > 0 && args[0] instanceof Long) {
-                Long notaId = (Long) args[0];
-
-                try {
-                    // Buscar la nota para verificar a qué estudiante pertenece
-                    Optional<Nota> notaOpt = repositorioNota.findById(notaId);
-
-                    if (notaOpt.isPresent()) {
-                        Nota nota = notaOpt.get();
-                        Long estudiantePropietario = nota.getEstudiante().getId();
-
-                        // Verificar si el alumno está intentando acceder a una nota que no es suya
-                        if (!estudiantePropietario.equals(usuario.getEstudianteId())) {
-                            String detalles = String.format(
-                                    "Intento de %s nota ID: %d que pertenece al estudiante ID: %d, pero el usuario autenticado es estudiante ID: %d",
-                                    metodo, notaId, estudiantePropietario, usuario.getEstudianteId());
-
-                            registrarViolacionSeguridad(usuario, metodo, detalles);
-
-                            throw ViolacionSeguridad.recursoNoPermitido(
-                                    usuario.getNombre(),
-                                    metodo,
-                                    String.format(
-                                            "Los alumnos solo pueden %s sus propias notas. Nota ID: %d pertenece a estudiante ID: %d",
-                                            metodo, notaId, estudiantePropietario));
-                        }
-                    } else {
-                        // La nota no existe
-                        String detalles = String.format("Intento de %s nota inexistente ID: %d", metodo, notaId);
-                        registrarViolacionSeguridad(usuario, metodo, detalles);
-
-                        throw ViolacionSeguridad.recursoNoPermitido(
-                                usuario.getNombre(),
-                                metodo,
-                                String.format("La nota solicitada (ID: %d) no existe en el sistema", notaId));
-                    }
-                } catch (ViolacionSeguridad vs) {
-                    // Re-lanzar excepciones de violación de seguridad
-                    throw vs;
-                } catch (Exception e) {
-                    // Error al consultar la base de datos
-                    String detalles = String.format("Error al validar acceso para %s nota ID: %d - %s",
-                            metodo, notaId, e.getMessage());
-                    registrarViolacionSeguridad(usuario, metodo, detalles);
-
-                    System.err.println("Error en validación de acceso: " + e.getMessage());
-                    throw ViolacionSeguridad.accesoNoAutorizado(
-                            usuario.getNombre(),
-                            metodo,
-                            "Error técnico al validar permisos de acceso a la nota");
-                }
-            } else {
-                // Parámetros incorrectos
-                String detalles = String.format("Intento de %s con parámetros inválidos: %s",
-                        metodo, Arrays.toString(args));
-                registrarViolacionSeguridad(usuario, metodo, detalles);
-
-                throw ViolacionSeguridad.operacionNoPermitida(
-                        usuario.getNombre(),
-                        metodo,
-                        "Parámetros inválidos para la operación solicitada");
-            }
+            registro.evento(NivelEvento.ERROR, "error_validacion_acceso", "notaId", notaId, "error", e.getMessage());
+            throw ViolacionSeguridad.accesoNoAutorizado(
+                    usuario.getNombre(),
+                    operacion,
+                    "Error técnico al validar permisos de acceso a la nota");
         }
 
-        // Si llegamos aquí, el usuario es profesor o la validación pasó
-        return joinPoint.proceed();
-    }
-
-    /**
-     * Aspecto general que intercepta todas las operaciones del EstudianteController
-     * para validar acceso y realizar logging detallado
-     * 
-     * NOTA: Este aspecto reemplaza los aspectos específicos para evitar duplicación
-     * e intercepta TODAS las operaciones de gestión de estudiantes
-     */
-    @Around("execution(* com.ejemplo.notasapp.controlador.EstudianteController.*(..))")
-    public Object validarAccesoGeneralEstudiantesController(ProceedingJoinPoint joinPoint) throws Throwable {
-        UsuarioSesion usuario = obtenerUsuarioSesion();
-        String metodo = joinPoint.getSignature().getName();
-        Object[] args = joinPoint.getArgs();
-
-        if (usuario != null) {
-            // Log detallado de acceso
-            System.out.println("=== ACCESO A ESTUDIANTE CONTROLLER ===");
-            System.out.println("Usuario: " + usuario.getNombre());
-            System.out.println("Rol: " + usuario.getRol());
-            System.out.println("Método: " + metodo);
-            System.out.println("Parámetros: " + Arrays.toString(args));
-
-            if (usuario.isAlumno()) {
-                System.out.println("Tipo de acceso: ALUMNO - Verificando permisos...");
-
-                // Los alumnos solo pueden acceder a "listar" estudiantes
-                if ("listar".equals(metodo)) {
-                    System.out.println("Acceso permitido: Visualización de lista de estudiantes");
-                } else {
-                    System.out.println("Acceso DENEGADO: Operación no permitida para alumnos");
-
-                    String detalles = String.format(
-                            "Intento de acceso directo a EstudianteController.%s con parámetros: %s. Acceso denegado para rol ALUMNO.",
-                            metodo, Arrays.toString(args));
-
-                    registrarViolacionSeguridad(usuario, "EstudianteController." + metodo, detalles);
-
-                    throw ViolacionSeguridad.operacionNoPermitida(
-                            usuario.getNombre(),
-                            "EstudianteController." + metodo,
-                            "Los alumnos no pueden gestionar estudiantes. Solo pueden visualizar la lista");
-                }
-            } else if (usuario.isProfesor()) {
-                System.out.println("Tipo de acceso: PROFESOR - Acceso completo permitido");
-            }
+        if (estudiantePropietario == CachePropietarioNota.SIN_PROPIETARIO) {
+            // La nota no existe
+            String detalles = String.format("Intento de %s nota inexistente ID: %d", metodo, notaId);
+            registrarViolacionSeguridad(usuario, operacion, detalles);
 
-            System.out.println("======================================");
-        } else {
-            System.out.println("=== ACCESO SIN AUTENTICACIÓN ===");
-            System.out.println("Método: " + metodo);
-            System.out.println("Usuario no autenticado - Redirigiendo al login");
-            System.out.println("=================================");
-
-            // Usuario no autenticado, redirigir al login
-            throw ViolacionSeguridad.usuarioNoAutenticado(
-                    "EstudianteController." + metodo,
-                    "Intento de acceso sin autenticación a funcionalidades de gestión de estudiantes");
+            throw ViolacionSeguridad.recursoNoPermitido(
+                    usuario.getNombre(),
+                    operacion,
+                    String.format("La nota solicitada (ID: %d) no existe en el sistema", notaId));
         }
 
-        return joinPoint.proceed();
+        // Verificar si el alumno está intentando acceder a una nota que no es suya
+        if (!usuario.puedeAccederAEstudiante(estudiantePropietario)) {
+            String detalles = String.format(
+                    "Intento de %s nota ID: %d que pertenece al estudiante ID: %d, pero el usuario autenticado es estudiante ID: %d",
+                    metodo, notaId, estudiantePropietario, usuario.getEstudianteId());
+
+            registrarViolacionSeguridad(usuario, operacion, detalles);
+
+            throw ViolacionSeguridad.recursoNoPermitido(
+                    usuario.getNombre(),
+                    operacion,
+                    String.format("%s. Nota ID: %d pertenece a estudiante ID: %d",
+                            regla.getMensaje(), notaId, estudiantePropietario));
+        }
     }
 
     // =================== MÉTODOS AUXILIARES ===================
@@ -418,22 +240,29 @@ public class AspectosAutorizacion {
      */
     private UsuarioSesion obtenerUsuarioSesion() {
         try {
-            ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            if (attrs != null) {
-                HttpServletRequest request = attrs.getRequest();
-                HttpSession session = request.getSession(false);
-                if (session != null) {
-                    return (UsuarioSesion) session.getAttribute("usuario");
-                }
+            HttpSession session = obtenerSesion();
+            if (session != null) {
+                return (UsuarioSesion) session.getAttribute("usuario");
             }
         } catch (Exception e) {
-            System.err.println("Error al obtener usuario de la sesión: " + e.getMessage());
+            registro.evento(NivelEvento.ERROR, "error_sesion", "error", e.getMessage());
         }
         return null;
     }
 
+    private static HttpSession obtenerSesion() {
+        ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attrs == null) {
+            return null;
+        }
+        HttpServletRequest request = attrs.getRequest();
+        return request.getSession(false);
+    }
+
     /**
-     * Registra una violación de seguridad en la base de datos
+     * Registra una violación de seguridad en la base de datos.
+     * El registro se encola y lo persiste en lote el EscritorAuditoria, por lo
+     * que la petición no espera el INSERT.
      */
     private void registrarViolacionSeguridad(UsuarioSesion usuario, String accionIntentada, String detalles) {
         try {
@@ -443,31 +272,27 @@ public class AspectosAutorizacion {
                     accionIntentada,
                     detalles);
 
-            // Guardar en la base de datos
-            LogViolacionSeguridad logGuardado = repositorioLog.save(log);
+            escritorAuditoria.registrar(log);
 
-            // Forzar flush para asegurar persistencia inmediata
-            repositorioLog.flush();
+            // Al superar el umbral se cierra la sesión; las siguientes peticiones
+            // las corta FiltroBloqueoViolaciones
+            HttpSession session = obtenerSesion();
+            if (limitadorViolaciones.registrarViolacion(session != null ? session.getId() : null, usuario)
+                    && session != null) {
+                sesionesCompartidas.cerrar(session);
+            }
 
-            System.out.println("=== VIOLACIÓN DE SEGURIDAD DETECTADA ===");
-            System.out.println("ID Log: " + logGuardado.getId());
-            System.out.println("Usuario: " + usuario.getNombre());
-            System.out.println("Rol: " + usuario.getRol());
-            System.out.println("Estudiante ID: " + usuario.getEstudianteId());
-            System.out.println("Acción intentada: " + accionIntentada);
-            System.out.println("Detalles: " + detalles);
-            System.out.println("Fecha/Hora: " + logGuardado.getFechaHora());
-            System.out.println("Registro guardado exitosamente en BD");
-            System.out.println("=========================================");
+            registro.evento(NivelEvento.WARN, "violacion_seguridad",
+                    "usuario", usuario.getNombre(),
+                    "rol", usuario.getRol(),
+                    "accion", accionIntentada,
+                    "detalles", detalles);
 
         } catch (Exception e) {
-            System.err.println("=== ERROR AL REGISTRAR VIOLACIÓN ===");
-            System.err.println("Usuario: " + usuario.getNombre());
-            System.err.println("Acción: " + accionIntentada);
-            System.err.println("Error: " + e.getMessage());
-            System.err.println("Stack trace:");
-            e.printStackTrace();
-            System.err.println("====================================");
+            registro.evento(NivelEvento.ERROR, "error_registro_violacion",
+                    "usuario", usuario.getNombre(),
+                    "accion", accionIntentada,
+                    "error", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.ejemplo.notasapp.aspecto;
+
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import org.aspectj.lang.Aspects;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra los aspectos de seguridad (AspectosAutorizacion y Aspectos) según
+ * cómo se compiló la aplicación.
+ *
+ * - Build normal: son aspectos de Spring AOP y se aplican mediante proxies
+ *   (JDK o CGLIB) de los controladores y de ServicioNota.
+ * - Perfil Maven `aspectj`: ajc teje el advice en el bytecode de las clases
+ *   interceptadas, sin proxies, e intercepta también las llamadas internas
+ *   (this.metodo()). El aspecto es entonces el singleton de AspectJ
+ *   (aspectOf()): se entrega a Spring para que inyecte sus dependencias, y
+ *   Spring lo ignora como aspecto de proxies porque ya está compilado por ajc.
+ *
+ * El modo se detecta en tiempo de ejecución y se registra como evento
+ * modo_aspectos. Al cambiar de perfil hay que compilar con `mvn clean` para
+ * no mezclar clases tejidas y sin tejer.
+ */
+@Configuration
+public class ConfiguracionAspectos {
+
+    public enum Modo {
+        PROXY,
+        TEJIDO
+    }
+
+    /** Modo en que se aplican los aspectos de seguridad en esta compilación. */
+    public static Modo modo() {
+        return Aspects.hasAspect(AspectosAutorizacion.class) ? Modo.TEJIDO : Modo.PROXY;
+    }
+
+    @Bean
+    public AspectosAutorizacion aspectosAutorizacion(RegistroEventos registroEventos) {
+        registroEventos.registrador("ConfiguracionAspectos").evento(NivelEvento.INFO, "modo_aspectos", "modo", modo());
+        return modo() == Modo.TEJIDO ? Aspects.aspectOf(AspectosAutorizacion.class) : new AspectosAutorizacion();
+    }
+
+    @Bean
+    public Aspectos aspectos() {
+        return modo() == Modo.TEJIDO ? Aspects.aspectOf(Aspectos.class) : new Aspectos();
+    }
+}
@@ -0,0 +1,14 @@
+package com.ejemplo.notasapp.aspecto;
+
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.DeclarePrecedence;
+
+/**
+ * Orden de los aspectos de seguridad cuando los teje ajc (perfil `aspectj`):
+ * el trazado envuelve a la autorización, igual que el @Order de Aspectos con
+ * proxies. No es un bean: Spring AOP no admite @DeclarePrecedence.
+ */
+@Aspect
+@DeclarePrecedence("com.ejemplo.notasapp.aspecto.Aspectos, com.ejemplo.notasapp.aspecto.AspectosAutorizacion")
+public class PrecedenciaAspectos {
+}
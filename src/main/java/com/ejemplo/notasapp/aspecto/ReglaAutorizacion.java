@@ -0,0 +1,99 @@
+package com.ejemplo.notasapp.aspecto;
+
+import com.ejemplo.notasapp.modelo.Rol;
+
+/**
+ * Regla de autorización expresada como dato.
+ *
+ * Cada endpoint declara una lista ordenada de reglas; TablaDecisionesAutorizacion
+ * conserva, por rol, solo las que aplican a ese rol (aplicaA) y el aspecto las
+ * evalúa una tras otra. La primera regla que falla deniega la operación.
+ */
+public final class ReglaAutorizacion {
+
+    public enum Tipo {
+        // El argumento indicado es un estudianteId que debe ser el del usuario
+        ESTUDIANTE_PROPIO,
+        // El argumento indicado es un notaId cuya nota debe pertenecer al usuario
+        NOTA_PROPIA,
+        // La operación exige un permiso que el rol no tiene
+        PERMISO,
+        // La operación exige un usuario en sesión
+        REQUIERE_AUTENTICACION
+    }
+
+    private final Tipo tipo;
+    private final int indiceArgumento;
+    private final Rol.Permiso permiso;
+    private final String mensaje;
+
+    private ReglaAutorizacion(Tipo tipo, int indiceArgumento, Rol.Permiso permiso, String mensaje) {
+        this.tipo = tipo;
+        this.indiceArgumento = indiceArgumento;
+        this.permiso = permiso;
+        this.mensaje = mensaje;
+    }
+
+    public static ReglaAutorizacion estudiantePropio(int indiceArgumento) {
+        return new ReglaAutorizacion(Tipo.ESTUDIANTE_PROPIO, indiceArgumento, null,
+                "Los alumnos solo pueden acceder a sus propias notas");
+    }
+
+    public static ReglaAutorizacion notaPropia(int indiceArgumento) {
+        return new ReglaAutorizacion(Tipo.NOTA_PROPIA, indiceArgumento, null,
+                "Los alumnos solo pueden modificar sus propias notas");
+    }
+
+    public static ReglaAutorizacion requierePermiso(Rol.Permiso permiso, String mensaje) {
+        return new ReglaAutorizacion(Tipo.PERMISO, -1, permiso, mensaje);
+    }
+
+    public static ReglaAutorizacion requiereAutenticacion(String mensaje) {
+        return new ReglaAutorizacion(Tipo.REQUIERE_AUTENTICACION, -1, null, mensaje);
+    }
+
+    /**
+     * true si la regla tiene que evaluarse para el rol dado (null = anónimo).
+     * - Anónimo: solo REQUIERE_AUTENTICACION.
+     * - Reglas de propiedad: solo para roles sin NOTAS_DE_TODOS.
+     * - PERMISO: solo para roles a los que les falta ese permiso.
+     */
+    public boolean aplicaA(Rol rol) {
+        if (rol == null) {
+            return tipo == Tipo.REQUIERE_AUTENTICACION;
+        }
+        switch (tipo) {
+            case ESTUDIANTE_PROPIO:
+            case NOTA_PROPIA:
+                return rol.requiereEstudiante();
+            case PERMISO:
+                return !rol.tiene(permiso);
+            default:
+                return false;
+        }
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public int getIndiceArgumento() {
+        return indiceArgumento;
+    }
+
+    public Rol.Permiso getPermiso() {
+        return permiso;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    @Override
+    public String toString() {
+        if (permiso != null) {
+            return tipo + "(" + permiso + ")";
+        }
+        return indiceArgumento >= 0 ? tipo + "(arg" + indiceArgumento + ")" : tipo.toString();
+    }
+}
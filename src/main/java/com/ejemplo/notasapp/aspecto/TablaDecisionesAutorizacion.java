@@ -0,0 +1,258 @@
+package com.ejemplo.notasapp.aspecto;
+
+import com.ejemplo.notasapp.controlador.EstudianteController;
+import com.ejemplo.notasapp.controlador.NotaController;
+import com.ejemplo.notasapp.modelo.Rol;
+import com.ejemplo.notasapp.modelo.Rol.Permiso;
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.Registrador;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import com.ejemplo.notasapp.servicio.ServicioNota;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.ejemplo.notasapp.aspecto.ReglaAutorizacion.estudiantePropio;
+import static com.ejemplo.notasapp.aspecto.ReglaAutorizacion.notaPropia;
+import static com.ejemplo.notasapp.aspecto.ReglaAutorizacion.requiereAutenticacion;
+import static com.ejemplo.notasapp.aspecto.ReglaAutorizacion.requierePermiso;
+
+/**
+ * Tabla de decisiones de autorización compilada una sola vez al arrancar.
+ *
+ * Las reglas del sistema se declaran como datos en DECLARACIONES, por
+ * (clase, método), sin nombrar roles: cada regla dice qué permiso o qué
+ * propiedad exige. Al iniciar se resuelven contra los métodos reales de cada
+ * clase y, para cada Rol y para el usuario anónimo, se conservan solo las
+ * reglas que le aplican (ReglaAutorizacion.aplicaA). El resultado es un mapa
+ * inmutable Method -> reglas por rol, de forma que el aspecto solo necesita
+ * una búsqueda y un acceso por ordinal por petición.
+ *
+ * El método "*" aplica a todos los métodos públicos de la clase que no tengan
+ * una declaración específica.
+ *
+ * Al compilar registra un evento INFO con el total de métodos y, con
+ * notasapp.registro.nivel.TablaDecisionesAutorizacion=DEBUG, un evento por
+ * operación y rol con las reglas que le aplican.
+ */
+@Component
+public class TablaDecisionesAutorizacion {
+
+    private static final ReglaAutorizacion[] SIN_REGLAS = new ReglaAutorizacion[0];
+
+    private static final ReglaAutorizacion SOLO_LECTURA_NOTAS = requierePermiso(Permiso.ESCRIBIR_NOTAS,
+            "Los alumnos no pueden realizar operaciones de escritura en notas");
+
+    private static final ReglaAutorizacion SOLO_LECTURA_IMPORTAR = requierePermiso(Permiso.IMPORTAR_NOTAS,
+            "Los alumnos no pueden realizar operaciones de escritura en notas");
+
+    private static final ReglaAutorizacion SOLO_PROMEDIOS_PROPIOS = requierePermiso(Permiso.CONSULTAR_CURSO,
+            "Los alumnos solo pueden consultar los promedios de sus propias notas");
+
+    private static final ReglaAutorizacion SOLO_EXPORTAR_PROPIAS = requierePermiso(Permiso.EXPORTAR_CURSO,
+            "Los alumnos solo pueden exportar sus propias notas");
+
+    private static final ReglaAutorizacion SOLO_PROFESORES_ESTADISTICAS = requierePermiso(Permiso.CONSULTAR_CURSO,
+            "Las estadísticas del curso solo están disponibles para profesores");
+
+    private static final ReglaAutorizacion SOLO_PROFESORES_REPORTE = requierePermiso(Permiso.CONSULTAR_CURSO,
+            "El reporte de notas del curso solo está disponible para profesores");
+
+    private static final ReglaAutorizacion SIN_GESTION_ESTUDIANTES = requierePermiso(Permiso.GESTIONAR_ESTUDIANTES,
+            "Los alumnos no pueden gestionar estudiantes. Solo pueden visualizar la lista");
+
+    private static final ReglaAutorizacion IMPORTAR_AUTENTICADO = requiereAutenticacion(
+            "Intento de importación masiva de notas sin autenticación");
+
+    private static final ReglaAutorizacion EXPORTAR_AUTENTICADO = requiereAutenticacion(
+            "Intento de exportación de notas sin autenticación");
+
+    private static final ReglaAutorizacion GESTION_AUTENTICADA = requiereAutenticacion(
+            "Intento de acceso sin autenticación a funcionalidades de gestión de estudiantes");
+
+    private static final List<Declaracion> DECLARACIONES = List.of(
+            // Notas de un estudiante: sin NOTAS_DE_TODOS, solo las propias
+            new Declaracion(NotaController.class, "listar", estudiantePropio(0)),
+            new Declaracion(NotaController.class, "mostrarFormularioPromedio", estudiantePropio(0)),
+            new Declaracion(NotaController.class, "calcularPromedio", estudiantePropio(0)),
+            new Declaracion(NotaController.class, "promediosPorMateria", estudiantePropio(0)),
+            new Declaracion(NotaController.class, "promediosCurso", SOLO_PROMEDIOS_PROPIOS),
+
+            // Escritura: exige ESCRIBIR_NOTAS, e IMPORTAR_NOTAS y sesión para la importación masiva
+            new Declaracion(NotaController.class, "nueva", SOLO_LECTURA_NOTAS),
+            new Declaracion(NotaController.class, "guardar", SOLO_LECTURA_NOTAS),
+            new Declaracion(NotaController.class, "editar", notaPropia(0), SOLO_LECTURA_NOTAS),
+            new Declaracion(NotaController.class, "eliminar", notaPropia(0), SOLO_LECTURA_NOTAS),
+            new Declaracion(NotaController.class, "formularioImportar", IMPORTAR_AUTENTICADO, SOLO_LECTURA_IMPORTAR),
+            new Declaracion(NotaController.class, "importar", IMPORTAR_AUTENTICADO, SOLO_LECTURA_IMPORTAR),
+
+            // Exportación y consultas del curso: requieren sesión
+            new Declaracion(NotaController.class, "exportar", EXPORTAR_AUTENTICADO, estudiantePropio(0)),
+            new Declaracion(NotaController.class, "exportarCurso", EXPORTAR_AUTENTICADO, SOLO_EXPORTAR_PROPIAS),
+            new Declaracion(NotaController.class, "estadisticas", requiereAutenticacion(
+                    "Intento de consultar estadísticas del curso sin autenticación"), SOLO_PROFESORES_ESTADISTICAS),
+            new Declaracion(NotaController.class, "reporteCurso", requiereAutenticacion(
+                    "Intento de descargar el reporte del curso sin autenticación"), SOLO_PROFESORES_REPORTE),
+
+            // Servicios de notas: el primer parámetro es el estudianteId
+            new Declaracion(ServicioNota.class, "*", estudiantePropio(0)),
+            new Declaracion(ServicioNota.class, "calcularPromediosPorMateriaCurso", SOLO_PROMEDIOS_PROPIOS),
+
+            // Gestión de estudiantes: requiere sesión y GESTIONAR_ESTUDIANTES, salvo listar
+            new Declaracion(EstudianteController.class, "*", GESTION_AUTENTICADA, SIN_GESTION_ESTUDIANTES),
+            new Declaracion(EstudianteController.class, "listar", GESTION_AUTENTICADA));
+
+    // Prefijo de la operación registrada en auditoría para cada clase
+    private static final Map<Class<?>, String> PREFIJOS_OPERACION = Map.of(
+            NotaController.class, "",
+            EstudianteController.class, "EstudianteController.",
+            ServicioNota.class, "ServicioNota.");
+
+    @Autowired
+    private RegistroEventos registroEventos;
+
+    private Registrador registro;
+
+    private Map<Method, Entrada> tabla = Map.of();
+
+    @PostConstruct
+    public void compilar() {
+        registro = registroEventos.registrador("TablaDecisionesAutorizacion");
+        Map<Method, Entrada> compilada = new HashMap<>();
+
+        Set<Class<?>> clases = new LinkedHashSet<>();
+        DECLARACIONES.forEach(d -> clases.add(d.clase));
+
+        for (Class<?> clase : clases) {
+            for (Method metodo : clase.getDeclaredMethods()) {
+                if (!Modifier.isPublic(metodo.getModifiers()) || metodo.isSynthetic()) {
+                    continue;
+                }
+                ReglaAutorizacion[] declaradas = resolver(clase, metodo.getName());
+                ReglaAutorizacion[][] reglasPorRol = new ReglaAutorizacion[Rol.values().length][];
+                for (Rol rol : Rol.values()) {
+                    reglasPorRol[rol.ordinal()] = filtrar(declaradas, rol);
+                }
+                String operacion = PREFIJOS_OPERACION.getOrDefault(clase, "") + metodo.getName();
+                compilada.put(metodo, new Entrada(operacion, reglasPorRol, filtrar(declaradas, null)));
+            }
+        }
+
+        tabla = Map.copyOf(compilada);
+        registrarReporte();
+    }
+
+    private static ReglaAutorizacion[] resolver(Class<?> clase, String metodo) {
+        Declaracion comodin = null;
+        for (Declaracion d : DECLARACIONES) {
+            if (d.clase == clase) {
+                if (d.metodo.equals(metodo)) {
+                    return d.reglas;
+                }
+                if ("*".equals(d.metodo)) {
+                    comodin = d;
+                }
+            }
+        }
+        return comodin != null ? comodin.reglas : SIN_REGLAS;
+    }
+
+    /**
+     * Reglas declaradas que aplican al rol dado (null = anónimo), en orden
+     */
+    private static ReglaAutorizacion[] filtrar(ReglaAutorizacion[] declaradas, Rol rol) {
+        List<ReglaAutorizacion> aplicables = new ArrayList<>();
+        for (ReglaAutorizacion regla : declaradas) {
+            if (regla.aplicaA(rol)) {
+                aplicables.add(regla);
+            }
+        }
+        return aplicables.isEmpty() ? SIN_REGLAS : aplicables.toArray(SIN_REGLAS);
+    }
+
+    /**
+     * Busca la entrada compilada de un método interceptado.
+     * Retorna null si el método no está sujeto a reglas.
+     */
+    public Entrada buscar(Method metodo) {
+        return tabla.get(metodo);
+    }
+
+    private void registrarReporte() {
+        if (registro.debug()) {
+            tabla.values().stream()
+                    .sorted(Comparator.comparing(Entrada::getOperacion))
+                    .forEach(this::registrarEntrada);
+        }
+        registro.evento(NivelEvento.INFO, "tabla_autorizacion_compilada", "metodos", tabla.size());
+    }
+
+    private void registrarEntrada(Entrada entrada) {
+        boolean sinReglas = entrada.reglasAnonimo.length == 0;
+        if (entrada.reglasAnonimo.length > 0) {
+            registro.evento(NivelEvento.DEBUG, "reglas_autorizacion", "operacion", entrada.operacion,
+                    "rol", "ANONIMO", "reglas", entrada.reglasAnonimo);
+        }
+        for (Rol rol : Rol.values()) {
+            ReglaAutorizacion[] reglas = entrada.reglasPorRol[rol.ordinal()];
+            if (reglas.length > 0) {
+                sinReglas = false;
+                registro.evento(NivelEvento.DEBUG, "reglas_autorizacion", "operacion", entrada.operacion,
+                        "rol", rol, "reglas", reglas);
+            }
+        }
+        if (sinReglas) {
+            registro.evento(NivelEvento.DEBUG, "reglas_autorizacion", "operacion", entrada.operacion,
+                    "rol", "TODOS", "reglas", "sin restricciones");
+        }
+    }
+
+    /**
+     * Reglas compiladas de un método: nombre de la operación para auditoría y
+     * reglas por rol (indexadas por ordinal) y para el usuario anónimo.
+     */
+    public static final class Entrada {
+        private final String operacion;
+        private final ReglaAutorizacion[][] reglasPorRol;
+        private final ReglaAutorizacion[] reglasAnonimo;
+
+        private Entrada(String operacion, ReglaAutorizacion[][] reglasPorRol, ReglaAutorizacion[] reglasAnonimo) {
+            this.operacion = operacion;
+            this.reglasPorRol = reglasPorRol;
+            this.reglasAnonimo = reglasAnonimo;
+        }
+
+        public String getOperacion() {
+            return operacion;
+        }
+
+        /**
+         * Reglas a evaluar para el rol del usuario, o las del anónimo si rol es null
+         */
+        public ReglaAutorizacion[] reglasPara(Rol rol) {
+            return rol != null ? reglasPorRol[rol.ordinal()] : reglasAnonimo;
+        }
+    }
+
+    private static final class Declaracion {
+        private final Class<?> clase;
+        private final String metodo;
+        private final ReglaAutorizacion[] reglas;
+
+        private Declaracion(Class<?> clase, String metodo, ReglaAutorizacion... reglas) {
+            this.clase = clase;
+            this.metodo = metodo;
+            this.reglas = reglas;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.ejemplo.notasapp.controlador;
+
+import com.ejemplo.notasapp.metricas.MonitorSql;
+import com.ejemplo.notasapp.modelo.FiltroLogViolacion;
+import com.ejemplo.notasapp.modelo.LogViolacionSeguridad;
+import com.ejemplo.notasapp.modelo.ResultadoVerificacionResumen;
+import com.ejemplo.notasapp.modelo.Rol;
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+import com.ejemplo.notasapp.repositorio.RepositorioLogViolacionSeguridad;
+import com.ejemplo.notasapp.servicio.CacheAcotada;
+import com.ejemplo.notasapp.servicio.CacheLecturas;
+import com.ejemplo.notasapp.servicio.CachePropietarioNota;
+import com.ejemplo.notasapp.servicio.ConfiguracionHilos;
+import com.ejemplo.notasapp.servicio.EscritorAuditoria;
+import com.ejemplo.notasapp.servicio.FormatoArchivo;
+import com.ejemplo.notasapp.servicio.LimitadorViolaciones;
+import com.ejemplo.notasapp.servicio.RetencionAuditoria;
+import com.ejemplo.notasapp.servicio.ServicioExportacion;
+import com.ejemplo.notasapp.servicio.ServicioResumenNotas;
+import com.ejemplo.notasapp.sesion.AlmacenSesiones;
+import com.ejemplo.notasapp.sesion.CodecUsuarioSesion;
+import com.ejemplo.notasapp.sesion.SesionesCompartidas;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Endpoints de diagnóstico en /debug: auditoría, cachés, hilos, SQL, sesiones
+ * y resumen de notas. Las operaciones que exponen la auditoría o recalculan
+ * tablas exigen el permiso ADMINISTRAR.
+ */
+@Controller
+public class DebugController {
+
+    @Autowired
+    private RepositorioLogViolacionSeguridad repositorioLog;
+
+    @Autowired
+    private EscritorAuditoria escritorAuditoria;
+
+    @Autowired
+    private CachePropietarioNota cachePropietarioNota;
+
+    @Autowired
+    private ServicioExportacion servicioExportacion;
+
+    @Autowired
+    private CacheLecturas cacheLecturas;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RetencionAuditoria retencionAuditoria;
+
+    @Autowired
+    private LimitadorViolaciones limitadorViolaciones;
+
+    @Autowired
+    private ConfiguracionHilos configuracionHilos;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ServicioResumenNotas servicioResumenNotas;
+
+    @Autowired
+    private SesionesCompartidas sesionesCompartidas;
+
+    @Autowired
+    private MonitorSql monitorSql;
+
+    @Value("${notasapp.auditoria.consulta.tamano-pagina:100}")
+    private int tamanoPaginaLogs;
+
+    private static final int MAXIMO_PAGINA_LOGS = 1000;
+
+    // Endpoint para debug: ver logs de violaciones de seguridad; solo para profesores.
+    // Se escriben a medida que se leen de la base de datos.
+    @GetMapping("/debug/logs")
+    public void verLogsViolaciones(HttpSession session, HttpServletResponse response) throws IOException {
+        if (!puedeAdministrar(session)) {
+            response.sendError(HttpStatus.FORBIDDEN.value(), "Solo un profesor puede consultar la auditoría");
+            return;
+        }
+        response.setContentType("text/plain; charset=utf-8");
+        PrintWriter out = response.getWriter();
+        try {
+            long totalLogs = repositorioLog.count();
+            out.append("=== LOGS DE VIOLACIONES DE SEGURIDAD ===\n");
+            out.append("Total de registros: ").append(String.valueOf(totalLogs)).append("\n\n");
+
+            servicioExportacion.recorrerLogs(null, null, log -> {
+                out.append("ID: ").append(String.valueOf(log.getId())).append("\n");
+                out.append("Usuario: ").append(log.getNombreUsuario()).append("\n");
+                out.append("Rol: ").append(String.valueOf(log.getRol())).append("\n");
+                out.append("Acción: ").append(log.getAccionIntentada()).append("\n");
+                out.append("Detalles: ").append(log.getDetalles()).append("\n");
+                out.append("Fecha/Hora: ").append(String.valueOf(log.getFechaHora())).append("\n");
+                out.append("----------------------------------------\n");
+            });
+        } catch (Exception e) {
+            out.append("Error al consultar logs: ").append(e.getMessage());
+        }
+    }
+
+    // Endpoint para debug: exportar logs de violaciones en [desde, hasta) como CSV o NDJSON.
+    // Contiene usuarios y detalles de las peticiones: solo para profesores
+    @GetMapping("/debug/logs/exportar")
+    public void exportarLogsViolaciones(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(defaultValue = "CSV") FormatoArchivo formato,
+            HttpSession session,
+            HttpServletResponse response) throws IOException {
+        if (!puedeAdministrar(session)) {
+            response.sendError(HttpStatus.FORBIDDEN.value(), "Solo un profesor puede exportar la auditoría");
+            return;
+        }
+        response.setContentType(formato.getTipoContenido());
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"logs-violaciones." + formato.getExtension() + "\"");
+        servicioExportacion.exportarLogs(desde, hasta, formato, response.getOutputStream());
+    }
+
+    // Endpoint para debug: búsqueda de logs por usuario, rol, acción y rango de
+    // fechas, del más reciente al más antiguo y paginada por (fechaHora, id); solo para profesores
+    @GetMapping(value = "/debug/logs/buscar", produces = "text/plain; charset=utf-8")
+    public ResponseEntity<String> buscarLogsViolaciones(FiltroLogViolacion filtro,
+            @RequestParam(required = false) Integer limite, HttpSession session) {
+        if (!puedeAdministrar(session)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Solo un profesor puede consultar la auditoría\n");
+        }
+        int tamano = Math.min(limite != null && limite > 0 ? limite : tamanoPaginaLogs, MAXIMO_PAGINA_LOGS);
+        List<LogViolacionSeguridad> logs = repositorioLog.buscar(filtro, tamano + 1);
+        boolean haySiguiente = logs.size() > tamano;
+        if (haySiguiente) {
+            logs = logs.subList(0, tamano);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== BÚSQUEDA DE LOGS DE VIOLACIONES ===\n");
+        sb.append("Registros: ").append(logs.size()).append("\n\n");
+        for (LogViolacionSeguridad log : logs) {
+            sb.append(log.getFechaHora()).append(" | ID ").append(log.getId())
+                    .append(" | ").append(log.getNombreUsuario())
+                    .append(" | ").append(log.getRol())
+                    .append(" | ").append(log.getAccionIntentada())
+                    .append(" | ").append(log.getDetalles()).append("\n");
+        }
+        if (haySiguiente) {
+            LogViolacionSeguridad ultimo = logs.get(logs.size() - 1);
+            String siguiente = UriComponentsBuilder.fromPath("/debug/logs/buscar")
+                    .queryParamIfPresent("usuario", Optional.ofNullable(filtro.getUsuario()))
+                    .queryParamIfPresent("rol", Optional.ofNullable(filtro.getRol()))
+                    .queryParamIfPresent("accion", Optional.ofNullable(filtro.getAccion()))
+                    .queryParamIfPresent("desde", Optional.ofNullable(filtro.getDesde()))
+                    .queryParamIfPresent("hasta", Optional.ofNullable(filtro.getHasta()))
+                    .queryParam("despuesDeFecha", ultimo.getFechaHora())
+                    .queryParam("despuesDeId", ultimo.getId())
+                    .queryParam("limite", tamano)
+                    .encode().build().toUriString();
+            sb.append("\nSiguiente página: ").append(siguiente).append("\n");
+        }
+        return ResponseEntity.ok(sb.toString());
+    }
+
+    // Endpoint para debug: contadores del escritor asíncrono de auditoría
+    @GetMapping("/debug/auditoria")
+    @ResponseBody
+    public String verEstadoAuditoria() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== ESCRITOR DE AUDITORÍA ===\n");
+        sb.append("Política: ").append(escritorAuditoria.getPolitica()).append("\n");
+        sb.append("Encolados: ").append(escritorAuditoria.getEncolados()).append("\n");
+        sb.append("Escritos: ").append(escritorAuditoria.getEscritos()).append("\n");
+        sb.append("Descartados: ").append(escritorAuditoria.getDescartados()).append("\n");
+        sb.append("Fallidos: ").append(escritorAuditoria.getFallidos()).append("\n");
+        sb.append("Pendientes: ").append(escritorAuditoria.getPendientes()).append("\n");
+        sb.append("\n=== LIMITADOR DE VIOLACIONES ===\n");
+        sb.append("Habilitado: ").append(limitadorViolaciones.isHabilitado()).append("\n");
+        sb.append("Bloqueos: ").append(limitadorViolaciones.getBloqueos()).append("\n");
+        sb.append("Peticiones rechazadas: ").append(limitadorViolaciones.getRechazadas()).append("\n");
+        sb.append("Entradas activas: ").append(limitadorViolaciones.getEntradas()).append("\n");
+        sb.append("\n=== RETENCIÓN ===\n");
+        sb.append("Habilitada: ").append(retencionAuditoria.isHabilitada()).append("\n");
+        sb.append("Días conservados: ").append(retencionAuditoria.getDias()).append("\n");
+        sb.append("Eliminados: ").append(retencionAuditoria.getEliminados()).append("\n");
+        sb.append("Archivados: ").append(retencionAuditoria.getArchivados()).append("\n");
+        sb.append("Última ejecución: ").append(retencionAuditoria.getUltimaEjecucion()).append("\n");
+        return sb.toString();
+    }
+
+    // Endpoint para debug: métricas del índice notaId -> estudianteId
+    @GetMapping("/debug/cache-propietarios")
+    @ResponseBody
+    public String verCachePropietarios() {
+        long aciertos = cachePropietarioNota.getAciertos();
+        long fallos = cachePropietarioNota.getFallos();
+        long total = aciertos + fallos;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== CACHÉ DE PROPIETARIOS DE NOTAS ===\n");
+        sb.append("Capacidad: ").append(cachePropietarioNota.getCapacidad()).append("\n");
+        sb.append("Aciertos: ").append(aciertos).append("\n");
+        sb.append("Fallos: ").append(fallos).append("\n");
+        sb.append("Desalojos: ").append(cachePropietarioNota.getDesalojos()).append("\n");
+        sb.append("Tasa de aciertos: ").append(total > 0 ? (double) aciertos / total : 0.0).append("\n");
+        return sb.toString();
+    }
+
+    // Endpoint para debug: tasa de aciertos de la caché de lecturas según el modo
+    @GetMapping(value = "/debug/cache-lecturas", produces = "text/plain; charset=utf-8")
+    @ResponseBody
+    public String verCacheLecturas() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== CACHÉ DE LECTURAS ===\n");
+        sb.append("Modo: ").append(cacheLecturas.getModo()).append("\n");
+
+        if (cacheLecturas.getModo() == CacheLecturas.Modo.HIBERNATE) {
+            Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            sb.append("\n--- Segundo nivel (entidades) ---\n");
+            sb.append("Aciertos: ").append(estadisticas.getSecondLevelCacheHitCount()).append("\n");
+            sb.append("Fallos: ").append(estadisticas.getSecondLevelCacheMissCount()).append("\n");
+            sb.append("Escrituras: ").append(estadisticas.getSecondLevelCachePutCount()).append("\n");
+            sb.append("\n--- Caché de consultas ---\n");
+            sb.append("Aciertos: ").append(estadisticas.getQueryCacheHitCount()).append("\n");
+            sb.append("Fallos: ").append(estadisticas.getQueryCacheMissCount()).append("\n");
+            sb.append("Escrituras: ").append(estadisticas.getQueryCachePutCount()).append("\n");
+            sb.append("\nConsultas ejecutadas en la BD: ").append(estadisticas.getQueryExecutionCount()).append("\n");
+        } else {
+            agregarMetricasCache(sb, "Estudiantes", cacheLecturas.getEstudiantes());
+            agregarMetricasCache(sb, "Notas por estudiante", cacheLecturas.getNotasPorEstudiante());
+        }
+        return sb.toString();
+    }
+
+    // Endpoint para debug: modo de ejecución y ocupación del pool de conexiones
+    @GetMapping(value = "/debug/hilos", produces = "text/plain; charset=utf-8")
+    @ResponseBody
+    public String verHilos() throws SQLException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== EJECUCIÓN ===\n");
+        sb.append("Modo: ").append(configuracionHilos.getModo()).append("\n");
+        sb.append("Java: ").append(Runtime.version()).append("\n");
+        sb.append("Hilos virtuales disponibles: ").append(ConfiguracionHilos.virtualesDisponibles()).append("\n");
+        sb.append("Hilo de esta petición: ").append(Thread.currentThread().getName())
+                .append(ConfiguracionHilos.esVirtual(Thread.currentThread()) ? " (virtual)" : " (plataforma)")
+                .append("\n");
+
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            sb.append("\n=== POOL DE CONEXIONES ===\n");
+            sb.append("Máximo: ").append(hikari.getMaximumPoolSize()).append("\n");
+            if (pool != null) {
+                sb.append("Activas: ").append(pool.getActiveConnections()).append("\n");
+                sb.append("Inactivas: ").append(pool.getIdleConnections()).append("\n");
+                sb.append("Hilos esperando conexión: ").append(pool.getThreadsAwaitingConnection()).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    // Endpoint para debug: sentencias SQL por petición y por repositorio, y sospechas de N+1
+    @GetMapping(value = "/debug/sql", produces = "text/plain; charset=utf-8")
+    @ResponseBody
+    public String verSql() {
+        return monitorSql.exportarTexto();
+    }
+
+    // Endpoint para debug: almacén de sesiones y tamaño de la sesión actual codificada
+    @GetMapping(value = "/debug/sesiones", produces = "text/plain; charset=utf-8")
+    @ResponseBody
+    public String verSesiones(HttpSession session) {
+        AlmacenSesiones almacen = sesionesCompartidas.getAlmacen();
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== SESIONES ===\n");
+        sb.append("Almacén: ").append(almacen.getTipo()).append("\n");
+        sb.append("Sesiones guardadas: ").append(almacen.contar()).append("\n");
+        UsuarioSesion usuario = (UsuarioSesion) session.getAttribute("usuario");
+        if (usuario != null) {
+            sb.append("Bytes de la sesión actual: ").append(CodecUsuarioSesion.codificar(usuario).length).append("\n");
+        }
+        return sb.toString();
+    }
+
+    // Endpoint para debug: compara el resumen de notas con las notas, sin modificarlo.
+    // Recalcula toda la tabla en paralelo: solo para profesores
+    @GetMapping(value = "/debug/resumenes", produces = "text/plain; charset=utf-8")
+    public ResponseEntity<String> verificarResumenes(HttpSession session) {
+        if (!puedeAdministrar(session)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Solo un profesor puede verificar el resumen\n");
+        }
+        return ResponseEntity.ok(formatearVerificacion(servicioResumenNotas.verificar(false)));
+    }
+
+    // Reconstruye las particiones del resumen con deriva; solo para profesores
+    @PostMapping(value = "/debug/resumenes/reconstruir", produces = "text/plain; charset=utf-8")
+    public ResponseEntity<String> reconstruirResumenes(HttpSession session) {
+        if (!puedeAdministrar(session)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Solo un profesor puede reconstruir el resumen\n");
+        }
+        return ResponseEntity.ok(formatearVerificacion(servicioResumenNotas.verificar(true)));
+    }
+
+    private static boolean puedeAdministrar(HttpSession session) {
+        UsuarioSesion usuario = (UsuarioSesion) session.getAttribute("usuario");
+        return usuario != null && usuario.tiene(Rol.Permiso.ADMINISTRAR);
+    }
+
+    private static String formatearVerificacion(ResultadoVerificacionResumen resultado) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== RESUMEN DE NOTAS ===\n");
+        sb.append("Particiones: ").append(resultado.getParticiones()).append("\n");
+        sb.append("Particiones reconstruidas: ").append(resultado.getParticionesReconstruidas()).append("\n");
+        sb.append("Filas esperadas: ").append(resultado.getFilasEsperadas()).append("\n");
+        sb.append("Filas en el resumen: ").append(resultado.getFilasResumen()).append("\n");
+        sb.append("Faltantes: ").append(resultado.getFaltantes()).append("\n");
+        sb.append("Sobrantes: ").append(resultado.getSobrantes()).append("\n");
+        sb.append("Diferentes: ").append(resultado.getDiferentes()).append("\n");
+        sb.append("Máxima diferencia relativa: ").append(resultado.getMaximaDiferencia()).append("\n");
+        sb.append("Duración: ").append(resultado.getDuracionMs()).append(" ms\n");
+        if (!resultado.getMuestras().isEmpty()) {
+            sb.append("\n--- Primeras diferencias ---\n");
+            resultado.getMuestras().forEach(muestra -> sb.append(muestra).append("\n"));
+        }
+        return sb.toString();
+    }
+
+    private static void agregarMetricasCache(StringBuilder sb, String nombre, CacheAcotada<?, ?> cache) {
+        sb.append("\n--- ").append(nombre).append(" ---\n");
+        sb.append("Entradas: ").append(cache.getTamano()).append("\n");
+        sb.append("Aciertos: ").append(cache.getAciertos()).append("\n");
+        sb.append("Fallos: ").append(cache.getFallos()).append("\n");
+        sb.append("Desalojos: ").append(cache.getDesalojos()).append("\n");
+        sb.append("Expirados: ").append(cache.getExpirados()).append("\n");
+        sb.append("Tasa de aciertos: ").append(cache.getTasaAciertos()).append("\n");
+    }
+}
@@ -1,12 +1,24 @@
 package com.ejemplo.notasapp.controlador;
 
+import com.ejemplo.notasapp.metricas.PresupuestoSql;
 import com.ejemplo.notasapp.modelo.Estudiante;
+import com.ejemplo.notasapp.modelo.EstudianteResumen;
 import com.ejemplo.notasapp.repositorio.RepositorioEstudiante;
+import com.ejemplo.notasapp.servicio.AlmacenColumnarNotas;
+import com.ejemplo.notasapp.servicio.CacheLecturas;
+import com.ejemplo.notasapp.servicio.CachePropietarioNota;
+import com.ejemplo.notasapp.servicio.ServicioResumenNotas;
+import com.ejemplo.notasapp.servicio.VersionesEstudiante;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Controller
 @RequestMapping("/estudiantes")
 public class EstudianteController {
@@ -14,12 +26,63 @@ public class EstudianteController {
     @Autowired
     private RepositorioEstudiante estudianteRepo;
 
+    @Autowired
+    private CacheLecturas cacheLecturas;
+
+    @Autowired
+    private CachePropietarioNota cachePropietarioNota;
+
+    @Autowired
+    private ServicioResumenNotas servicioResumenNotas;
+
+    @Autowired
+    private AlmacenColumnarNotas almacenColumnar;
+
+    @Autowired
+    private VersionesEstudiante versionesEstudiante;
+
+    @Value("${notasapp.estudiantes.tamano-pagina:50}")
+    private int tamanoPagina;
+
+    /**
+     * Lista los estudiantes por páginas usando paginación por llave: cada
+     * página continúa desde el último (apellido, id) mostrado, por lo que el
+     * costo no crece con el tamaño de la tabla.
+     */
     @GetMapping
-    public String listar(Model model) {
-        model.addAttribute("estudiantes", estudianteRepo.findAll());
+    @PresupuestoSql(sentencias = 2)
+    public String listar(@RequestParam(value = "apellido", required = false) String apellido,
+            @RequestParam(value = "despuesDeId", defaultValue = "0") Long despuesDeId,
+            @RequestParam(value = "despuesDeApellido", defaultValue = "") String despuesDeApellido,
+            Model model) {
+        // Se pide un registro extra para saber si existe una página siguiente
+        Pageable pagina = PageRequest.of(0, tamanoPagina + 1);
+        boolean buscarPorApellido = apellido != null && !apellido.isBlank();
+
+        List<EstudianteResumen> estudiantes = buscarPorApellido
+                ? estudianteRepo.buscarPaginaPorApellido(prefijoLike(apellido.trim()), despuesDeApellido,
+                        despuesDeId, pagina)
+                : estudianteRepo.buscarPagina(despuesDeId, pagina);
+
+        boolean haySiguiente = estudiantes.size() > tamanoPagina;
+        if (haySiguiente) {
+            estudiantes = estudiantes.subList(0, tamanoPagina);
+            EstudianteResumen ultimo = estudiantes.get(estudiantes.size() - 1);
+            model.addAttribute("siguienteId", ultimo.getId());
+            model.addAttribute("siguienteApellido", ultimo.getApellido());
+        }
+
+        model.addAttribute("estudiantes", estudiantes);
+        model.addAttribute("haySiguiente", haySiguiente);
+        model.addAttribute("apellido", buscarPorApellido ? apellido.trim() : "");
         return "estudiantes";
     }
 
+    // Escapa los comodines de LIKE para que el texto se use como prefijo literal
+    private static String prefijoLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
     @GetMapping("/nuevo")
     public String nuevo(Model model) {
         model.addAttribute("estudiante", new Estudiante());
@@ -27,20 +90,30 @@ public class EstudianteController {
     }
 
     @PostMapping("/guardar")
+    @PresupuestoSql(sentencias = 3)
     public String guardar(@ModelAttribute Estudiante estudiante) {
         estudianteRepo.save(estudiante);
+        cacheLecturas.invalidarEstudiante(estudiante.getId());
+        // El nombre aparece en la página de notas
+        versionesEstudiante.modificado(estudiante.getId());
         return "redirect:/estudiantes";
     }
 
     @GetMapping("/editar/{id}")
+    @PresupuestoSql(sentencias = 2)
     public String editar(@PathVariable Long id, Model model) {
         model.addAttribute("estudiante", estudianteRepo.findById(id).orElseThrow());
         return "editar-estudiante";
     }
 
     @GetMapping("/eliminar/{id}")
+    @PresupuestoSql(sentencias = 6)
     public String eliminar(@PathVariable Long id) {
-        estudianteRepo.deleteById(id);
+        servicioResumenNotas.eliminarEstudiante(id);
+        cachePropietarioNota.invalidarEstudiante(id);
+        almacenColumnar.estudianteEliminado(id);
+        cacheLecturas.invalidarEstudiante(id);
+        versionesEstudiante.modificado(id);
         return "redirect:/estudiantes";
     }
 }
\ No newline at end of file
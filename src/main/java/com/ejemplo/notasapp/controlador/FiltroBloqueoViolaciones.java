@@ -0,0 +1,101 @@
+package com.ejemplo.notasapp.controlador;
+
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+import com.ejemplo.notasapp.servicio.LimitadorViolaciones;
+import com.ejemplo.notasapp.sesion.SesionesCompartidas;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Corta las peticiones de sesiones o usuarios bloqueados por
+ * LimitadorViolaciones antes de que lleguen a los controladores, los aspectos
+ * o la base de datos. La sesión se invalida, se borran las cookies de sesión
+ * y se redirige a la pantalla de violación de seguridad; las peticiones que
+ * siguen llegando con el id de la sesión invalidada también se cortan
+ * mientras dure el bloqueo.
+ *
+ * La pantalla de error y los recursos estáticos no se filtran: si no, un
+ * cliente que aún envía el id bloqueado quedaría en un bucle de redirecciones.
+ */
+@Component
+public class FiltroBloqueoViolaciones extends OncePerRequestFilter {
+
+    private static final String DETALLES = "Demasiadas violaciones de seguridad en poco tiempo. "
+            + "La sesión fue cerrada y el usuario está bloqueado temporalmente";
+
+    @Autowired
+    private LimitadorViolaciones limitador;
+
+    @Autowired
+    private SesionesCompartidas sesionesCompartidas;
+
+    // Rutas que se sirven aunque la sesión esté bloqueada
+    private static final String[] RUTAS_LIBRES = { "/error", "/webjars/", "/css/", "/js/", "/images/",
+            "/favicon.ico" };
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        for (String libre : RUTAS_LIBRES) {
+            if (ruta.startsWith(libre)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        UsuarioSesion usuario = null;
+        if (session != null) {
+            try {
+                usuario = (UsuarioSesion) session.getAttribute("usuario");
+            } catch (IllegalStateException e) {
+                // Sesión invalidada por otra petición concurrente
+                session = null;
+            }
+        }
+
+        // Tras invalidar la sesión el cliente sigue enviando el id anterior en la cookie
+        String sesionId = session != null ? session.getId() : request.getRequestedSessionId();
+        String nombre = usuario != null ? usuario.getNombre() : null;
+        if ((sesionId == null && nombre == null) || !limitador.estaBloqueado(sesionId, nombre)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (session != null) {
+            sesionesCompartidas.cerrar(session);
+        }
+        // Sin las cookies el cliente deja de enviar el id bloqueado y puede volver a identificarse
+        sesionesCompartidas.borrarCookie(response);
+        borrarCookieContenedor(request, response);
+        response.sendRedirect(request.getContextPath() + PlantillaRedireccion.VIOLACION_SEGURIDAD.construir(
+                "USUARIO_BLOQUEADO",
+                nombre != null ? nombre : "ANONIMO",
+                request.getRequestURI(),
+                DETALLES,
+                "429"));
+    }
+
+    private static void borrarCookieContenedor(HttpServletRequest request, HttpServletResponse response) {
+        String nombre = request.getServletContext().getSessionCookieConfig().getName();
+        Cookie cookie = new Cookie(nombre != null ? nombre : "JSESSIONID", "");
+        String contexto = request.getContextPath();
+        cookie.setPath(contexto.isEmpty() ? "/" : contexto);
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge(0);
+        response.addCookie(cookie);
+    }
+}
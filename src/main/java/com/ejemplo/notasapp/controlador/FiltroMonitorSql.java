@@ -0,0 +1,42 @@
+package com.ejemplo.notasapp.controlador;
+
+import com.ejemplo.notasapp.metricas.MonitorSql;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Abre el contexto de MonitorSql al llegar la petición y lo cierra al
+ * terminar la respuesta (vista incluida). Las peticiones se agrupan por
+ * método HTTP y patrón de la ruta, p. ej. "GET /notas/{estudianteId}".
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "notasapp.sql.monitor.habilitado", havingValue = "true", matchIfMissing = true)
+public class FiltroMonitorSql extends OncePerRequestFilter {
+
+    @Autowired
+    private MonitorSql monitorSql;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        monitorSql.iniciarPeticion();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            monitorSql.terminarPeticion(request.getMethod() + " " + (patron != null ? patron : "(sin ruta)"));
+        }
+    }
+}
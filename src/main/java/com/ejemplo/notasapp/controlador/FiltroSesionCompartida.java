@@ -0,0 +1,34 @@
+package com.ejemplo.notasapp.controlador;
+
+import com.ejemplo.notasapp.sesion.SesionesCompartidas;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Restaura el usuario desde el AlmacenSesiones antes que el resto de filtros,
+ * para que FiltroBloqueoViolaciones y los aspectos de autorización vean al
+ * usuario aunque la petición llegue a una instancia recién iniciada.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class FiltroSesionCompartida extends OncePerRequestFilter {
+
+    @Autowired
+    private SesionesCompartidas sesionesCompartidas;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        sesionesCompartidas.restaurar(request);
+        chain.doFilter(request, response);
+    }
+}
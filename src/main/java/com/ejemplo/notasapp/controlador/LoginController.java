@@ -1,27 +1,31 @@
 package com.ejemplo.notasapp.controlador;
 
 import com.ejemplo.notasapp.excepcion.EstudianteNoEncontrado;
+import com.ejemplo.notasapp.modelo.Rol;
 import com.ejemplo.notasapp.modelo.UsuarioSesion;
-import com.ejemplo.notasapp.repositorio.RepositorioLogViolacionSeguridad;
-import com.ejemplo.notasapp.repositorio.RepositorioEstudiante;
+import com.ejemplo.notasapp.servicio.CacheLecturas;
+import com.ejemplo.notasapp.servicio.LimitadorViolaciones;
+import com.ejemplo.notasapp.sesion.SesionesCompartidas;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
-import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseBody;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
 @Controller
 public class LoginController {
 
     @Autowired
-    private RepositorioLogViolacionSeguridad repositorioLog;
+    private CacheLecturas cacheLecturas;
 
     @Autowired
-    private RepositorioEstudiante repositorioEstudiante;
+    private LimitadorViolaciones limitadorViolaciones;
+
+    @Autowired
+    private SesionesCompartidas sesionesCompartidas;
 
     @GetMapping("/")
     public String index() {
@@ -31,9 +35,10 @@ public class LoginController {
     @PostMapping("/identificacion")
     public String procesarIdentificacion(
             @RequestParam("nombre") String nombre,
-            @RequestParam("rol") String rol,
+            @RequestParam("rol") String nombreRol,
             @RequestParam(value = "estudianteId", required = false) Long estudianteId,
-            HttpSession session) {
+            HttpSession session,
+            HttpServletResponse response) {
 
         try {
             // Validar entrada básica
@@ -41,18 +46,24 @@ public class LoginController {
                 return "redirect:/?error=nombre_requerido";
             }
 
-            if (!"ALUMNO".equals(rol) && !"PROFESOR".equals(rol)) {
+            Rol rol = Rol.desdeNombre(nombreRol);
+            if (rol == null) {
                 return "redirect:/?error=rol_invalido";
             }
 
-            // Validar que los alumnos proporcionen su ID de estudiante
-            if ("ALUMNO".equals(rol)) {
+            // Usuario bloqueado temporalmente por exceso de violaciones
+            if (limitadorViolaciones.usuarioBloqueado(nombre.trim())) {
+                return "redirect:/?error=usuario_bloqueado";
+            }
+
+            // Validar que los alumnos (roles limitados a su estudiante) proporcionen su ID
+            if (rol.requiereEstudiante()) {
                 if (estudianteId == null || estudianteId <= 0) {
                     return "redirect:/?error=estudiante_id_requerido";
                 }
 
                 // Verificar que el ID de estudiante existe en la base de datos
-                if (!repositorioEstudiante.existsById(estudianteId)) {
+                if (!cacheLecturas.existeEstudiante(estudianteId)) {
                     throw new EstudianteNoEncontrado("estudiante no encontrado", "404", new RuntimeException());
                 }
             } else {
@@ -63,6 +74,8 @@ public class LoginController {
             // Crear usuario de sesión y guardarlo en la sesión HTTP
             UsuarioSesion usuario = new UsuarioSesion(nombre.trim(), rol, estudianteId);
             session.setAttribute("usuario", usuario);
+            // Y en el almacén compartido, para restaurarla tras un reinicio o en otra instancia
+            sesionesCompartidas.iniciar(session, usuario, response);
 
             // Log de inicio de sesión
             System.out.println("=== INICIO DE SESIÓN ===");
@@ -70,25 +83,21 @@ public class LoginController {
             System.out.println("========================");
 
             // Redirigir según el rol
-            if (usuario.isProfesor()) {
-                // Los profesores van a la lista de estudiantes (acceso completo)
-                return "redirect:/estudiantes";
-            } else if (usuario.isAlumno()) {
+            if (rol.requiereEstudiante()) {
                 // Los alumnos van directamente a sus propias notas
                 return "redirect:/notas/" + estudianteId;
             }
+            // Los profesores van a la lista de estudiantes (acceso completo)
+            return "redirect:/estudiantes";
 
         } catch (Exception e) {
             System.err.println("Error en el procesamiento de identificación: " + e.getMessage());
             return "redirect:/?error=error_procesamiento";
         }
-
-        // En caso de error, volver a la pantalla de identificación
-        return "redirect:/?error=error_desconocido";
     }
 
     @GetMapping("/logout")
-    public String logout(HttpSession session) {
+    public String logout(HttpSession session, HttpServletResponse response) {
         // Obtener usuario antes de invalidar la sesión para logging
         UsuarioSesion usuario = (UsuarioSesion) session.getAttribute("usuario");
         if (usuario != null) {
@@ -97,7 +106,8 @@ public class LoginController {
             System.out.println("========================");
         }
 
-        session.invalidate();
+        sesionesCompartidas.cerrar(session);
+        sesionesCompartidas.borrarCookie(response);
         return "redirect:/";
     }
 
@@ -110,36 +120,10 @@ public class LoginController {
 
         // Aquí podrías implementar una vista de perfil
         // Por ahora, redirigir según el rol
-        if (usuario.isProfesor()) {
+        if (usuario.tiene(Rol.Permiso.NOTAS_DE_TODOS)) {
             return "redirect:/estudiantes";
         } else {
             return "redirect:/notas/" + usuario.getEstudianteId();
         }
     }
-
-    // Endpoint para debug: ver logs de violaciones de seguridad
-    @GetMapping("/debug/logs")
-    @ResponseBody
-    public String verLogsViolaciones() {
-        try {
-            long totalLogs = repositorioLog.count();
-            StringBuilder sb = new StringBuilder();
-            sb.append("=== LOGS DE VIOLACIONES DE SEGURIDAD ===\n");
-            sb.append("Total de registros: ").append(totalLogs).append("\n\n");
-
-            repositorioLog.findAll().forEach(log -> {
-                sb.append("ID: ").append(log.getId()).append("\n");
-                sb.append("Usuario: ").append(log.getNombreUsuario()).append("\n");
-                sb.append("Rol: ").append(log.getRol()).append("\n");
-                sb.append("Acción: ").append(log.getAccionIntentada()).append("\n");
-                sb.append("Detalles: ").append(log.getDetalles()).append("\n");
-                sb.append("Fecha/Hora: ").append(log.getFechaHora()).append("\n");
-                sb.append("----------------------------------------\n");
-            });
-
-            return sb.toString();
-        } catch (Exception e) {
-            return "Error al consultar logs: " + e.getMessage();
-        }
-    }
 }
@@ -0,0 +1,36 @@
+package com.ejemplo.notasapp.controlador;
+
+import com.ejemplo.notasapp.metricas.RegistroMetricas;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+@Controller
+public class MetricasController {
+
+    @Autowired
+    private RegistroMetricas registroMetricas;
+
+    // Endpoint de métricas en formato Prometheus, solo accesible desde la máquina local
+    @GetMapping(value = "/metricas", produces = "text/plain; version=0.0.4; charset=utf-8")
+    public ResponseEntity<String> metricas(HttpServletRequest request) {
+        if (!esLocal(request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(registroMetricas.exportarPrometheus());
+    }
+
+    private static boolean esLocal(String direccion) {
+        try {
+            return InetAddress.getByName(direccion).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -1,20 +1,45 @@
 package com.ejemplo.notasapp.controlador;
 
+import com.ejemplo.notasapp.metricas.PresupuestoSql;
 import com.ejemplo.notasapp.modelo.Nota;
 import com.ejemplo.notasapp.excepcion.EstudianteNoEncontrado;
 import com.ejemplo.notasapp.modelo.Estudiante;
+import com.ejemplo.notasapp.modelo.ReporteCurso;
+import com.ejemplo.notasapp.modelo.ResultadoImportacion;
+import com.ejemplo.notasapp.modelo.VistaNotasEstudiante;
 import com.ejemplo.notasapp.repositorio.RepositorioNota;
 import com.ejemplo.notasapp.repositorio.RepositorioEstudiante;
+import com.ejemplo.notasapp.servicio.AlmacenColumnarNotas;
+import com.ejemplo.notasapp.servicio.CacheLecturas;
+import com.ejemplo.notasapp.servicio.CachePropietarioNota;
+import com.ejemplo.notasapp.servicio.FormatoArchivo;
+import com.ejemplo.notasapp.servicio.ServicioExportacion;
+import com.ejemplo.notasapp.servicio.ServicioImportacionNotas;
 import com.ejemplo.notasapp.servicio.ServicioNota;
+import com.ejemplo.notasapp.servicio.ServicioReporteCurso;
+import com.ejemplo.notasapp.servicio.ServicioResumenNotas;
+import com.ejemplo.notasapp.servicio.VersionesEstudiante;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @Controller
 @RequestMapping("/notas")
 public class NotaController {
 
+    private static final int MAXIMO_INTERVALOS = 100;
+    private static final int MAXIMO_TOP = 100;
+
     @Autowired
     private RepositorioNota notaRepo;
 
@@ -24,18 +49,54 @@ public class NotaController {
     @Autowired
     private ServicioNota servicioNota;
 
+    @Autowired
+    private ServicioResumenNotas servicioResumenNotas;
+
+    @Autowired
+    private AlmacenColumnarNotas almacenColumnar;
+
+    @Autowired
+    private CachePropietarioNota cachePropietarioNota;
+
+    @Autowired
+    private CacheLecturas cacheLecturas;
+
+    @Autowired
+    private ServicioImportacionNotas servicioImportacion;
+
+    @Autowired
+    private ServicioExportacion servicioExportacion;
+
+    @Autowired
+    private ServicioReporteCurso servicioReporteCurso;
+
+    @Autowired
+    private VersionesEstudiante versionesEstudiante;
+
     @GetMapping("/{estudianteId}")
-    public String listar(@PathVariable Long estudianteId, Model model) {
-        model.addAttribute("notas", notaRepo.findByEstudianteId(estudianteId));
-        model.addAttribute("estudianteId", estudianteId);
-        Estudiante est = estudianteRepo.findById(estudianteId).orElseThrow(
+    @PresupuestoSql(sentencias = 3)
+    public String listar(@PathVariable Long estudianteId,
+            @RequestParam(required = false) String materia,
+            @RequestParam(defaultValue = "ID") VistaNotasEstudiante.Orden orden,
+            Model model, WebRequest request, HttpServletResponse response) {
+        if (sinCambios(request, response, versionesEstudiante.etag(estudianteId),
+                versionesEstudiante.ultimaModificacion(estudianteId))) {
+            return null;
+        }
+        // Encabezado y notas en una sola consulta, sin entidades administradas
+        VistaNotasEstudiante vista = cacheLecturas.vistaNotas(estudianteId, materia, orden).orElseThrow(
                 () -> new EstudianteNoEncontrado("Estudiante no encontrado", "404", new RuntimeException()));
-        model.addAttribute("estudianteNombre", est.getNombre());
-        model.addAttribute("estudianteApellido", est.getApellido());
+        model.addAttribute("notas", vista.getNotas());
+        model.addAttribute("estudianteId", estudianteId);
+        model.addAttribute("estudianteNombre", vista.getNombre());
+        model.addAttribute("estudianteApellido", vista.getApellido());
+        model.addAttribute("materia", materia != null ? materia.trim() : "");
+        model.addAttribute("orden", orden);
         return "notas";
     }
 
     @GetMapping("/{estudianteId}/nueva")
+    @PresupuestoSql(sentencias = 2)
     public String nueva(@PathVariable Long estudianteId, Model model) {
         Nota nota = new Nota();
         nota.setEstudiante(estudianteRepo.findById(estudianteId).orElseThrow(
@@ -45,22 +106,46 @@ public class NotaController {
     }
 
     @PostMapping("/guardar")
+    @PresupuestoSql(sentencias = 6)
     public String guardar(@ModelAttribute Nota nota) {
-        notaRepo.save(nota);
+        long anterior = CachePropietarioNota.SIN_PROPIETARIO;
+        if (nota.getId() != null) {
+            // Si la edición cambia el estudiante, también cambia la lista del anterior
+            anterior = cachePropietarioNota.obtenerPropietario(nota.getId());
+        }
+        nota = servicioResumenNotas.guardarNota(nota);
+        if (nota.getId() != null) {
+            cachePropietarioNota.invalidar(nota.getId());
+        }
+        almacenColumnar.notaGuardada(nota);
+        // Se invalida tras confirmar: una lectura concurrente anterior no puede volver a guardar la lista vieja
+        if (anterior != CachePropietarioNota.SIN_PROPIETARIO) {
+            cacheLecturas.invalidarNotas(anterior);
+        }
+        cacheLecturas.invalidarNotas(nota.getEstudiante().getId());
+        // Las versiones cambian después de invalidar: un ETag nuevo nunca acompaña a una lectura en caché vieja
+        if (anterior != CachePropietarioNota.SIN_PROPIETARIO) {
+            versionesEstudiante.modificado(anterior);
+        }
+        versionesEstudiante.modificado(nota.getEstudiante().getId());
         return "redirect:/notas/" + nota.getEstudiante().getId();
     }
 
     @GetMapping("/editar/{id}")
+    @PresupuestoSql(sentencias = 2)
     public String editar(@PathVariable Long id, Model model) {
         model.addAttribute("nota", notaRepo.findById(id).orElseThrow());
         return "editar-nota";
     }
 
     @GetMapping("/eliminar/{id}")
+    @PresupuestoSql(sentencias = 5)
     public String eliminar(@PathVariable Long id) {
-        Nota nota = notaRepo.findById(id).orElseThrow();
-        Long estudianteId = nota.getEstudiante().getId();
-        notaRepo.delete(nota);
+        Long estudianteId = servicioResumenNotas.eliminarNota(id).orElseThrow();
+        cachePropietarioNota.invalidar(id);
+        almacenColumnar.notaEliminada(id);
+        cacheLecturas.invalidarNotas(estudianteId);
+        versionesEstudiante.modificado(estudianteId);
         return "redirect:/notas/" + estudianteId;
     }
 
@@ -73,6 +158,7 @@ public class NotaController {
     }
 
     @PostMapping("/promedio")
+    @PresupuestoSql(sentencias = 2)
     public String calcularPromedio(@RequestParam Long estudianteId,
             @RequestParam String materia,
             Model model) {
@@ -83,4 +169,122 @@ public class NotaController {
         return "nota-promedio";
     }
 
-}
\ No newline at end of file
+    @GetMapping("/{estudianteId}/promedios")
+    @PresupuestoSql(sentencias = 2)
+    public String promediosPorMateria(@PathVariable Long estudianteId, Model model, WebRequest request,
+            HttpServletResponse response) {
+        if (sinCambios(request, response, versionesEstudiante.etag(estudianteId),
+                versionesEstudiante.ultimaModificacion(estudianteId))) {
+            return null;
+        }
+        model.addAttribute("promedios", servicioNota.calcularPromediosPorMateria(estudianteId));
+        model.addAttribute("estudianteId", estudianteId);
+        return "nota-promedios";
+    }
+
+    @GetMapping("/promedios")
+    @PresupuestoSql(sentencias = 2)
+    public String promediosCurso(Model model, WebRequest request, HttpServletResponse response) {
+        if (sinCambios(request, response, versionesEstudiante.etagCurso(),
+                versionesEstudiante.ultimaModificacionCurso())) {
+            return null;
+        }
+        model.addAttribute("promedios", servicioNota.calcularPromediosPorMateriaCurso());
+        model.addAttribute("estudianteId", null);
+        return "nota-promedios";
+    }
+
+    // Estadísticas del curso calculadas en memoria sobre el almacén columnar
+    @GetMapping("/estadisticas")
+    @PresupuestoSql(sentencias = 1)
+    public String estadisticas(@RequestParam(required = false) String materia,
+            @RequestParam(defaultValue = "10") int intervalos,
+            @RequestParam(defaultValue = "10") int top,
+            Model model) {
+        int intervalosAcotados = Math.min(Math.max(intervalos, 1), MAXIMO_INTERVALOS);
+        int topAcotado = Math.min(Math.max(top, 1), MAXIMO_TOP);
+        model.addAttribute("estadisticas", almacenColumnar.estadisticas(materia, intervalosAcotados, topAcotado));
+        model.addAttribute("cargado", almacenColumnar.isCargado());
+        model.addAttribute("habilitada", almacenColumnar.isHabilitada());
+        model.addAttribute("materia", materia != null ? materia.trim() : "");
+        model.addAttribute("intervalos", intervalosAcotados);
+        model.addAttribute("top", topAcotado);
+        return "nota-estadisticas";
+    }
+
+    @GetMapping("/importar")
+    public String formularioImportar(Model model) {
+        model.addAttribute("resultado", null);
+        return "importar-notas";
+    }
+
+    // La autorización se evalúa una vez por archivo, no por fila
+    @PostMapping("/importar")
+    public String importar(@RequestParam("archivo") MultipartFile archivo,
+            @RequestParam(defaultValue = "CSV") FormatoArchivo formato,
+            Model model) throws IOException {
+        try (InputStream entrada = archivo.getInputStream()) {
+            ResultadoImportacion resultado = servicioImportacion.importar(entrada, formato);
+            model.addAttribute("resultado", resultado);
+        } finally {
+            // Los lotes ya confirmados quedan en la base aunque la importación falle a mitad
+            cacheLecturas.invalidarTodasLasNotas();
+            versionesEstudiante.todosModificados();
+            almacenColumnar.notasImportadas();
+        }
+        model.addAttribute("nombreArchivo", archivo.getOriginalFilename());
+        return "importar-notas";
+    }
+
+    @GetMapping("/{estudianteId}/exportar")
+    @PresupuestoSql(sentencias = 2)
+    public void exportar(@PathVariable Long estudianteId,
+            @RequestParam(required = false) String materia,
+            @RequestParam(defaultValue = "CSV") FormatoArchivo formato,
+            HttpServletResponse response) throws IOException {
+        prepararDescarga(response, formato, "notas-" + estudianteId);
+        servicioExportacion.exportarNotas(estudianteId, materia, formato, response.getOutputStream());
+    }
+
+    @GetMapping("/exportar")
+    @PresupuestoSql(sentencias = 2)
+    public void exportarCurso(@RequestParam(required = false) String materia,
+            @RequestParam(defaultValue = "CSV") FormatoArchivo formato,
+            HttpServletResponse response) throws IOException {
+        prepararDescarga(response, formato, "notas");
+        servicioExportacion.exportarNotas(null, materia, formato, response.getOutputStream());
+    }
+
+    // Notas finales, promedio general y posición de todo el curso
+    @GetMapping("/reporte")
+    public void reporteCurso(@RequestParam(defaultValue = "CSV") FormatoArchivo formato,
+            HttpServletResponse response) throws IOException {
+        ReporteCurso reporte = servicioReporteCurso.generar();
+        prepararDescarga(response, formato, "reporte-curso");
+        servicioExportacion.exportarReporteCurso(reporte, formato, response.getOutputStream());
+    }
+
+    /**
+     * Responde 304 si el navegador ya tiene esta versión de la página. Se
+     * llama al inicio del método, cuando los aspectos ya autorizaron la
+     * petición y antes de consultar repositorios o renderizar. Con el id de
+     * sesión en la URL la página lleva enlaces reescritos y no se valida.
+     */
+    private static boolean sinCambios(WebRequest request, HttpServletResponse response, String etag,
+            long ultimaModificacion) {
+        if (!(request instanceof ServletWebRequest servletRequest)
+                || !servletRequest.getRequest().isRequestedSessionIdFromCookie()) {
+            return false;
+        }
+        // El contenido depende de los permisos del usuario: solo caché privada y siempre revalidada
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        return request.checkNotModified(etag, ultimaModificacion);
+    }
+
+    private static void prepararDescarga(HttpServletResponse response, FormatoArchivo formato, String nombre) {
+        response.setContentType(formato.getTipoContenido());
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"" + nombre + "." + formato.getExtension() + "\"");
+    }
+
+}
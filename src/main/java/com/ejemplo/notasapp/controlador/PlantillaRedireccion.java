@@ -0,0 +1,80 @@
+package com.ejemplo.notasapp.controlador;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * URL de redirección con parámetros fijos, precompilada una sola vez.
+ *
+ * Los fragmentos "?nombre=" y "&nombre=" se arman al crear la plantilla. Los
+ * valores de los parámetros estables (tipo, usuario, operación, código) se
+ * codifican una vez y se guardan en una caché acotada; los demás se codifican
+ * en cada llamada, evitando URLEncoder cuando el texto no lo necesita.
+ */
+final class PlantillaRedireccion {
+
+    static final PlantillaRedireccion VIOLACION_SEGURIDAD = new PlantillaRedireccion(
+            "/error/violacion-seguridad",
+            new String[] { "tipoViolacion", "usuario", "operacion", "detalles", "codigoError" },
+            new boolean[] { true, true, true, false, true });
+
+    static final PlantillaRedireccion ESTUDIANTE_NO_ENCONTRADO = new PlantillaRedireccion(
+            "/error/estudiante-no-encontrado",
+            new String[] { "mensaje", "codigo" },
+            new boolean[] { true, true });
+
+    private static final int MAXIMO_CACHE = 4096;
+
+    private final String ruta;
+    private final String[] prefijos;
+    private final boolean[] cacheables;
+    private final Map<String, String> codificados = new ConcurrentHashMap<>();
+
+    private PlantillaRedireccion(String ruta, String[] parametros, boolean[] cacheables) {
+        this.ruta = ruta;
+        this.prefijos = new String[parametros.length];
+        for (int i = 0; i < parametros.length; i++) {
+            prefijos[i] = (i == 0 ? "?" : "&") + parametros[i] + "=";
+        }
+        this.cacheables = cacheables;
+    }
+
+    /**
+     * Construye la URL con los valores en el mismo orden de los parámetros.
+     */
+    String construir(String... valores) {
+        StringBuilder sb = new StringBuilder(ruta.length() + 64 * valores.length);
+        sb.append(ruta);
+        for (int i = 0; i < prefijos.length; i++) {
+            String valor = valores[i] != null ? valores[i] : "";
+            sb.append(prefijos[i]).append(cacheables[i] ? codificarCacheado(valor) : codificar(valor));
+        }
+        return sb.toString();
+    }
+
+    private String codificarCacheado(String valor) {
+        String codificado = codificados.get(valor);
+        if (codificado == null) {
+            codificado = codificar(valor);
+            if (codificados.size() < MAXIMO_CACHE) {
+                codificados.put(valor, codificado);
+            }
+        }
+        return codificado;
+    }
+
+    // URLEncoder deja intactos A-Z, a-z, 0-9, '-', '_', '.' y '*'
+    static String codificar(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            boolean seguro = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '*';
+            if (!seguro) {
+                return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+            }
+        }
+        return valor;
+    }
+}
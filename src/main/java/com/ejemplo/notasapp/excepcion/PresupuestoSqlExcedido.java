@@ -0,0 +1,32 @@
+package com.ejemplo.notasapp.excepcion;
+
+/**
+ * Una petición ejecutó más sentencias SQL que las declaradas con
+ * PresupuestoSql. Solo se lanza con notasapp.sql.presupuesto.estricto=true,
+ * pensado para las pruebas de carga y de integración.
+ */
+public class PresupuestoSqlExcedido extends RuntimeException {
+
+    private final String endpoint;
+    private final int presupuesto;
+    private final int sentencias;
+
+    public PresupuestoSqlExcedido(String endpoint, int presupuesto, int sentencias) {
+        super("Presupuesto SQL excedido en " + endpoint + ": " + sentencias + " sentencias de " + presupuesto);
+        this.endpoint = endpoint;
+        this.presupuesto = presupuesto;
+        this.sentencias = sentencias;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getPresupuesto() {
+        return presupuesto;
+    }
+
+    public int getSentencias() {
+        return sentencias;
+    }
+}
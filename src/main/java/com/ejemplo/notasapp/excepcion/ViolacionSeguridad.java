@@ -1,5 +1,13 @@
 package com.ejemplo.notasapp.excepcion;
 
+/**
+ * Denegación de acceso lanzada por los aspectos de autorización.
+ *
+ * Una denegación es un resultado esperado, no un error: sin causa no se
+ * captura la traza de pila (que recorre Tomcat, Spring MVC y los proxies AOP)
+ * ni se formatea el mensaje hasta que alguien lo pide. Con causa técnica se
+ * conserva la traza completa.
+ */
 public class ViolacionSeguridad extends RuntimeException {
 
     private final String tipoViolacion;
@@ -10,8 +18,7 @@ public class ViolacionSeguridad extends RuntimeException {
 
     public ViolacionSeguridad(String tipoViolacion, String usuario, String operacion, String detalles,
             String codigoError, Exception causa) {
-        super(String.format("Violación de seguridad: %s - Usuario: %s - Operación: %s", tipoViolacion, usuario,
-                operacion), causa);
+        super(null, causa, false, causa != null);
         this.tipoViolacion = tipoViolacion;
         this.usuario = usuario;
         this.operacion = operacion;
@@ -23,6 +30,12 @@ public class ViolacionSeguridad extends RuntimeException {
         this(tipoViolacion, usuario, operacion, detalles, "403", null);
     }
 
+    @Override
+    public String getMessage() {
+        return String.format("Violación de seguridad: %s - Usuario: %s - Operación: %s", tipoViolacion, usuario,
+                operacion);
+    }
+
     public String getTipoViolacion() {
         return tipoViolacion;
     }
@@ -0,0 +1,108 @@
+package com.ejemplo.notasapp.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en nanosegundos, sin candados y sin asignaciones al
+ * registrar.
+ *
+ * Usa cubetas log-lineales al estilo HdrHistogram: cada potencia de dos se
+ * divide en 32 sub-cubetas, lo que da un error relativo máximo de ~3%. Los
+ * valores desde 2^36 ns (~68 s) se acumulan en la última cubeta; el máximo
+ * exacto se guarda aparte.
+ */
+public class HistogramaLatencia {
+
+    private static final int BITS_SUBCUBETA = 5;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int EXPONENTE_MAXIMO = 36;
+    private static final int TOTAL_CUBETAS = (EXPONENTE_MAXIMO - BITS_SUBCUBETA + 1) * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(TOTAL_CUBETAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumaNanos = new LongAdder();
+    private final AtomicLong maximoNanos = new AtomicLong();
+
+    public void registrar(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        cubetas.incrementAndGet(indiceCubeta(nanos));
+        total.increment();
+        sumaNanos.add(nanos);
+
+        long maximo = maximoNanos.get();
+        while (nanos > maximo && !maximoNanos.compareAndSet(maximo, nanos)) {
+            maximo = maximoNanos.get();
+        }
+    }
+
+    static int indiceCubeta(long nanos) {
+        if (nanos < SUBCUBETAS) {
+            return (int) nanos;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(nanos);
+        // Las cubetas llegan hasta el exponente 35: desde 2^36 todo va a la última
+        if (exponente >= EXPONENTE_MAXIMO) {
+            return TOTAL_CUBETAS - 1;
+        }
+        int mantisa = (int) (nanos >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+        return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + mantisa;
+    }
+
+    // Límite superior (inclusive) de los valores que caen en la cubeta
+    static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int exponente = indice / SUBCUBETAS + BITS_SUBCUBETA - 1;
+        long mantisa = indice % SUBCUBETAS;
+        long inferior = (1L << exponente) | (mantisa << (exponente - BITS_SUBCUBETA));
+        return inferior + (1L << (exponente - BITS_SUBCUBETA)) - 1;
+    }
+
+    /**
+     * Calcula los percentiles pedidos (entre 0 y 1) sobre una copia de las
+     * cubetas. Solo se usa al exportar, nunca en la ruta de registro.
+     */
+    public long[] percentiles(double... cuantiles) {
+        long[] copia = new long[TOTAL_CUBETAS];
+        long cuenta = 0;
+        for (int i = 0; i < TOTAL_CUBETAS; i++) {
+            copia[i] = cubetas.get(i);
+            cuenta += copia[i];
+        }
+
+        long[] resultado = new long[cuantiles.length];
+        if (cuenta == 0) {
+            return resultado;
+        }
+        long maximo = maximoNanos.get();
+        for (int q = 0; q < cuantiles.length; q++) {
+            long objetivo = Math.max(1, (long) Math.ceil(cuantiles[q] * cuenta));
+            long acumulado = 0;
+            for (int i = 0; i < TOTAL_CUBETAS; i++) {
+                acumulado += copia[i];
+                if (acumulado >= objetivo) {
+                    resultado[q] = Math.min(limiteSuperior(i), maximo);
+                    break;
+                }
+            }
+        }
+        return resultado;
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getSumaNanos() {
+        return sumaNanos.sum();
+    }
+
+    public long getMaximoNanos() {
+        return maximoNanos.get();
+    }
+}
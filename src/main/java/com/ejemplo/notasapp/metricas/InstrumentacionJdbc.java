@@ -0,0 +1,168 @@
+package com.ejemplo.notasapp.metricas;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Envuelve el DataSource para informar a MonitorSql de cada sentencia
+ * ejecutada (texto y duración) y de las filas leídas de cada ResultSet. Cubre
+ * por igual a Hibernate, los repositorios y JdbcTemplate.
+ *
+ * Los proxies delegan todo lo demás en los objetos de Hikari, incluidos
+ * unwrap e isWrapperFor. Se desactiva con notasapp.sql.monitor.habilitado=false.
+ */
+@Component
+@ConditionalOnProperty(name = "notasapp.sql.monitor.habilitado", havingValue = "true", matchIfMissing = true)
+public class InstrumentacionJdbc implements BeanPostProcessor {
+
+    private final ObjectProvider<MonitorSql> proveedorMonitor;
+    private volatile MonitorSql monitor;
+
+    public InstrumentacionJdbc(ObjectProvider<MonitorSql> proveedorMonitor) {
+        this.proveedorMonitor = proveedorMonitor;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return proxy(DataSource.class, dataSource, (p, metodo, args) -> {
+                Object resultado = invocar(dataSource, metodo, args);
+                return "getConnection".equals(metodo.getName())
+                        ? proxy(Connection.class, (Connection) resultado, new ConexionMedida((Connection) resultado))
+                        : resultado;
+            });
+        }
+        return bean;
+    }
+
+    // MonitorSql se resuelve en la primera sentencia para no adelantar su creación
+    private MonitorSql monitor() {
+        MonitorSql m = monitor;
+        if (m == null) {
+            m = proveedorMonitor.getObject();
+            monitor = m;
+        }
+        return m;
+    }
+
+    private final class ConexionMedida implements InvocationHandler {
+        private final Connection conexion;
+
+        private ConexionMedida(Connection conexion) {
+            this.conexion = conexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            if ("equals".equals(metodo.getName()) && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            Object resultado = invocar(conexion, metodo, args);
+            switch (metodo.getName()) {
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, (PreparedStatement) resultado,
+                            new SentenciaMedida((Statement) resultado, (String) args[0]));
+                case "prepareCall":
+                    return proxy(CallableStatement.class, (CallableStatement) resultado,
+                            new SentenciaMedida((Statement) resultado, (String) args[0]));
+                case "createStatement":
+                    return proxy(Statement.class, (Statement) resultado,
+                            new SentenciaMedida((Statement) resultado, null));
+                default:
+                    return resultado;
+            }
+        }
+    }
+
+    private final class SentenciaMedida implements InvocationHandler {
+        private final Statement sentencia;
+        private final String sql;
+
+        private SentenciaMedida(Statement sentencia, String sql) {
+            this.sentencia = sentencia;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nombre = metodo.getName();
+            if (nombre.startsWith("execute")) {
+                MonitorSql m = monitor();
+                m.antesDeSentencia();
+                String texto = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+                long inicio = System.nanoTime();
+                try {
+                    Object resultado = invocar(sentencia, metodo, args);
+                    return resultado instanceof ResultSet rs ? filasMedidas(rs) : resultado;
+                } finally {
+                    m.sentenciaEjecutada(texto, System.nanoTime() - inicio);
+                }
+            }
+            if ("equals".equals(nombre) && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            Object resultado = invocar(sentencia, metodo, args);
+            return "getResultSet".equals(nombre) && resultado != null ? filasMedidas((ResultSet) resultado) : resultado;
+        }
+    }
+
+    private ResultSet filasMedidas(ResultSet resultSet) {
+        return proxy(ResultSet.class, resultSet, new InvocationHandler() {
+            private long filas;
+            private boolean informado;
+
+            @Override
+            public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+                String nombre = metodo.getName();
+                if ("next".equals(nombre)) {
+                    boolean hay = resultSet.next();
+                    if (hay) {
+                        filas++;
+                    } else {
+                        informar();
+                    }
+                    return hay;
+                }
+                if ("close".equals(nombre)) {
+                    informar();
+                } else if ("equals".equals(nombre) && args != null && args.length == 1) {
+                    return proxy == args[0];
+                }
+                return invocar(resultSet, metodo, args);
+            }
+
+            private void informar() {
+                if (!informado) {
+                    informado = true;
+                    monitor().filasLeidas(filas);
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, T destino, InvocationHandler manejador) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo }, manejador);
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.ejemplo.notasapp.metricas;
+
+import com.ejemplo.notasapp.excepcion.PresupuestoSqlExcedido;
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import com.ejemplo.notasapp.registro.Registrador;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Sentencias JDBC, filas leídas y tiempo en la base de datos por petición
+ * HTTP y por método de repositorio.
+ *
+ * InstrumentacionJdbc informa cada sentencia al estado del hilo actual:
+ * FiltroMonitorSql abre y cierra el contexto de la petición y AspectoSql
+ * marca el método de repositorio en curso y el PresupuestoSql del
+ * controlador. Al cerrar una petición, las formas de sentencia (el texto sin
+ * literales) repetidas notasapp.sql.umbral-repeticiones veces o más se
+ * registran como sospechas de N+1. Un lote de JDBC cuenta como una sentencia.
+ */
+@Component
+public class MonitorSql {
+
+    private static final int MAXIMO_FORMAS = 2000;
+    private static final int MAXIMO_SOSPECHAS = 500;
+
+    private static final Pattern LITERAL_TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern LITERAL_NUMERO = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTA_PARAMETROS = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private final ThreadLocal<EstadoHilo> estados = ThreadLocal.withInitial(EstadoHilo::new);
+    private final Map<String, String> formas = new ConcurrentHashMap<>();
+    private final Map<String, EstadisticasSql> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, EstadisticasSql> repositorios = new ConcurrentHashMap<>();
+    private final Map<String, Sospecha> sospechas = new ConcurrentHashMap<>();
+    private final LongAdder excedidos = new LongAdder();
+
+    @Autowired
+    private RegistroEventos registroEventos;
+
+    @Value("${notasapp.sql.umbral-repeticiones:3}")
+    private int umbralRepeticiones;
+
+    @Value("${notasapp.sql.presupuesto.estricto:false}")
+    private boolean estricto;
+
+    private Registrador registro;
+
+    @PostConstruct
+    public void iniciar() {
+        registro = registroEventos.registrador("MonitorSql");
+    }
+
+    // --- Contexto de petición (FiltroMonitorSql) ---
+
+    public void iniciarPeticion() {
+        estados.get().peticion = new ContextoPeticion();
+    }
+
+    public void terminarPeticion(String endpoint) {
+        EstadoHilo estado = estados.get();
+        ContextoPeticion peticion = estado.peticion;
+        estado.peticion = null;
+        if (peticion == null) {
+            return;
+        }
+        EstadisticasSql estadisticas = endpoints.computeIfAbsent(endpoint, k -> new EstadisticasSql());
+        estadisticas.registrar(peticion.sentencias, peticion.filas, peticion.nanos);
+        if (peticion.presupuesto > 0) {
+            estadisticas.presupuesto = peticion.presupuesto;
+            if (peticion.sentencias > peticion.presupuesto || peticion.rechazada) {
+                estadisticas.excedidos.increment();
+                excedidos.increment();
+                registro.evento(NivelEvento.WARN, "presupuesto_sql_excedido",
+                        "endpoint", endpoint,
+                        "presupuesto", peticion.presupuesto,
+                        "sentencias", peticion.sentencias);
+            }
+        }
+        for (Map.Entry<String, int[]> forma : peticion.formas.entrySet()) {
+            int repeticiones = forma.getValue()[0];
+            if (repeticiones >= umbralRepeticiones) {
+                registrarSospecha(endpoint, forma.getKey(), repeticiones);
+            }
+        }
+    }
+
+    /** Presupuesto de la petición en curso; lo fija AspectoSql desde PresupuestoSql. */
+    public void establecerPresupuesto(int sentencias, String origen) {
+        ContextoPeticion peticion = estados.get().peticion;
+        if (peticion != null) {
+            peticion.presupuesto = sentencias;
+            peticion.origenPresupuesto = origen;
+        }
+    }
+
+    // --- Método de repositorio en curso (AspectoSql) ---
+
+    /**
+     * Marca el inicio de un método de repositorio. Devuelve false si ya había
+     * otro en curso en el hilo: las sentencias se atribuyen al exterior.
+     */
+    public boolean entrarRepositorio(String metodo) {
+        EstadoHilo estado = estados.get();
+        if (estado.repositorio != null) {
+            return false;
+        }
+        estado.repositorio = metodo;
+        estado.sentenciasRepositorio = 0;
+        estado.filasRepositorio = 0;
+        estado.nanosRepositorio = 0;
+        return true;
+    }
+
+    public void salirRepositorio() {
+        EstadoHilo estado = estados.get();
+        String metodo = estado.repositorio;
+        estado.repositorio = null;
+        if (metodo != null) {
+            repositorios.computeIfAbsent(metodo, k -> new EstadisticasSql())
+                    .registrar(estado.sentenciasRepositorio, estado.filasRepositorio, estado.nanosRepositorio);
+        }
+    }
+
+    // --- Eventos de InstrumentacionJdbc ---
+
+    /**
+     * Se llama antes de ejecutar cada sentencia. En modo estricto lanza
+     * PresupuestoSqlExcedido si la petición ya agotó su presupuesto.
+     */
+    void antesDeSentencia() {
+        ContextoPeticion peticion = estados.get().peticion;
+        if (estricto && peticion != null && peticion.presupuesto > 0
+                && peticion.sentencias >= peticion.presupuesto) {
+            peticion.rechazada = true;
+            throw new PresupuestoSqlExcedido(peticion.origenPresupuesto, peticion.presupuesto,
+                    peticion.sentencias + 1);
+        }
+    }
+
+    void sentenciaEjecutada(String sql, long nanos) {
+        EstadoHilo estado = estados.get();
+        if (estado.repositorio != null) {
+            estado.sentenciasRepositorio++;
+            estado.nanosRepositorio += nanos;
+        }
+        ContextoPeticion peticion = estado.peticion;
+        if (peticion != null) {
+            peticion.sentencias++;
+            peticion.nanos += nanos;
+            peticion.formas.computeIfAbsent(forma(sql), k -> new int[1])[0]++;
+        }
+    }
+
+    void filasLeidas(long filas) {
+        EstadoHilo estado = estados.get();
+        if (estado.repositorio != null) {
+            estado.filasRepositorio += filas;
+        }
+        if (estado.peticion != null) {
+            estado.peticion.filas += filas;
+        }
+    }
+
+    /**
+     * Forma de la sentencia: minúsculas, sin literales y con las listas de
+     * parámetros reducidas a (?...). Las sentencias preparadas se repiten con
+     * el mismo texto, así que la forma se calcula una vez por texto.
+     */
+    String forma(String sql) {
+        if (sql == null) {
+            return "(lote)";
+        }
+        String forma = formas.get(sql);
+        if (forma == null) {
+            forma = ESPACIOS.matcher(sql.trim()).replaceAll(" ");
+            forma = LITERAL_TEXTO.matcher(forma).replaceAll("?");
+            forma = LITERAL_NUMERO.matcher(forma).replaceAll("?");
+            forma = LISTA_PARAMETROS.matcher(forma).replaceAll("(?...)");
+            forma = forma.toLowerCase(Locale.ROOT);
+            if (formas.size() < MAXIMO_FORMAS) {
+                formas.put(sql, forma);
+            }
+        }
+        return forma;
+    }
+
+    private void registrarSospecha(String endpoint, String forma, int repeticiones) {
+        String clave = endpoint + '\n' + forma;
+        Sospecha sospecha = sospechas.get(clave);
+        if (sospecha == null) {
+            if (sospechas.size() >= MAXIMO_SOSPECHAS) {
+                return;
+            }
+            sospecha = sospechas.computeIfAbsent(clave, k -> new Sospecha(endpoint, forma));
+            registro.evento(NivelEvento.WARN, "sospecha_n_mas_uno",
+                    "endpoint", endpoint,
+                    "repeticiones", repeticiones,
+                    "sentencia", forma);
+        }
+        sospecha.peticiones.increment();
+        sospecha.maximoRepeticiones.accumulateAndGet(repeticiones, Math::max);
+    }
+
+    public long getExcedidos() {
+        return excedidos.sum();
+    }
+
+    public int getSospechas() {
+        return sospechas.size();
+    }
+
+    public boolean isEstricto() {
+        return estricto;
+    }
+
+    public void reiniciar() {
+        endpoints.clear();
+        repositorios.clear();
+        sospechas.clear();
+        excedidos.reset();
+    }
+
+    /**
+     * Informe en texto plano para /debug/sql.
+     */
+    public String exportarTexto() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== SQL POR PETICIÓN ===\n");
+        sb.append("Modo estricto: ").append(estricto).append("\n");
+        sb.append("Presupuestos excedidos: ").append(excedidos.sum()).append("\n");
+        sb.append("Sospechas N+1: ").append(sospechas.size()).append("\n");
+        sb.append("Umbral de repeticiones: ").append(umbralRepeticiones).append("\n\n");
+        sb.append(String.format(Locale.ROOT, "%-55s %9s %8s %8s %10s %10s %11s %9s%n", "Endpoint", "Peticiones",
+                "Sent/pet", "Máx", "Filas/pet", "ms BD/pet", "Presupuesto", "Excedidos"));
+        endpoints.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> e.getValue().formatear(sb, e.getKey(), true));
+
+        sb.append("\n=== SQL POR MÉTODO DE REPOSITORIO ===\n");
+        sb.append(String.format(Locale.ROOT, "%-55s %9s %8s %8s %10s %10s%n", "Método", "Llamadas", "Sent/ll",
+                "Máx", "Filas/ll", "ms BD/ll"));
+        repositorios.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> e.getValue().formatear(sb, e.getKey(), false));
+
+        if (!sospechas.isEmpty()) {
+            sb.append("\n=== SOSPECHAS N+1 ===\n");
+            sospechas.values().stream()
+                    .sorted(Comparator.comparing((Sospecha s) -> s.endpoint).thenComparing(s -> s.forma))
+                    .forEach(s -> sb.append(s.endpoint)
+                            .append(": ").append(s.peticiones.sum()).append(" peticiones, hasta ")
+                            .append(s.maximoRepeticiones.get()).append(" repeticiones\n    ")
+                            .append(s.forma).append("\n"));
+        }
+        return sb.toString();
+    }
+
+    private static final class EstadoHilo {
+        private ContextoPeticion peticion;
+        private String repositorio;
+        private int sentenciasRepositorio;
+        private long filasRepositorio;
+        private long nanosRepositorio;
+    }
+
+    private static final class ContextoPeticion {
+        private final Map<String, int[]> formas = new HashMap<>();
+        private int sentencias;
+        private long filas;
+        private long nanos;
+        private int presupuesto;
+        private String origenPresupuesto;
+        // En modo estricto la sentencia que excede no llega a ejecutarse
+        private boolean rechazada;
+    }
+
+    private static final class EstadisticasSql {
+        private final LongAdder llamadas = new LongAdder();
+        private final LongAdder sentencias = new LongAdder();
+        private final LongAdder filas = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final AtomicLong maximoSentencias = new AtomicLong();
+        private final LongAdder excedidos = new LongAdder();
+        private volatile int presupuesto;
+
+        private void registrar(int sentenciasLlamada, long filasLlamada, long nanosLlamada) {
+            llamadas.increment();
+            sentencias.add(sentenciasLlamada);
+            filas.add(filasLlamada);
+            nanos.add(nanosLlamada);
+            if (sentenciasLlamada > maximoSentencias.get()) {
+                maximoSentencias.accumulateAndGet(sentenciasLlamada, Math::max);
+            }
+        }
+
+        private void formatear(StringBuilder sb, String nombre, boolean conPresupuesto) {
+            long total = Math.max(1, llamadas.sum());
+            sb.append(String.format(Locale.ROOT, "%-55s %9d %8.2f %8d %10.1f %10.3f", nombre, llamadas.sum(),
+                    (double) sentencias.sum() / total, maximoSentencias.get(), (double) filas.sum() / total,
+                    nanos.sum() / 1e6 / total));
+            if (conPresupuesto) {
+                sb.append(String.format(Locale.ROOT, " %11s %9d", presupuesto > 0 ? presupuesto : "-",
+                        excedidos.sum()));
+            }
+            sb.append("\n");
+        }
+    }
+
+    private static final class Sospecha {
+        private final String endpoint;
+        private final String forma;
+        private final LongAdder peticiones = new LongAdder();
+        private final AtomicLong maximoRepeticiones = new AtomicLong();
+
+        private Sospecha(String endpoint, String forma) {
+            this.endpoint = endpoint;
+            this.forma = forma;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.ejemplo.notasapp.metricas;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Máximo de sentencias JDBC que puede ejecutar una petición atendida por el
+ * método del controlador anotado, incluida la vista. MonitorSql cuenta los
+ * excesos; con notasapp.sql.presupuesto.estricto=true la sentencia que
+ * supera el presupuesto lanza PresupuestoSqlExcedido.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PresupuestoSql {
+
+    int sentencias();
+}
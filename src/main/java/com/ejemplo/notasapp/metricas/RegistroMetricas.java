@@ -0,0 +1,113 @@
+package com.ejemplo.notasapp.metricas;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro de histogramas de latencia por método y resultado.
+ *
+ * Los histogramas de un método se crean la primera vez que se invoca; las
+ * llamadas siguientes solo hacen una lectura del mapa y un registro en el
+ * histograma, sin asignar memoria.
+ */
+@Component
+public class RegistroMetricas {
+
+    public enum Resultado {
+        OK("ok"),
+        VIOLACION_SEGURIDAD("ViolacionSeguridad"),
+        ESTUDIANTE_NO_ENCONTRADO("EstudianteNoEncontrado"),
+        OTRO("otro");
+
+        private final String etiqueta;
+
+        Resultado(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+
+        public String getEtiqueta() {
+            return etiqueta;
+        }
+    }
+
+    private static final double[] CUANTILES = { 0.5, 0.9, 0.99 };
+
+    private final Map<Method, MetricasMetodo> metricas = new ConcurrentHashMap<>();
+    private final long inicioNanos = System.nanoTime();
+
+    public void registrar(Method metodo, Resultado resultado, long nanos) {
+        MetricasMetodo m = metricas.get(metodo);
+        if (m == null) {
+            m = metricas.computeIfAbsent(metodo, MetricasMetodo::new);
+        }
+        m.histogramas[resultado.ordinal()].registrar(nanos);
+    }
+
+    /**
+     * Exporta las métricas en formato de texto de Prometheus (0.0.4).
+     */
+    public String exportarPrometheus() {
+        double segundosActivo = (System.nanoTime() - inicioNanos) / 1e9;
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("# HELP notasapp_metodo_latencia_segundos Latencia por método y resultado\n");
+        sb.append("# TYPE notasapp_metodo_latencia_segundos summary\n");
+        StringBuilder maximos = new StringBuilder();
+        maximos.append("# HELP notasapp_metodo_latencia_maxima_segundos Latencia máxima observada\n");
+        maximos.append("# TYPE notasapp_metodo_latencia_maxima_segundos gauge\n");
+        StringBuilder rendimiento = new StringBuilder();
+        rendimiento.append("# HELP notasapp_metodo_llamadas_por_segundo Llamadas por segundo desde el arranque\n");
+        rendimiento.append("# TYPE notasapp_metodo_llamadas_por_segundo gauge\n");
+
+        metricas.values().stream()
+                .sorted(Comparator.comparing(m -> m.nombre))
+                .forEach(m -> {
+                    for (Resultado resultado : Resultado.values()) {
+                        HistogramaLatencia h = m.histogramas[resultado.ordinal()];
+                        long total = h.getTotal();
+                        if (total == 0) {
+                            continue;
+                        }
+                        String etiquetas = "metodo=\"" + m.nombre + "\",resultado=\"" + resultado.getEtiqueta() + "\"";
+                        long[] percentiles = h.percentiles(CUANTILES);
+                        for (int i = 0; i < CUANTILES.length; i++) {
+                            sb.append("notasapp_metodo_latencia_segundos{").append(etiquetas)
+                                    .append(",quantile=\"").append(CUANTILES[i]).append("\"} ")
+                                    .append(segundos(percentiles[i])).append('\n');
+                        }
+                        sb.append("notasapp_metodo_latencia_segundos_sum{").append(etiquetas).append("} ")
+                                .append(segundos(h.getSumaNanos())).append('\n');
+                        sb.append("notasapp_metodo_latencia_segundos_count{").append(etiquetas).append("} ")
+                                .append(total).append('\n');
+                        maximos.append("notasapp_metodo_latencia_maxima_segundos{").append(etiquetas).append("} ")
+                                .append(segundos(h.getMaximoNanos())).append('\n');
+                        rendimiento.append("notasapp_metodo_llamadas_por_segundo{").append(etiquetas).append("} ")
+                                .append(String.format(Locale.ROOT, "%.3f", total / segundosActivo)).append('\n');
+                    }
+                });
+
+        return sb.append(maximos).append(rendimiento).toString();
+    }
+
+    private static String segundos(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static final class MetricasMetodo {
+        private final String nombre;
+        private final HistogramaLatencia[] histogramas;
+
+        private MetricasMetodo(Method metodo) {
+            this.nombre = metodo.getDeclaringClass().getSimpleName() + "." + metodo.getName();
+            this.histogramas = new HistogramaLatencia[Resultado.values().length];
+            for (int i = 0; i < histogramas.length; i++) {
+                histogramas[i] = new HistogramaLatencia();
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.ejemplo.notasapp.modelo;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Guarda un Rol como su código de un byte (columna TINYINT).
+ */
+@Converter
+public class ConvertidorRol implements AttributeConverter<Rol, Byte> {
+
+    @Override
+    public Byte convertToDatabaseColumn(Rol rol) {
+        return rol != null ? rol.getCodigo() : null;
+    }
+
+    @Override
+    public Rol convertToEntityAttribute(Byte codigo) {
+        return codigo != null ? Rol.desdeCodigo(codigo) : null;
+    }
+}
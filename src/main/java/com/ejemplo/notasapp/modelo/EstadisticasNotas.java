@@ -0,0 +1,154 @@
+package com.ejemplo.notasapp.modelo;
+
+import java.util.List;
+
+/**
+ * Estadísticas del curso calculadas sobre el almacén columnar de notas:
+ * agregados por materia, distribución de valores, ranking de estudiantes y
+ * memoria usada por el almacén.
+ */
+public class EstadisticasNotas {
+
+    private final List<Materia> materias;
+    private final double[] limitesHistograma;
+    private final long[] conteosHistograma;
+    private final List<Posicion> ranking;
+    private final long filas;
+    private final long capacidad;
+    private final long bytesColumnas;
+    private final long duracionMicros;
+
+    public EstadisticasNotas(List<Materia> materias, double[] limitesHistograma, long[] conteosHistograma,
+            List<Posicion> ranking, long filas, long capacidad, long bytesColumnas, long duracionMicros) {
+        this.materias = materias;
+        this.limitesHistograma = limitesHistograma;
+        this.conteosHistograma = conteosHistograma;
+        this.ranking = ranking;
+        this.filas = filas;
+        this.capacidad = capacidad;
+        this.bytesColumnas = bytesColumnas;
+        this.duracionMicros = duracionMicros;
+    }
+
+    public List<Materia> getMaterias() {
+        return materias;
+    }
+
+    // limites tiene un elemento más que conteos: el intervalo i es [limites[i], limites[i + 1])
+    public double[] getLimitesHistograma() {
+        return limitesHistograma;
+    }
+
+    public long[] getConteosHistograma() {
+        return conteosHistograma;
+    }
+
+    public List<Posicion> getRanking() {
+        return ranking;
+    }
+
+    public long getFilas() {
+        return filas;
+    }
+
+    public long getCapacidad() {
+        return capacidad;
+    }
+
+    public long getBytesColumnas() {
+        return bytesColumnas;
+    }
+
+    // Memoria por millón de notas con la reserva actual (incluye la capacidad libre)
+    public long getBytesPorMillon() {
+        return filas > 0 ? (long) ((double) bytesColumnas / filas * 1_000_000) : 0;
+    }
+
+    // Memoria por millón de notas con las columnas llenas
+    public long getBytesPorMillonSinHolgura() {
+        return capacidad > 0 ? bytesColumnas * 1_000_000L / capacidad : 0;
+    }
+
+    public long getDuracionMicros() {
+        return duracionMicros;
+    }
+
+    /**
+     * Agregados de una materia. Los promedios son NaN si no hay valores.
+     */
+    public static class Materia {
+        private final String materia;
+        private final long totalNotas;
+        private final double promedio;
+        private final double promedioPonderado;
+        private final double minimo;
+        private final double maximo;
+        private final double desviacion;
+
+        public Materia(String materia, long totalNotas, double promedio, double promedioPonderado, double minimo,
+                double maximo, double desviacion) {
+            this.materia = materia;
+            this.totalNotas = totalNotas;
+            this.promedio = promedio;
+            this.promedioPonderado = promedioPonderado;
+            this.minimo = minimo;
+            this.maximo = maximo;
+            this.desviacion = desviacion;
+        }
+
+        public String getMateria() {
+            return materia;
+        }
+
+        public long getTotalNotas() {
+            return totalNotas;
+        }
+
+        public double getPromedio() {
+            return promedio;
+        }
+
+        public double getPromedioPonderado() {
+            return promedioPonderado;
+        }
+
+        public double getMinimo() {
+            return minimo;
+        }
+
+        public double getMaximo() {
+            return maximo;
+        }
+
+        public double getDesviacion() {
+            return desviacion;
+        }
+    }
+
+    /**
+     * Posición de un estudiante en el ranking por promedio ponderado.
+     */
+    public static class Posicion {
+        private final long estudianteId;
+        private final double promedio;
+        private final long totalNotas;
+
+        public Posicion(long estudianteId, double promedio, long totalNotas) {
+            this.estudianteId = estudianteId;
+            this.promedio = promedio;
+            this.totalNotas = totalNotas;
+        }
+
+        public long getEstudianteId() {
+            return estudianteId;
+        }
+
+        public double getPromedio() {
+            return promedio;
+        }
+
+        public long getTotalNotas() {
+            return totalNotas;
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.ejemplo.notasapp.modelo;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = @Index(name = "idx_estudiante_apellido_id", columnList = "apellido, id"))
 public class Estudiante {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
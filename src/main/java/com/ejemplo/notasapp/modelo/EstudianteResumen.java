@@ -0,0 +1,37 @@
+package com.ejemplo.notasapp.modelo;
+
+/**
+ * Vista de solo lectura de un estudiante para el listado paginado.
+ * Se construye directamente en la consulta JPQL, sin cargar la entidad ni su
+ * colección de notas.
+ */
+public class EstudianteResumen {
+    private final Long id;
+    private final String nombre;
+    private final String apellido;
+    private final String correo;
+
+    public EstudianteResumen(Long id, String nombre, String apellido, String correo) {
+        this.id = id;
+        this.nombre = nombre;
+        this.apellido = apellido;
+        this.correo = correo;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+
+    public String getCorreo() {
+        return correo;
+    }
+}
@@ -0,0 +1,61 @@
+package com.ejemplo.notasapp.modelo;
+
+/**
+ * Fila de la consulta que une un estudiante con sus notas. Las columnas de la
+ * nota son null cuando el estudiante no tiene notas (left join).
+ */
+public class FilaNotaEstudiante {
+    private final Long estudianteId;
+    private final String nombre;
+    private final String apellido;
+    private final Long notaId;
+    private final String materia;
+    private final String observacion;
+    private final Double valor;
+    private final Double porcentaje;
+
+    public FilaNotaEstudiante(Long estudianteId, String nombre, String apellido, Long notaId, String materia,
+            String observacion, Double valor, Double porcentaje) {
+        this.estudianteId = estudianteId;
+        this.nombre = nombre;
+        this.apellido = apellido;
+        this.notaId = notaId;
+        this.materia = materia;
+        this.observacion = observacion;
+        this.valor = valor;
+        this.porcentaje = porcentaje;
+    }
+
+    // Getters
+    public Long getEstudianteId() {
+        return estudianteId;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+
+    public Long getNotaId() {
+        return notaId;
+    }
+
+    public String getMateria() {
+        return materia;
+    }
+
+    public String getObservacion() {
+        return observacion;
+    }
+
+    public Double getValor() {
+        return valor;
+    }
+
+    public Double getPorcentaje() {
+        return porcentaje;
+    }
+}
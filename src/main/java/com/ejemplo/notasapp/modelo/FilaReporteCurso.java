@@ -0,0 +1,69 @@
+package com.ejemplo.notasapp.modelo;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fila del reporte del curso: notas finales por materia de un estudiante,
+ * promedio general y posición en el curso.
+ *
+ * El promedio general pondera todas las notas del estudiante:
+ * SUM(valor * porcentaje) / SUM(porcentaje) sobre todas sus materias. Es null
+ * si no tiene notas con porcentaje, y entonces tampoco tiene posición.
+ */
+public class FilaReporteCurso {
+    private final long estudianteId;
+    private final String nombre;
+    private final String apellido;
+    private final Map<String, Double> promedios = new TreeMap<>();
+    private long totalNotas;
+    private double sumaPonderada;
+    private double sumaPorcentajes;
+    private Integer posicion;
+
+    public FilaReporteCurso(long estudianteId, String nombre, String apellido) {
+        this.estudianteId = estudianteId;
+        this.nombre = nombre;
+        this.apellido = apellido;
+    }
+
+    public void agregarMateria(String materia, double sumaPonderada, double sumaPorcentajes, long totalNotas) {
+        promedios.put(materia, sumaPorcentajes > 0 ? sumaPonderada / sumaPorcentajes : null);
+        this.sumaPonderada += sumaPonderada;
+        this.sumaPorcentajes += sumaPorcentajes;
+        this.totalNotas += totalNotas;
+    }
+
+    public void setPosicion(Integer posicion) {
+        this.posicion = posicion;
+    }
+
+    // Getters
+    public long getEstudianteId() {
+        return estudianteId;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+
+    public Map<String, Double> getPromedios() {
+        return promedios;
+    }
+
+    public long getTotalNotas() {
+        return totalNotas;
+    }
+
+    public Double getPromedioGeneral() {
+        return sumaPorcentajes > 0 ? sumaPonderada / sumaPorcentajes : null;
+    }
+
+    public Integer getPosicion() {
+        return posicion;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ejemplo.notasapp.modelo;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Criterios de búsqueda sobre los registros de violaciones de seguridad.
+ * Todos los campos son opcionales; el rango de fechas es [desde, hasta).
+ *
+ * despuesDeFecha y despuesDeId son la llave del último registro de la página
+ * anterior: la siguiente página contiene los registros más antiguos que él.
+ */
+public class FiltroLogViolacion {
+
+    private String usuario;
+    private String rol;
+    private String accion;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime desde;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime hasta;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime despuesDeFecha;
+
+    private Long despuesDeId;
+
+    public String getUsuario() {
+        return usuario;
+    }
+
+    public void setUsuario(String usuario) {
+        this.usuario = usuario;
+    }
+
+    public String getRol() {
+        return rol;
+    }
+
+    public void setRol(String rol) {
+        this.rol = rol;
+    }
+
+    public String getAccion() {
+        return accion;
+    }
+
+    public void setAccion(String accion) {
+        this.accion = accion;
+    }
+
+    public LocalDateTime getDesde() {
+        return desde;
+    }
+
+    public void setDesde(LocalDateTime desde) {
+        this.desde = desde;
+    }
+
+    public LocalDateTime getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(LocalDateTime hasta) {
+        this.hasta = hasta;
+    }
+
+    public LocalDateTime getDespuesDeFecha() {
+        return despuesDeFecha;
+    }
+
+    public void setDespuesDeFecha(LocalDateTime despuesDeFecha) {
+        this.despuesDeFecha = despuesDeFecha;
+    }
+
+    public Long getDespuesDeId() {
+        return despuesDeId;
+    }
+
+    public void setDespuesDeId(Long despuesDeId) {
+        this.despuesDeId = despuesDeId;
+    }
+}
@@ -4,13 +4,22 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        // Todas las consultas recorren (fechaHora, id); cada filtro por igualdad va delante
+        @Index(name = "idx_log_fecha_id", columnList = "fechaHora, id"),
+        @Index(name = "idx_log_usuario_fecha_id", columnList = "nombreUsuario, fechaHora, id"),
+        @Index(name = "idx_log_accion_fecha_id", columnList = "accionIntentada, fechaHora, id"),
+        @Index(name = "idx_log_rol_fecha_id", columnList = "rol, fechaHora, id")
+})
 public class LogViolacionSeguridad {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private String nombreUsuario;
-    private String rol;
+    // Código de un byte del rol (ver Rol y MigracionRolAuditoria)
+    @Convert(converter = ConvertidorRol.class)
+    private Rol rol;
     private String accionIntentada;
     private String detalles;
     private LocalDateTime fechaHora;
@@ -19,7 +28,7 @@ public class LogViolacionSeguridad {
     public LogViolacionSeguridad() {
     }
 
-    public LogViolacionSeguridad(String nombreUsuario, String rol, String accionIntentada, String detalles) {
+    public LogViolacionSeguridad(String nombreUsuario, Rol rol, String accionIntentada, String detalles) {
         this.nombreUsuario = nombreUsuario;
         this.rol = rol;
         this.accionIntentada = accionIntentada;
@@ -44,11 +53,11 @@ public class LogViolacionSeguridad {
         this.nombreUsuario = nombreUsuario;
     }
 
-    public String getRol() {
+    public Rol getRol() {
         return rol;
     }
 
-    public void setRol(String rol) {
+    public void setRol(Rol rol) {
         this.rol = rol;
     }
 
@@ -1,8 +1,12 @@
 package com.ejemplo.notasapp.modelo;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Nota {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
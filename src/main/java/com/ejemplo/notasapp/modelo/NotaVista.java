@@ -0,0 +1,41 @@
+package com.ejemplo.notasapp.modelo;
+
+/**
+ * Nota de solo lectura para mostrar en pantalla; no es una entidad.
+ */
+public class NotaVista {
+    private final Long id;
+    private final String materia;
+    private final String observacion;
+    private final Double valor;
+    private final Double porcentaje;
+
+    public NotaVista(Long id, String materia, String observacion, Double valor, Double porcentaje) {
+        this.id = id;
+        this.materia = materia;
+        this.observacion = observacion;
+        this.valor = valor;
+        this.porcentaje = porcentaje;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getMateria() {
+        return materia;
+    }
+
+    public String getObservacion() {
+        return observacion;
+    }
+
+    public Double getValor() {
+        return valor;
+    }
+
+    public Double getPorcentaje() {
+        return porcentaje;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ejemplo.notasapp.modelo;
+
+/**
+ * Proyección del promedio ponderado de una materia calculado en la base de
+ * datos: SUM(valor * porcentaje) / SUM(porcentaje) agrupado por estudiante y
+ * materia.
+ */
+public interface PromedioMateria {
+
+    Long getEstudianteId();
+
+    String getMateria();
+
+    // null si la suma de porcentajes de la materia es cero
+    Double getPromedio();
+
+    Long getTotalNotas();
+}
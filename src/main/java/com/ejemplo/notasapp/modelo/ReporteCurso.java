@@ -0,0 +1,45 @@
+package com.ejemplo.notasapp.modelo;
+
+import java.util.List;
+
+/**
+ * Reporte de notas finales de todo el curso, ordenado por posición. Las
+ * materias son la unión de las materias de todos los estudiantes.
+ */
+public class ReporteCurso {
+    private final List<String> materias;
+    private final List<FilaReporteCurso> filas;
+    private final int particiones;
+    private final int paralelismo;
+    private final long duracionMs;
+
+    public ReporteCurso(List<String> materias, List<FilaReporteCurso> filas, int particiones, int paralelismo,
+            long duracionMs) {
+        this.materias = materias;
+        this.filas = filas;
+        this.particiones = particiones;
+        this.paralelismo = paralelismo;
+        this.duracionMs = duracionMs;
+    }
+
+    // Getters
+    public List<String> getMaterias() {
+        return materias;
+    }
+
+    public List<FilaReporteCurso> getFilas() {
+        return filas;
+    }
+
+    public int getParticiones() {
+        return particiones;
+    }
+
+    public int getParalelismo() {
+        return paralelismo;
+    }
+
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+}
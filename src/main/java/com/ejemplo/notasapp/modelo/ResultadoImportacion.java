@@ -0,0 +1,65 @@
+package com.ejemplo.notasapp.modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva de notas: contadores y errores por fila.
+ * Solo se conservan los primeros MAXIMO_ERRORES errores para acotar la memoria.
+ */
+public class ResultadoImportacion {
+
+    public static final int MAXIMO_ERRORES = 1000;
+
+    private long filasLeidas;
+    private long filasInsertadas;
+    private long filasRechazadas;
+    private final List<String> errores = new ArrayList<>();
+    private boolean erroresTruncados;
+
+    public void filaLeida() {
+        filasLeidas++;
+    }
+
+    public void filasInsertadas(int cantidad) {
+        filasInsertadas += cantidad;
+    }
+
+    public void rechazar(long linea, String motivo) {
+        filasRechazadas++;
+        agregarError("Línea " + linea + ": " + motivo);
+    }
+
+    public void rechazarLote(long primeraLinea, long ultimaLinea, int cantidad, String motivo) {
+        filasRechazadas += cantidad;
+        agregarError("Líneas " + primeraLinea + "-" + ultimaLinea + ": " + motivo);
+    }
+
+    private void agregarError(String error) {
+        if (errores.size() < MAXIMO_ERRORES) {
+            errores.add(error);
+        } else {
+            erroresTruncados = true;
+        }
+    }
+
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    public long getFilasInsertadas() {
+        return filasInsertadas;
+    }
+
+    public long getFilasRechazadas() {
+        return filasRechazadas;
+    }
+
+    public List<String> getErrores() {
+        return errores;
+    }
+
+    public boolean isErroresTruncados() {
+        return erroresTruncados;
+    }
+}
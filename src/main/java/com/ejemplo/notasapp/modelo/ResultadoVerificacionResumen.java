@@ -0,0 +1,120 @@
+package com.ejemplo.notasapp.modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de verificar (y opcionalmente reconstruir) el resumen de notas
+ * contra las notas. Cada partición de estudiantes produce uno propio que
+ * luego se combina. Solo se conservan las primeras MAXIMO_MUESTRAS
+ * diferencias.
+ */
+public class ResultadoVerificacionResumen {
+
+    public static final int MAXIMO_MUESTRAS = 20;
+
+    private int particiones;
+    private int particionesReconstruidas;
+    private long filasEsperadas;
+    private long filasResumen;
+    private long faltantes;
+    private long sobrantes;
+    private long diferentes;
+    private double maximaDiferencia;
+    private long duracionMs;
+    private final List<String> muestras = new ArrayList<>();
+
+    public void particionRevisada(boolean reconstruida) {
+        particiones++;
+        if (reconstruida) {
+            particionesReconstruidas++;
+        }
+    }
+
+    public void filas(long esperadas, long resumen) {
+        filasEsperadas += esperadas;
+        filasResumen += resumen;
+    }
+
+    public void faltante(String clave) {
+        faltantes++;
+        agregarMuestra("Falta en el resumen: " + clave);
+    }
+
+    public void sobrante(String clave) {
+        sobrantes++;
+        agregarMuestra("Sobra en el resumen: " + clave);
+    }
+
+    public void diferente(String clave, double diferencia, String detalle) {
+        diferentes++;
+        maximaDiferencia = Math.max(maximaDiferencia, diferencia);
+        agregarMuestra("Difiere " + clave + ": " + detalle);
+    }
+
+    public void combinar(ResultadoVerificacionResumen otro) {
+        particiones += otro.particiones;
+        particionesReconstruidas += otro.particionesReconstruidas;
+        filasEsperadas += otro.filasEsperadas;
+        filasResumen += otro.filasResumen;
+        faltantes += otro.faltantes;
+        sobrantes += otro.sobrantes;
+        diferentes += otro.diferentes;
+        maximaDiferencia = Math.max(maximaDiferencia, otro.maximaDiferencia);
+        otro.muestras.forEach(this::agregarMuestra);
+    }
+
+    private void agregarMuestra(String muestra) {
+        if (muestras.size() < MAXIMO_MUESTRAS) {
+            muestras.add(muestra);
+        }
+    }
+
+    public boolean hayDeriva() {
+        return faltantes + sobrantes + diferentes > 0;
+    }
+
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+
+    public int getParticiones() {
+        return particiones;
+    }
+
+    public int getParticionesReconstruidas() {
+        return particionesReconstruidas;
+    }
+
+    public long getFilasEsperadas() {
+        return filasEsperadas;
+    }
+
+    public long getFilasResumen() {
+        return filasResumen;
+    }
+
+    public long getFaltantes() {
+        return faltantes;
+    }
+
+    public long getSobrantes() {
+        return sobrantes;
+    }
+
+    public long getDiferentes() {
+        return diferentes;
+    }
+
+    public double getMaximaDiferencia() {
+        return maximaDiferencia;
+    }
+
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+
+    public List<String> getMuestras() {
+        return muestras;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ejemplo.notasapp.modelo;
+
+import jakarta.persistence.*;
+
+/**
+ * Resumen materializado de las notas de un estudiante en una materia:
+ * SUM(valor * porcentaje), SUM(porcentaje) y cantidad de notas. Lo mantiene
+ * ServicioResumenNotas en la misma transacción que cada escritura de notas.
+ *
+ * Las notas sin materia se resumen con materia "". Una fila con totalNotas 0
+ * equivale a no tener notas en esa materia.
+ */
+@Entity
+@Table(name = "resumen_nota", uniqueConstraints = @UniqueConstraint(name = "uk_resumen_estudiante_materia",
+        columnNames = { "estudiante_id", "materia" }))
+public class ResumenNota {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "estudiante_id", nullable = false)
+    private Long estudianteId;
+
+    @Column(name = "materia", nullable = false)
+    private String materia;
+
+    @Column(name = "suma_ponderada", nullable = false)
+    private double sumaPonderada;
+
+    @Column(name = "suma_porcentajes", nullable = false)
+    private double sumaPorcentajes;
+
+    @Column(name = "total_notas", nullable = false)
+    private long totalNotas;
+
+    // Promedio ponderado, o 0 si no hay porcentajes
+    public double getPromedio() {
+        return sumaPorcentajes > 0 ? sumaPonderada / sumaPorcentajes : 0.0;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getEstudianteId() {
+        return estudianteId;
+    }
+
+    public String getMateria() {
+        return materia;
+    }
+
+    public double getSumaPonderada() {
+        return sumaPonderada;
+    }
+
+    public double getSumaPorcentajes() {
+        return sumaPorcentajes;
+    }
+
+    public long getTotalNotas() {
+        return totalNotas;
+    }
+}
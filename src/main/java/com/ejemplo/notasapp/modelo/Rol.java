@@ -0,0 +1,105 @@
+package com.ejemplo.notasapp.modelo;
+
+/**
+ * Rol del usuario en sesión y permisos que concede.
+ *
+ * Cada permiso es un bit y la máscara de cada rol se calcula al cargar la
+ * clase: comprobar un permiso es una sola operación AND. Un rol sin
+ * NOTAS_DE_TODOS queda limitado a los datos de su propio estudiante. Un rol
+ * nuevo (p. ej. un ayudante de cátedra) solo declara su código y sus
+ * permisos; TablaDecisionesAutorizacion deriva sus reglas de la máscara.
+ *
+ * El código es el valor guardado en la columna rol de la auditoría y en las
+ * sesiones compartidas (CodecUsuarioSesion): no se cambia ni se reutiliza.
+ */
+public enum Rol {
+
+    // Solo lectura y únicamente sobre sus propias notas
+    ALUMNO(1),
+    // Acceso completo
+    PROFESOR(2, Permiso.values());
+
+    public enum Permiso {
+        // Notas y promedios de cualquier estudiante, no solo los propios
+        NOTAS_DE_TODOS,
+        ESCRIBIR_NOTAS,
+        IMPORTAR_NOTAS,
+        EXPORTAR_CURSO,
+        // Promedios, estadísticas y reporte del curso completo
+        CONSULTAR_CURSO,
+        GESTIONAR_ESTUDIANTES,
+        // Operaciones de mantenimiento de /debug
+        ADMINISTRAR;
+
+        private final int bit = 1 << ordinal();
+
+        public int bit() {
+            return bit;
+        }
+    }
+
+    private static final Rol[] POR_CODIGO;
+
+    static {
+        int maximo = 0;
+        for (Rol rol : values()) {
+            maximo = Math.max(maximo, rol.codigo);
+        }
+        POR_CODIGO = new Rol[maximo + 1];
+        for (Rol rol : values()) {
+            POR_CODIGO[rol.codigo] = rol;
+        }
+    }
+
+    private final byte codigo;
+    private final int permisos;
+
+    Rol(int codigo, Permiso... permisos) {
+        this.codigo = (byte) codigo;
+        int mascara = 0;
+        for (Permiso permiso : permisos) {
+            mascara |= permiso.bit();
+        }
+        this.permisos = mascara;
+    }
+
+    public byte getCodigo() {
+        return codigo;
+    }
+
+    public int getPermisos() {
+        return permisos;
+    }
+
+    public boolean tiene(Permiso permiso) {
+        return (permisos & permiso.bit()) != 0;
+    }
+
+    /** true si el rol actúa como un estudiante concreto y necesita su estudianteId. */
+    public boolean requiereEstudiante() {
+        return !tiene(Permiso.NOTAS_DE_TODOS);
+    }
+
+    /**
+     * Rol con el código dado. Lanza IllegalArgumentException si no existe.
+     */
+    public static Rol desdeCodigo(int codigo) {
+        Rol rol = codigo > 0 && codigo < POR_CODIGO.length ? POR_CODIGO[codigo] : null;
+        if (rol == null) {
+            throw new IllegalArgumentException("Código de rol desconocido: " + codigo);
+        }
+        return rol;
+    }
+
+    /**
+     * Rol con el nombre dado ("ALUMNO", "PROFESOR"), o null si no existe.
+     */
+    public static Rol desdeNombre(String nombre) {
+        for (Rol rol : values()) {
+            if (rol.name().equals(nombre)) {
+                return rol;
+            }
+        }
+        return null;
+    }
+}
@@ -3,18 +3,21 @@ package com.ejemplo.notasapp.modelo;
 import java.io.Serializable;
 
 public class UsuarioSesion implements Serializable {
+    // Cambia solo si cambia la forma serializada (2: rol pasó de String a Rol)
+    private static final long serialVersionUID = 2L;
+
     private String nombre;
-    private String rol; // ALUMNO o PROFESOR
-    private Long estudianteId; // Solo para alumnos, null para profesores
+    private Rol rol;
+    private Long estudianteId; // Solo para roles limitados a su estudiante (alumnos)
 
     public UsuarioSesion() {
     }
 
-    public UsuarioSesion(String nombre, String rol, Long estudianteId) {
+    public UsuarioSesion(String nombre, Rol rol, Long estudianteId) {
         this.nombre = nombre;
         this.rol = rol;
-        // Solo asignar estudianteId si es alumno
-        this.estudianteId = "ALUMNO".equals(rol) ? estudianteId : null;
+        // Solo asignar estudianteId si el rol está limitado a su estudiante
+        this.estudianteId = rol != null && rol.requiereEstudiante() ? estudianteId : null;
     }
 
     public String getNombre() {
@@ -25,14 +28,14 @@ public class UsuarioSesion implements Serializable {
         this.nombre = nombre;
     }
 
-    public String getRol() {
+    public Rol getRol() {
         return rol;
     }
 
-    public void setRol(String rol) {
+    public void setRol(Rol rol) {
         this.rol = rol;
-        // Si cambia el rol a profesor, limpiar estudianteId
-        if ("PROFESOR".equals(rol)) {
+        // Si el nuevo rol no está limitado a un estudiante, limpiar estudianteId
+        if (rol == null || !rol.requiereEstudiante()) {
             this.estudianteId = null;
         }
     }
@@ -42,16 +45,24 @@ public class UsuarioSesion implements Serializable {
     }
 
     public void setEstudianteId(Long estudianteId) {
-        // Solo permitir estudianteId si es alumno
-        this.estudianteId = isAlumno() ? estudianteId : null;
+        // Solo permitir estudianteId si el rol está limitado a su estudiante
+        this.estudianteId = rol != null && rol.requiereEstudiante() ? estudianteId : null;
     }
 
     public boolean isAlumno() {
-        return "ALUMNO".equals(rol);
+        return rol == Rol.ALUMNO;
     }
 
     public boolean isProfesor() {
-        return "PROFESOR".equals(rol);
+        return rol == Rol.PROFESOR;
+    }
+
+    /**
+     * Retorna true si el rol del usuario concede el permiso (una operación AND
+     * sobre la máscara del rol)
+     */
+    public boolean tiene(Rol.Permiso permiso) {
+        return rol != null && rol.tiene(permiso);
     }
 
     /**
@@ -72,16 +83,17 @@ public class UsuarioSesion implements Serializable {
 
     /**
      * Método para validar si puede acceder a datos de un estudiante específico
-     * - Profesores: pueden acceder a cualquier estudiante
-     * - Alumnos: solo a sus propios datos
+     * - Con el permiso NOTAS_DE_TODOS (profesores): cualquier estudiante
+     * - Resto de roles (alumnos): solo sus propios datos
      */
     public boolean puedeAccederAEstudiante(Long estudianteIdSolicitado) {
-        if (isProfesor()) {
-            return true; // Los profesores pueden acceder a cualquier estudiante
-        } else if (isAlumno()) {
-            return this.estudianteId != null && this.estudianteId.equals(estudianteIdSolicitado);
+        if (rol == null) {
+            return false; // Sin rol
+        }
+        if (rol.tiene(Rol.Permiso.NOTAS_DE_TODOS)) {
+            return true;
         }
-        return false; // Rol no reconocido
+        return this.estudianteId != null && this.estudianteId.equals(estudianteIdSolicitado);
     }
 
     @Override
@@ -0,0 +1,77 @@
+package com.ejemplo.notasapp.modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encabezado del estudiante y sus notas, armado a partir de una sola consulta.
+ * Es inmutable y no contiene entidades administradas, por lo que puede
+ * guardarse en caché y compartirse entre peticiones.
+ */
+public class VistaNotasEstudiante {
+
+    public enum Orden {
+        ID("n.id"),
+        MATERIA("n.materia"),
+        VALOR("n.valor");
+
+        private final String propiedad;
+
+        Orden(String propiedad) {
+            this.propiedad = propiedad;
+        }
+
+        public String getPropiedad() {
+            return propiedad;
+        }
+    }
+
+    private final Long estudianteId;
+    private final String nombre;
+    private final String apellido;
+    private final List<NotaVista> notas;
+
+    private VistaNotasEstudiante(Long estudianteId, String nombre, String apellido, List<NotaVista> notas) {
+        this.estudianteId = estudianteId;
+        this.nombre = nombre;
+        this.apellido = apellido;
+        this.notas = notas;
+    }
+
+    /**
+     * Arma la vista desde las filas de la consulta. Retorna null si no hay
+     * filas, es decir, si el estudiante no existe.
+     */
+    public static VistaNotasEstudiante desdeFilas(List<FilaNotaEstudiante> filas) {
+        if (filas.isEmpty()) {
+            return null;
+        }
+        FilaNotaEstudiante primera = filas.get(0);
+        List<NotaVista> notas = new ArrayList<>(filas.size());
+        for (FilaNotaEstudiante fila : filas) {
+            if (fila.getNotaId() != null) {
+                notas.add(new NotaVista(fila.getNotaId(), fila.getMateria(), fila.getObservacion(),
+                        fila.getValor(), fila.getPorcentaje()));
+            }
+        }
+        return new VistaNotasEstudiante(primera.getEstudianteId(), primera.getNombre(), primera.getApellido(),
+                List.copyOf(notas));
+    }
+
+    // Getters
+    public Long getEstudianteId() {
+        return estudianteId;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getApellido() {
+        return apellido;
+    }
+
+    public List<NotaVista> getNotas() {
+        return notas;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ejemplo.notasapp.registro;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Anillo acotado sin candados de múltiples productores y un consumidor.
+ *
+ * Cada ranura tiene un número de secuencia (algoritmo de Vyukov): un productor
+ * reserva una posición con un CAS sobre la cola, llena la ranura preasignada y
+ * la publica avanzando su secuencia. El único consumidor lee las ranuras
+ * publicadas en orden y las devuelve al anillo.
+ */
+final class AnilloEventos {
+
+    private final Evento[] ranuras;
+    private final AtomicLongArray secuencias;
+    private final int mascara;
+    private final AtomicLong cola = new AtomicLong();
+
+    // Solo la modifica el hilo consumidor
+    private long cabeza;
+
+    AnilloEventos(int capacidadSolicitada) {
+        int capacidad = Integer.highestOneBit(Math.max(capacidadSolicitada, 2) - 1) << 1;
+        ranuras = new Evento[capacidad];
+        secuencias = new AtomicLongArray(capacidad);
+        mascara = capacidad - 1;
+        for (int i = 0; i < capacidad; i++) {
+            ranuras[i] = new Evento(i);
+            secuencias.set(i, i);
+        }
+    }
+
+    /**
+     * Reserva una ranura para escribir un evento. Retorna null si el anillo
+     * está lleno.
+     */
+    Evento reservar() {
+        long posicion = cola.get();
+        while (true) {
+            int indice = (int) posicion & mascara;
+            long diferencia = secuencias.get(indice) - posicion;
+            if (diferencia == 0) {
+                if (cola.compareAndSet(posicion, posicion + 1)) {
+                    Evento evento = ranuras[indice];
+                    evento.posicion = posicion;
+                    return evento;
+                }
+                posicion = cola.get();
+            } else if (diferencia < 0) {
+                return null;
+            } else {
+                posicion = cola.get();
+            }
+        }
+    }
+
+    void publicar(Evento evento) {
+        secuencias.lazySet(evento.indice, evento.posicion + 1);
+    }
+
+    /**
+     * Retorna el siguiente evento publicado o null si no hay ninguno.
+     * Solo debe llamarlo el hilo consumidor.
+     */
+    Evento siguiente() {
+        int indice = (int) cabeza & mascara;
+        if (secuencias.get(indice) != cabeza + 1) {
+            return null;
+        }
+        return ranuras[indice];
+    }
+
+    // Devuelve la ranura consumida al anillo
+    void liberar(Evento evento) {
+        evento.limpiar();
+        secuencias.lazySet(evento.indice, cabeza + ranuras.length);
+        cabeza++;
+    }
+
+    int capacidad() {
+        return ranuras.length;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ejemplo.notasapp.registro;
+
+/**
+ * Ranura reutilizable del anillo de eventos.
+ *
+ * Los valores se guardan tal cual y solo se convierten a texto en el hilo del
+ * appender, por lo que el hilo de la petición no construye mensajes.
+ */
+final class Evento {
+
+    static final int MAXIMO_CAMPOS = 4;
+
+    final int indice;
+    long posicion;
+
+    NivelEvento nivel;
+    String origen;
+    String tipo;
+    String hilo;
+    long marcaTiempo;
+
+    final String[] claves = new String[MAXIMO_CAMPOS];
+    final Object[] valores = new Object[MAXIMO_CAMPOS];
+    int campos;
+
+    Evento(int indice) {
+        this.indice = indice;
+    }
+
+    void preparar(NivelEvento nivel, String origen, String tipo) {
+        this.nivel = nivel;
+        this.origen = origen;
+        this.tipo = tipo;
+        this.hilo = Thread.currentThread().getName();
+        this.marcaTiempo = System.currentTimeMillis();
+        this.campos = 0;
+    }
+
+    void agregar(String clave, Object valor) {
+        claves[campos] = clave;
+        valores[campos] = valor;
+        campos++;
+    }
+
+    // Suelta las referencias para no retener objetos de la petición
+    void limpiar() {
+        for (int i = 0; i < campos; i++) {
+            claves[i] = null;
+            valores[i] = null;
+        }
+        campos = 0;
+        origen = null;
+        tipo = null;
+        hilo = null;
+    }
+}
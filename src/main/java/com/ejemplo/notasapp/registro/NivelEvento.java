@@ -0,0 +1,13 @@
+package com.ejemplo.notasapp.registro;
+
+/**
+ * Niveles de los eventos estructurados, de menor a mayor severidad.
+ * OFF desactiva por completo un registrador.
+ */
+public enum NivelEvento {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF
+}
@@ -0,0 +1,99 @@
+package com.ejemplo.notasapp.registro;
+
+/**
+ * Registrador de eventos estructurados de un aspecto.
+ *
+ * Cada método comprueba primero el nivel: si el evento está desactivado el
+ * costo es una comparación. Los métodos tienen aridad fija (hasta cuatro
+ * pares clave/valor) para no crear arreglos varargs en cada llamada.
+ */
+public final class Registrador {
+
+    private final String origen;
+    private final NivelEvento nivel;
+    private final RegistroEventos registro;
+
+    Registrador(String origen, NivelEvento nivel, RegistroEventos registro) {
+        this.origen = origen;
+        this.nivel = nivel;
+        this.registro = registro;
+    }
+
+    public boolean habilitado(NivelEvento nivelEvento) {
+        return nivelEvento.ordinal() >= nivel.ordinal() && nivelEvento != NivelEvento.OFF;
+    }
+
+    public boolean debug() {
+        return habilitado(NivelEvento.DEBUG);
+    }
+
+    public void evento(NivelEvento nivelEvento, String tipo) {
+        if (!habilitado(nivelEvento)) {
+            return;
+        }
+        Evento e = registro.reservar(nivelEvento, origen, tipo);
+        if (e != null) {
+            registro.publicar(e);
+        }
+    }
+
+    public void evento(NivelEvento nivelEvento, String tipo, String k1, Object v1) {
+        if (!habilitado(nivelEvento)) {
+            return;
+        }
+        Evento e = registro.reservar(nivelEvento, origen, tipo);
+        if (e != null) {
+            e.agregar(k1, v1);
+            registro.publicar(e);
+        }
+    }
+
+    public void evento(NivelEvento nivelEvento, String tipo, String k1, Object v1, String k2, Object v2) {
+        if (!habilitado(nivelEvento)) {
+            return;
+        }
+        Evento e = registro.reservar(nivelEvento, origen, tipo);
+        if (e != null) {
+            e.agregar(k1, v1);
+            e.agregar(k2, v2);
+            registro.publicar(e);
+        }
+    }
+
+    public void evento(NivelEvento nivelEvento, String tipo, String k1, Object v1, String k2, Object v2,
+            String k3, Object v3) {
+        if (!habilitado(nivelEvento)) {
+            return;
+        }
+        Evento e = registro.reservar(nivelEvento, origen, tipo);
+        if (e != null) {
+            e.agregar(k1, v1);
+            e.agregar(k2, v2);
+            e.agregar(k3, v3);
+            registro.publicar(e);
+        }
+    }
+
+    public void evento(NivelEvento nivelEvento, String tipo, String k1, Object v1, String k2, Object v2,
+            String k3, Object v3, String k4, Object v4) {
+        if (!habilitado(nivelEvento)) {
+            return;
+        }
+        Evento e = registro.reservar(nivelEvento, origen, tipo);
+        if (e != null) {
+            e.agregar(k1, v1);
+            e.agregar(k2, v2);
+            e.agregar(k3, v3);
+            e.agregar(k4, v4);
+            registro.publicar(e);
+        }
+    }
+
+    public String getOrigen() {
+        return origen;
+    }
+
+    public NivelEvento getNivel() {
+        return nivel;
+    }
+}
@@ -0,0 +1,191 @@
+package com.ejemplo.notasapp.registro;
+
+import com.ejemplo.notasapp.servicio.ConfiguracionHilos;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro de eventos estructurados de los aspectos.
+ *
+ * Los hilos de las peticiones escriben en un anillo sin candados y un único
+ * hilo appender convierte los eventos a líneas JSON en la salida estándar.
+ * Si el anillo se llena el evento se descarta y se cuenta, en lugar de
+ * bloquear la petición.
+ *
+ * El nivel de cada aspecto se configura con notasapp.registro.nivel.{origen}
+ * (por ejemplo notasapp.registro.nivel.Aspectos=DEBUG).
+ */
+@Component
+public class RegistroEventos {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ConfiguracionHilos configuracionHilos;
+
+    @Value("${notasapp.registro.capacidad:8192}")
+    private int capacidad;
+
+    @Value("${notasapp.registro.nivel-por-defecto:INFO}")
+    private NivelEvento nivelPorDefecto;
+
+    private AnilloEventos anillo;
+    private Thread hiloAppender;
+    private volatile boolean activo;
+    private PrintWriter salida;
+
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder escritos = new LongAdder();
+
+    @PostConstruct
+    public void iniciar() {
+        anillo = new AnilloEventos(capacidad);
+        // Solo el hilo appender escribe, en bloques, sobre la salida estándar
+        salida = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), false);
+        activo = true;
+        hiloAppender = configuracionHilos.nuevoHilo("appender-eventos", this::ejecutarAppender);
+        hiloAppender.start();
+    }
+
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        try {
+            hiloAppender.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Crea el registrador de un aspecto con el nivel configurado para él.
+     */
+    public Registrador registrador(String origen) {
+        NivelEvento nivel = environment.getProperty("notasapp.registro.nivel." + origen, NivelEvento.class,
+                nivelPorDefecto);
+        return new Registrador(origen, nivel, this);
+    }
+
+    Evento reservar(NivelEvento nivel, String origen, String tipo) {
+        Evento evento = anillo.reservar();
+        if (evento == null) {
+            descartados.increment();
+            return null;
+        }
+        evento.preparar(nivel, origen, tipo);
+        return evento;
+    }
+
+    void publicar(Evento evento) {
+        anillo.publicar(evento);
+    }
+
+    private void ejecutarAppender() {
+        StringBuilder linea = new StringBuilder(512);
+        while (activo || anillo.siguiente() != null) {
+            int procesados = 0;
+            Evento evento;
+            while ((evento = anillo.siguiente()) != null) {
+                linea.setLength(0);
+                escribirJson(evento, linea);
+                anillo.liberar(evento);
+                salida.append(linea).append('\n');
+                procesados++;
+            }
+            if (procesados > 0) {
+                salida.flush();
+                escritos.add(procesados);
+            } else {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        salida.flush();
+    }
+
+    private static void escribirJson(Evento evento, StringBuilder sb) {
+        sb.append("{\"ts\":\"").append(Instant.ofEpochMilli(evento.marcaTiempo)).append('"');
+        sb.append(",\"nivel\":\"").append(evento.nivel).append('"');
+        sb.append(",\"origen\":");
+        escribirTexto(evento.origen, sb);
+        sb.append(",\"hilo\":");
+        escribirTexto(evento.hilo, sb);
+        sb.append(",\"evento\":");
+        escribirTexto(evento.tipo, sb);
+        for (int i = 0; i < evento.campos; i++) {
+            sb.append(',');
+            escribirTexto(evento.claves[i], sb);
+            sb.append(':');
+            escribirValor(evento.valores[i], sb);
+        }
+        sb.append('}');
+    }
+
+    private static void escribirValor(Object valor, StringBuilder sb) {
+        if (valor == null) {
+            sb.append("null");
+        } else if ((valor instanceof Double d && !Double.isFinite(d))
+                || (valor instanceof Float f && !Float.isFinite(f))) {
+            // JSON no admite NaN ni Infinity como números: van entre comillas
+            escribirTexto(valor.toString(), sb);
+        } else if (valor instanceof Number || valor instanceof Boolean) {
+            sb.append(valor);
+        } else {
+            String texto;
+            try {
+                texto = valor instanceof Object[] arreglo ? Arrays.toString(arreglo) : String.valueOf(valor);
+            } catch (RuntimeException e) {
+                // El objeto pudo cambiar en el hilo de la petición mientras se formateaba
+                texto = "<no representable: " + e.getClass().getSimpleName() + ">";
+            }
+            escribirTexto(texto, sb);
+        }
+    }
+
+    private static void escribirTexto(String texto, StringBuilder sb) {
+        if (texto == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    public long getEscritos() {
+        return escritos.sum();
+    }
+}
@@ -1,6 +1,53 @@
 package com.ejemplo.notasapp.repositorio;
 
 import com.ejemplo.notasapp.modelo.Estudiante;
+import com.ejemplo.notasapp.modelo.EstudianteResumen;
+import com.ejemplo.notasapp.modelo.FilaNotaEstudiante;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface RepositorioEstudiante extends JpaRepository<Estudiante, Long> {}
\ No newline at end of file
+import java.util.List;
+
+public interface RepositorioEstudiante extends JpaRepository<Estudiante, Long> {
+
+    // Paginación por llave (seek): siguiente página a partir del último id mostrado
+    @Query("select new com.ejemplo.notasapp.modelo.EstudianteResumen(e.id, e.nombre, e.apellido, e.correo) "
+            + "from Estudiante e where e.id > :despuesDeId order by e.id")
+    List<EstudianteResumen> buscarPagina(@Param("despuesDeId") Long despuesDeId, Pageable pagina);
+
+    // Búsqueda por prefijo de apellido, paginada sobre (apellido, id) con el índice idx_estudiante_apellido_id
+    @Query("select new com.ejemplo.notasapp.modelo.EstudianteResumen(e.id, e.nombre, e.apellido, e.correo) "
+            + "from Estudiante e where e.apellido like :prefijo escape '\\' "
+            + "and (e.apellido > :despuesDeApellido or (e.apellido = :despuesDeApellido and e.id > :despuesDeId)) "
+            + "order by e.apellido, e.id")
+    List<EstudianteResumen> buscarPaginaPorApellido(@Param("prefijo") String prefijo,
+            @Param("despuesDeApellido") String despuesDeApellido,
+            @Param("despuesDeId") Long despuesDeId,
+            Pageable pagina);
+
+    // Solo los ids, para validar en memoria las filas de una importación masiva
+    @Query("select e.id from Estudiante e")
+    List<Long> findAllIds();
+
+    // Encabezado del estudiante y sus notas en una sola consulta (left join: el
+    // estudiante aparece aunque no tenga notas). El orden se recibe en Sort.
+    // Cacheable solo si la caché de consultas de Hibernate está activa (ver ConfiguracionCacheHibernate)
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query("select new com.ejemplo.notasapp.modelo.FilaNotaEstudiante(e.id, e.nombre, e.apellido, "
+            + "n.id, n.materia, n.observacion, n.valor, n.porcentaje) "
+            + "from Estudiante e left join e.notas n where e.id = :estudianteId")
+    List<FilaNotaEstudiante> buscarConNotas(@Param("estudianteId") Long estudianteId, Sort orden);
+
+    // Igual que buscarConNotas, con las notas restringidas a una materia
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query("select new com.ejemplo.notasapp.modelo.FilaNotaEstudiante(e.id, e.nombre, e.apellido, "
+            + "n.id, n.materia, n.observacion, n.valor, n.porcentaje) "
+            + "from Estudiante e left join e.notas n on n.materia = :materia where e.id = :estudianteId")
+    List<FilaNotaEstudiante> buscarConNotasDeMateria(@Param("estudianteId") Long estudianteId,
+            @Param("materia") String materia, Sort orden);
+}
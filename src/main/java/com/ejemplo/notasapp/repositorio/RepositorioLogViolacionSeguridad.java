@@ -5,8 +5,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface RepositorioLogViolacionSeguridad extends JpaRepository<LogViolacionSeguridad, Long> {
-    // JpaRepository ya incluye el método flush() que necesitamos
-    // También podemos agregar métodos de consulta personalizados aquí si es
-    // necesario
-}
\ No newline at end of file
+public interface RepositorioLogViolacionSeguridad extends JpaRepository<LogViolacionSeguridad, Long>,
+        RepositorioLogViolacionSeguridadConsultas {
+    // JpaRepository ya incluye el método flush() que necesitamos.
+    // Las búsquedas filtradas y el borrado por lotes están en
+    // RepositorioLogViolacionSeguridadConsultas.
+}
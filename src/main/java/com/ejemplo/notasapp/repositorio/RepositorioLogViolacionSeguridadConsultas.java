@@ -0,0 +1,31 @@
+package com.ejemplo.notasapp.repositorio;
+
+import com.ejemplo.notasapp.modelo.FiltroLogViolacion;
+import com.ejemplo.notasapp.modelo.LogViolacionSeguridad;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas sobre la auditoría que no se expresan bien con métodos derivados:
+ * filtros opcionales con paginación por llave y borrado por lotes.
+ */
+public interface RepositorioLogViolacionSeguridadConsultas {
+
+    /**
+     * Busca los registros que cumplen el filtro, del más reciente al más
+     * antiguo, paginando por llave sobre (fechaHora, id).
+     */
+    List<LogViolacionSeguridad> buscar(FiltroLogViolacion filtro, int limite);
+
+    /**
+     * Lee como máximo `limite` registros anteriores a `fechaLimite`, en orden
+     * de (fechaHora, id).
+     */
+    List<LogViolacionSeguridad> buscarAnterioresA(LocalDateTime fechaLimite, int limite);
+
+    /**
+     * Elimina los registros con los ids indicados. Retorna las filas borradas.
+     */
+    int eliminarPorIds(List<Long> ids);
+}
@@ -0,0 +1,101 @@
+package com.ejemplo.notasapp.repositorio;
+
+import com.ejemplo.notasapp.modelo.FiltroLogViolacion;
+import com.ejemplo.notasapp.modelo.LogViolacionSeguridad;
+import com.ejemplo.notasapp.modelo.Rol;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementación JDBC de las consultas de auditoría. El SQL se arma solo con
+ * las condiciones presentes para que H2 pueda elegir el índice compuesto
+ * (filtro, fecha_hora, id) correspondiente en lugar de recorrer la tabla.
+ */
+public class RepositorioLogViolacionSeguridadConsultasImpl implements RepositorioLogViolacionSeguridadConsultas {
+
+    private static final String COLUMNAS = "SELECT id, fecha_hora, nombre_usuario, rol, accion_intentada, detalles "
+            + "FROM log_violacion_seguridad";
+
+    private static final RowMapper<LogViolacionSeguridad> MAPEADOR = (rs, fila) -> {
+        LogViolacionSeguridad log = new LogViolacionSeguridad();
+        log.setId(rs.getLong(1));
+        Timestamp fechaHora = rs.getTimestamp(2);
+        log.setFechaHora(fechaHora != null ? fechaHora.toLocalDateTime() : null);
+        log.setNombreUsuario(rs.getString(3));
+        byte codigoRol = rs.getByte(4);
+        log.setRol(rs.wasNull() ? null : Rol.desdeCodigo(codigoRol));
+        log.setAccionIntentada(rs.getString(5));
+        log.setDetalles(rs.getString(6));
+        return log;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<LogViolacionSeguridad> buscar(FiltroLogViolacion filtro, int limite) {
+        StringBuilder sql = new StringBuilder(COLUMNAS).append(" WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>(8);
+
+        if (tieneTexto(filtro.getUsuario())) {
+            sql.append(" AND nombre_usuario = ?");
+            parametros.add(filtro.getUsuario().trim());
+        }
+        if (tieneTexto(filtro.getRol())) {
+            // La columna guarda el código del rol; un nombre desconocido no coincide con ninguno
+            Rol rol = Rol.desdeNombre(filtro.getRol().trim());
+            sql.append(" AND rol = ?");
+            parametros.add(rol != null ? rol.getCodigo() : -1);
+        }
+        if (tieneTexto(filtro.getAccion())) {
+            sql.append(" AND accion_intentada = ?");
+            parametros.add(filtro.getAccion().trim());
+        }
+        if (filtro.getDesde() != null) {
+            sql.append(" AND fecha_hora >= ?");
+            parametros.add(Timestamp.valueOf(filtro.getDesde()));
+        }
+        if (filtro.getHasta() != null) {
+            sql.append(" AND fecha_hora < ?");
+            parametros.add(Timestamp.valueOf(filtro.getHasta()));
+        }
+        if (filtro.getDespuesDeFecha() != null && filtro.getDespuesDeId() != null) {
+            Timestamp fecha = Timestamp.valueOf(filtro.getDespuesDeFecha());
+            sql.append(" AND (fecha_hora < ? OR (fecha_hora = ? AND id < ?))");
+            parametros.add(fecha);
+            parametros.add(fecha);
+            parametros.add(filtro.getDespuesDeId());
+        }
+        sql.append(" ORDER BY fecha_hora DESC, id DESC LIMIT ?");
+        parametros.add(limite);
+
+        return jdbcTemplate.query(sql.toString(), MAPEADOR, parametros.toArray());
+    }
+
+    @Override
+    public List<LogViolacionSeguridad> buscarAnterioresA(LocalDateTime fechaLimite, int limite) {
+        return jdbcTemplate.query(COLUMNAS + " WHERE fecha_hora < ? ORDER BY fecha_hora, id LIMIT ?",
+                MAPEADOR, Timestamp.valueOf(fechaLimite), limite);
+    }
+
+    @Override
+    public int eliminarPorIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String marcadores = String.join(",", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.update("DELETE FROM log_violacion_seguridad WHERE id IN (" + marcadores + ")",
+                ids.toArray());
+    }
+
+    private static boolean tieneTexto(String texto) {
+        return texto != null && !texto.isBlank();
+    }
+}
@@ -1,11 +1,37 @@
 package com.ejemplo.notasapp.repositorio;
 
 import com.ejemplo.notasapp.modelo.Nota;
+import com.ejemplo.notasapp.modelo.PromedioMateria;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
+import java.util.Optional;
 
 public interface RepositorioNota extends JpaRepository<Nota, Long> {
     List<Nota> findByEstudianteId(Long estudianteId);
 
     List<Nota> findByEstudianteIdAndMateria(Long estudianteId, String materia);
-}
\ No newline at end of file
+
+    // Solo la clave foránea del propietario, sin cargar la Nota ni el Estudiante
+    @Query("select n.estudiante.id from Nota n where n.id = :notaId")
+    Optional<Long> findEstudianteIdById(@Param("notaId") Long notaId);
+
+    // Todas las notas del estudiante en una sentencia; la cascada de Estudiante.notas
+    // las borraría una por una
+    @Modifying
+    @Query("delete from Nota n where n.estudiante.id = :estudianteId")
+    int eliminarPorEstudiante(@Param("estudianteId") Long estudianteId);
+
+    // Promedios ponderados por materia de un estudiante agregados desde las notas;
+    // sirve de referencia para el resumen en RepositorioResumenNota
+    @Query("select n.estudiante.id as estudianteId, n.materia as materia, "
+            + "case when sum(n.porcentaje) > 0 then sum(n.valor * n.porcentaje) / sum(n.porcentaje) end as promedio, "
+            + "count(n) as totalNotas "
+            + "from Nota n where n.estudiante.id = :estudianteId "
+            + "group by n.estudiante.id, n.materia order by n.materia")
+    List<PromedioMateria> calcularPromediosPorMateria(@Param("estudianteId") Long estudianteId);
+
+}
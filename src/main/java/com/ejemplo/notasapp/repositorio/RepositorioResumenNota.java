@@ -0,0 +1,29 @@
+package com.ejemplo.notasapp.repositorio;
+
+import com.ejemplo.notasapp.modelo.PromedioMateria;
+import com.ejemplo.notasapp.modelo.ResumenNota;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RepositorioResumenNota extends JpaRepository<ResumenNota, Long> {
+
+    Optional<ResumenNota> findByEstudianteIdAndMateria(Long estudianteId, String materia);
+
+    // Promedios por materia de un estudiante leídos del resumen, sin recorrer sus notas
+    @Query("select r.estudianteId as estudianteId, r.materia as materia, "
+            + "case when r.sumaPorcentajes > 0 then r.sumaPonderada / r.sumaPorcentajes end as promedio, "
+            + "r.totalNotas as totalNotas "
+            + "from ResumenNota r where r.estudianteId = :estudianteId and r.totalNotas > 0 order by r.materia")
+    List<PromedioMateria> promediosPorMateria(@Param("estudianteId") Long estudianteId);
+
+    // Promedios por materia de todo el curso leídos del resumen
+    @Query("select r.estudianteId as estudianteId, r.materia as materia, "
+            + "case when r.sumaPorcentajes > 0 then r.sumaPonderada / r.sumaPorcentajes end as promedio, "
+            + "r.totalNotas as totalNotas "
+            + "from ResumenNota r where r.totalNotas > 0 order by r.estudianteId, r.materia")
+    List<PromedioMateria> promediosPorMateriaCurso();
+}
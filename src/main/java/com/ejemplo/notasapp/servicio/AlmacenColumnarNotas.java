@@ -0,0 +1,586 @@
+package com.ejemplo.notasapp.servicio;
+
+import com.ejemplo.notasapp.modelo.EstadisticasNotas;
+import com.ejemplo.notasapp.modelo.Nota;
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.Registrador;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Copia en memoria de las notas en columnas de tipos primitivos para las
+ * estadísticas del curso: id y estudianteId (long), materia codificada con un
+ * diccionario (int), valor y porcentaje (double, NaN si es nulo). Son 36 bytes
+ * por nota, sin cabeceras de objeto ni Double en caja.
+ *
+ * Se carga completa al iniciar. Luego los controladores notifican cada nota
+ * guardada o eliminada y cada estudiante eliminado después del commit, y el
+ * cambio se aplica sobre las columnas; una importación masiva recarga todo en
+ * segundo plano. Los cambios que llegan mientras se lee la base de datos se
+ * vuelven a aplicar sobre la copia nueva.
+ *
+ * Las filas están ordenadas por id; una nota eliminada queda marcada con
+ * materia -1 hasta que la compactación la quita.
+ */
+@Service
+public class AlmacenColumnarNotas {
+
+    public static final int BYTES_POR_FILA = Long.BYTES * 2 + Integer.BYTES + Double.BYTES * 2;
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+    private static final int ELIMINADA = -1;
+    private static final int TODAS = -2;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ConfiguracionHilos configuracionHilos;
+
+    @Autowired
+    private RegistroEventos registroEventos;
+
+    @Value("${notasapp.analitica.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${notasapp.analitica.tamano-fetch:2000}")
+    private int tamanoFetch;
+
+    // Plantilla propia para no cambiar el fetch size del JdbcTemplate compartido
+    private JdbcTemplate jdbcCursor;
+    private ExecutorService cargador;
+    private Registrador registro;
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private final ReentrantLock cargando = new ReentrantLock();
+    private final AtomicBoolean recargaPendiente = new AtomicBoolean();
+
+    // Protegidos por candado
+    private Columnas columnas = new Columnas(0);
+    private List<Runnable> cambiosDuranteCarga;
+
+    private volatile boolean cargado;
+    private volatile long duracionUltimaCargaMs;
+
+    @PostConstruct
+    public void iniciar() {
+        registro = registroEventos.registrador("AlmacenColumnarNotas");
+        if (!habilitada) {
+            return;
+        }
+        jdbcCursor = new JdbcTemplate(dataSource);
+        jdbcCursor.setFetchSize(tamanoFetch);
+        cargador = Executors.newSingleThreadExecutor(configuracionHilos.fabrica("carga-analitica"));
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (cargador != null) {
+            cargador.shutdownNow();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        if (habilitada) {
+            recargar();
+        }
+    }
+
+    public void notaGuardada(Nota nota) {
+        if (!habilitada || nota.getId() == null) {
+            return;
+        }
+        long id = nota.getId();
+        Long estudianteId = nota.getEstudiante() != null ? nota.getEstudiante().getId() : null;
+        String materia = nota.getMateria();
+        double valor = nota.getValor() != null ? nota.getValor() : Double.NaN;
+        double porcentaje = nota.getPorcentaje() != null ? nota.getPorcentaje() : Double.NaN;
+        aplicar(() -> {
+            if (estudianteId != null) {
+                columnas.guardar(id, estudianteId, materia, valor, porcentaje);
+            } else {
+                columnas.eliminar(id);
+            }
+        });
+    }
+
+    public void notaEliminada(long notaId) {
+        if (habilitada) {
+            aplicar(() -> columnas.eliminar(notaId));
+        }
+    }
+
+    public void estudianteEliminado(long estudianteId) {
+        if (habilitada) {
+            aplicar(() -> columnas.eliminarEstudiante(estudianteId));
+        }
+    }
+
+    /**
+     * Programa una recarga completa en segundo plano; varias importaciones
+     * seguidas comparten la misma recarga si aún no empezó.
+     */
+    public void notasImportadas() {
+        if (habilitada && recargaPendiente.compareAndSet(false, true)) {
+            cargador.execute(() -> {
+                recargaPendiente.set(false);
+                try {
+                    recargar();
+                } catch (Exception e) {
+                    registro.evento(NivelEvento.ERROR, "error_recarga_analitica", "error", e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void aplicar(Runnable cambio) {
+        candado.writeLock().lock();
+        try {
+            cambio.run();
+            if (cambiosDuranteCarga != null) {
+                cambiosDuranteCarga.add(cambio);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lee todas las notas en columnas nuevas y las reemplaza. Las consultas
+     * siguen usando las anteriores mientras dura la lectura.
+     */
+    public void recargar() {
+        cargando.lock();
+        try {
+            long inicio = System.currentTimeMillis();
+            candado.writeLock().lock();
+            try {
+                cambiosDuranteCarga = new ArrayList<>();
+            } finally {
+                candado.writeLock().unlock();
+            }
+
+            Columnas leidas = new Columnas(CAPACIDAD_INICIAL);
+            try {
+                jdbcCursor.query("SELECT id, estudiante_id, materia, valor, porcentaje FROM nota "
+                        + "WHERE estudiante_id IS NOT NULL ORDER BY id", rs -> {
+                            double valor = rs.getDouble(4);
+                            if (rs.wasNull()) {
+                                valor = Double.NaN;
+                            }
+                            double porcentaje = rs.getDouble(5);
+                            if (rs.wasNull()) {
+                                porcentaje = Double.NaN;
+                            }
+                            leidas.agregar(rs.getLong(1), rs.getLong(2), rs.getString(3), valor, porcentaje);
+                        });
+            } catch (RuntimeException e) {
+                candado.writeLock().lock();
+                try {
+                    cambiosDuranteCarga = null;
+                } finally {
+                    candado.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            candado.writeLock().lock();
+            try {
+                columnas = leidas;
+                try {
+                    cambiosDuranteCarga.forEach(Runnable::run);
+                } finally {
+                    cambiosDuranteCarga = null;
+                }
+            } finally {
+                candado.writeLock().unlock();
+            }
+            cargado = true;
+            duracionUltimaCargaMs = System.currentTimeMillis() - inicio;
+        } finally {
+            cargando.unlock();
+        }
+    }
+
+    /**
+     * Agregados por materia, histograma de valores y los mejores estudiantes
+     * por promedio ponderado. Si se indica una materia, el histograma y el
+     * ranking se limitan a ella.
+     */
+    public EstadisticasNotas estadisticas(String materia, int intervalos, int top) {
+        long inicio = System.nanoTime();
+        candado.readLock().lock();
+        try {
+            Columnas c = columnas;
+            int filtro = TODAS;
+            if (materia != null && !materia.isBlank()) {
+                filtro = c.codigos.getOrDefault(materia.trim(), ELIMINADA);
+            }
+
+            List<EstadisticasNotas.Materia> materias = new ArrayList<>();
+            double[] rango = agregarPorMateria(c, materias, filtro);
+            long[] conteos = new long[Math.max(1, intervalos)];
+            double[] limites = histograma(c, filtro, rango[0], rango[1], conteos);
+            List<EstadisticasNotas.Posicion> ranking = ranking(c, filtro, Math.max(0, top));
+
+            return new EstadisticasNotas(materias, limites, conteos, ranking, c.filas - c.eliminadas,
+                    c.ids.length, (long) c.ids.length * BYTES_POR_FILA, (System.nanoTime() - inicio) / 1000);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // Llena materias y retorna el mínimo y máximo de los valores que pasan el filtro
+    private static double[] agregarPorMateria(Columnas c, List<EstadisticasNotas.Materia> salida, int filtro) {
+        int grupos = c.diccionario.size();
+        long[] total = new long[grupos];
+        long[] conValor = new long[grupos];
+        double[] suma = new double[grupos];
+        double[] sumaCuadrados = new double[grupos];
+        double[] minimo = new double[grupos];
+        double[] maximo = new double[grupos];
+        double[] sumaPonderada = new double[grupos];
+        double[] sumaPorcentajes = new double[grupos];
+        Arrays.fill(minimo, Double.POSITIVE_INFINITY);
+        Arrays.fill(maximo, Double.NEGATIVE_INFINITY);
+
+        int[] materias = c.materias;
+        double[] valores = c.valores;
+        double[] porcentajes = c.porcentajes;
+        for (int i = 0; i < c.filas; i++) {
+            int m = materias[i];
+            if (m < 0) {
+                continue;
+            }
+            double v = valores[i];
+            double p = porcentajes[i];
+            total[m]++;
+            if (!Double.isNaN(v)) {
+                conValor[m]++;
+                suma[m] += v;
+                sumaCuadrados[m] += v * v;
+                minimo[m] = Math.min(minimo[m], v);
+                maximo[m] = Math.max(maximo[m], v);
+                if (!Double.isNaN(p)) {
+                    sumaPonderada[m] += v * p;
+                }
+            }
+            if (!Double.isNaN(p)) {
+                sumaPorcentajes[m] += p;
+            }
+        }
+
+        double minimoFiltro = Double.POSITIVE_INFINITY;
+        double maximoFiltro = Double.NEGATIVE_INFINITY;
+        for (int m = 0; m < grupos; m++) {
+            if (total[m] == 0) {
+                continue;
+            }
+            double promedio = conValor[m] > 0 ? suma[m] / conValor[m] : Double.NaN;
+            double varianza = conValor[m] > 0 ? sumaCuadrados[m] / conValor[m] - promedio * promedio : Double.NaN;
+            salida.add(new EstadisticasNotas.Materia(c.diccionario.get(m), total[m], promedio,
+                    sumaPorcentajes[m] > 0 ? sumaPonderada[m] / sumaPorcentajes[m] : Double.NaN,
+                    conValor[m] > 0 ? minimo[m] : Double.NaN, conValor[m] > 0 ? maximo[m] : Double.NaN,
+                    Math.sqrt(Math.max(0.0, varianza))));
+            if (filtro == TODAS || filtro == m) {
+                minimoFiltro = Math.min(minimoFiltro, minimo[m]);
+                maximoFiltro = Math.max(maximoFiltro, maximo[m]);
+            }
+        }
+        salida.sort(Comparator.comparing(EstadisticasNotas.Materia::getMateria));
+        return new double[] { minimoFiltro, maximoFiltro };
+    }
+
+    private static double[] histograma(Columnas c, int filtro, double minimo, double maximo, long[] conteos) {
+        int intervalos = conteos.length;
+        double[] limites = new double[intervalos + 1];
+        if (minimo > maximo) {
+            return limites;
+        }
+        double ancho = maximo > minimo ? (maximo - minimo) / intervalos : 1.0;
+        for (int i = 0; i <= intervalos; i++) {
+            limites[i] = minimo + ancho * i;
+        }
+
+        int[] materias = c.materias;
+        double[] valores = c.valores;
+        for (int i = 0; i < c.filas; i++) {
+            int m = materias[i];
+            double v = valores[i];
+            if (m < 0 || (filtro != TODAS && m != filtro) || Double.isNaN(v)) {
+                continue;
+            }
+            conteos[Math.min((int) ((v - minimo) / ancho), intervalos - 1)]++;
+        }
+        return limites;
+    }
+
+    private static List<EstadisticasNotas.Posicion> ranking(Columnas c, int filtro, int top) {
+        IndiceEstudiantes indice = new IndiceEstudiantes();
+        double[] sumaPonderada = new double[CAPACIDAD_INICIAL];
+        double[] sumaPorcentajes = new double[CAPACIDAD_INICIAL];
+        long[] total = new long[CAPACIDAD_INICIAL];
+
+        int[] materias = c.materias;
+        long[] estudiantes = c.estudiantes;
+        double[] valores = c.valores;
+        double[] porcentajes = c.porcentajes;
+        for (int i = 0; i < c.filas; i++) {
+            int m = materias[i];
+            if (m < 0 || (filtro != TODAS && m != filtro)) {
+                continue;
+            }
+            int e = indice.posicion(estudiantes[i]);
+            if (e == total.length) {
+                sumaPonderada = Arrays.copyOf(sumaPonderada, e * 2);
+                sumaPorcentajes = Arrays.copyOf(sumaPorcentajes, e * 2);
+                total = Arrays.copyOf(total, e * 2);
+            }
+            double v = valores[i];
+            double p = porcentajes[i];
+            total[e]++;
+            if (!Double.isNaN(p)) {
+                sumaPorcentajes[e] += p;
+                if (!Double.isNaN(v)) {
+                    sumaPonderada[e] += v * p;
+                }
+            }
+        }
+
+        // Montículo de los top mejores: en la raíz queda el peor de ellos
+        Comparator<EstadisticasNotas.Posicion> orden = Comparator
+                .comparingDouble(EstadisticasNotas.Posicion::getPromedio)
+                .thenComparing(Comparator.comparingLong(EstadisticasNotas.Posicion::getEstudianteId).reversed());
+        PriorityQueue<EstadisticasNotas.Posicion> mejores = new PriorityQueue<>(orden);
+        for (int e = 0; e < indice.tamano && top > 0; e++) {
+            if (sumaPorcentajes[e] <= 0) {
+                continue;
+            }
+            double promedio = sumaPonderada[e] / sumaPorcentajes[e];
+            if (mejores.size() < top) {
+                mejores.add(new EstadisticasNotas.Posicion(indice.estudiantes[e], promedio, total[e]));
+            } else if (promedio > mejores.peek().getPromedio()) {
+                mejores.poll();
+                mejores.add(new EstadisticasNotas.Posicion(indice.estudiantes[e], promedio, total[e]));
+            }
+        }
+        List<EstadisticasNotas.Posicion> ranking = new ArrayList<>(mejores);
+        ranking.sort(orden.reversed());
+        return ranking;
+    }
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public boolean isCargado() {
+        return cargado;
+    }
+
+    public long getDuracionUltimaCargaMs() {
+        return duracionUltimaCargaMs;
+    }
+
+    /**
+     * Columnas paralelas ordenadas por id. Sin sincronización propia: el
+     * almacén las protege con su candado.
+     */
+    private static final class Columnas {
+        private long[] ids;
+        private long[] estudiantes;
+        private int[] materias;
+        private double[] valores;
+        private double[] porcentajes;
+        private int filas;
+        private int eliminadas;
+        private final List<String> diccionario = new ArrayList<>();
+        private final Map<String, Integer> codigos = new HashMap<>();
+
+        private Columnas(int capacidad) {
+            ids = new long[capacidad];
+            estudiantes = new long[capacidad];
+            materias = new int[capacidad];
+            valores = new double[capacidad];
+            porcentajes = new double[capacidad];
+        }
+
+        private int codigo(String materia) {
+            return codigos.computeIfAbsent(materia != null ? materia : "", m -> {
+                diccionario.add(m);
+                return diccionario.size() - 1;
+            });
+        }
+
+        // Carga inicial: los ids llegan en orden
+        private void agregar(long id, long estudianteId, String materia, double valor, double porcentaje) {
+            asegurarCapacidad(filas + 1);
+            escribir(filas++, id, estudianteId, materia, valor, porcentaje);
+        }
+
+        private void guardar(long id, long estudianteId, String materia, double valor, double porcentaje) {
+            int posicion = buscar(id);
+            if (posicion < 0) {
+                posicion = -posicion - 1;
+                asegurarCapacidad(filas + 1);
+                if (posicion < filas) {
+                    // Un id menor que el último solo llega si dos inserciones confirmaron en otro orden
+                    int mover = filas - posicion;
+                    System.arraycopy(ids, posicion, ids, posicion + 1, mover);
+                    System.arraycopy(estudiantes, posicion, estudiantes, posicion + 1, mover);
+                    System.arraycopy(materias, posicion, materias, posicion + 1, mover);
+                    System.arraycopy(valores, posicion, valores, posicion + 1, mover);
+                    System.arraycopy(porcentajes, posicion, porcentajes, posicion + 1, mover);
+                }
+                filas++;
+            } else if (materias[posicion] == ELIMINADA) {
+                eliminadas--;
+            }
+            escribir(posicion, id, estudianteId, materia, valor, porcentaje);
+        }
+
+        private void escribir(int posicion, long id, long estudianteId, String materia, double valor,
+                double porcentaje) {
+            ids[posicion] = id;
+            estudiantes[posicion] = estudianteId;
+            materias[posicion] = codigo(materia);
+            valores[posicion] = valor;
+            porcentajes[posicion] = porcentaje;
+        }
+
+        private int buscar(long id) {
+            if (filas == 0 || id > ids[filas - 1]) {
+                return -filas - 1;
+            }
+            return Arrays.binarySearch(ids, 0, filas, id);
+        }
+
+        private void eliminar(long id) {
+            int posicion = buscar(id);
+            if (posicion >= 0 && materias[posicion] != ELIMINADA) {
+                materias[posicion] = ELIMINADA;
+                eliminadas++;
+                compactarSiConviene();
+            }
+        }
+
+        private void eliminarEstudiante(long estudianteId) {
+            for (int i = 0; i < filas; i++) {
+                if (estudiantes[i] == estudianteId && materias[i] != ELIMINADA) {
+                    materias[i] = ELIMINADA;
+                    eliminadas++;
+                }
+            }
+            compactarSiConviene();
+        }
+
+        private void compactarSiConviene() {
+            if (eliminadas < CAPACIDAD_INICIAL || eliminadas < filas / 4) {
+                return;
+            }
+            int destino = 0;
+            for (int i = 0; i < filas; i++) {
+                if (materias[i] == ELIMINADA) {
+                    continue;
+                }
+                ids[destino] = ids[i];
+                estudiantes[destino] = estudiantes[i];
+                materias[destino] = materias[i];
+                valores[destino] = valores[i];
+                porcentajes[destino] = porcentajes[i];
+                destino++;
+            }
+            filas = destino;
+            eliminadas = 0;
+        }
+
+        private void asegurarCapacidad(int requerida) {
+            if (requerida <= ids.length) {
+                return;
+            }
+            int capacidad = Math.max(requerida, Math.max(CAPACIDAD_INICIAL, ids.length + (ids.length >> 1)));
+            ids = Arrays.copyOf(ids, capacidad);
+            estudiantes = Arrays.copyOf(estudiantes, capacidad);
+            materias = Arrays.copyOf(materias, capacidad);
+            valores = Arrays.copyOf(valores, capacidad);
+            porcentajes = Arrays.copyOf(porcentajes, capacidad);
+        }
+    }
+
+    /**
+     * Asigna posiciones consecutivas a los estudiantes con direccionamiento
+     * abierto sobre un long[], sin Long en caja por estudiante.
+     */
+    private static final class IndiceEstudiantes {
+        private long[] claves = new long[CAPACIDAD_INICIAL * 2];
+        private int[] posiciones = new int[CAPACIDAD_INICIAL * 2];
+        private boolean[] ocupadas = new boolean[CAPACIDAD_INICIAL * 2];
+        private long[] estudiantes = new long[CAPACIDAD_INICIAL];
+        private int tamano;
+
+        private int posicion(long estudianteId) {
+            int mascara = claves.length - 1;
+            int i = Long.hashCode(estudianteId * 0x9E3779B97F4A7C15L) & mascara;
+            while (ocupadas[i]) {
+                if (claves[i] == estudianteId) {
+                    return posiciones[i];
+                }
+                i = (i + 1) & mascara;
+            }
+            if (tamano == estudiantes.length) {
+                estudiantes = Arrays.copyOf(estudiantes, tamano * 2);
+            }
+            ocupadas[i] = true;
+            claves[i] = estudianteId;
+            posiciones[i] = tamano;
+            estudiantes[tamano] = estudianteId;
+            if (++tamano * 2 > claves.length) {
+                redimensionar();
+            }
+            return tamano - 1;
+        }
+
+        private void redimensionar() {
+            long[] clavesAnteriores = claves;
+            int[] posicionesAnteriores = posiciones;
+            boolean[] ocupadasAnteriores = ocupadas;
+            claves = new long[clavesAnteriores.length * 2];
+            posiciones = new int[clavesAnteriores.length * 2];
+            ocupadas = new boolean[clavesAnteriores.length * 2];
+            int mascara = claves.length - 1;
+            for (int j = 0; j < clavesAnteriores.length; j++) {
+                if (!ocupadasAnteriores[j]) {
+                    continue;
+                }
+                int i = Long.hashCode(clavesAnteriores[j] * 0x9E3779B97F4A7C15L) & mascara;
+                while (ocupadas[i]) {
+                    i = (i + 1) & mascara;
+                }
+                ocupadas[i] = true;
+                claves[i] = clavesAnteriores[j];
+                posiciones[i] = posicionesAnteriores[j];
+            }
+        }
+    }
+}
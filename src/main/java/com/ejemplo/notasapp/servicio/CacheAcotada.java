@@ -0,0 +1,157 @@
+package com.ejemplo.notasapp.servicio;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caché de lectura con tamaño máximo y tiempo de vida por entrada.
+ *
+ * Se divide en segmentos con su propio candado; cada segmento es un
+ * LinkedHashMap en orden de acceso que desaloja la entrada menos usada al
+ * superar su capacidad. El cargador se ejecuta fuera del candado, y cada
+ * segmento lleva una versión que se incrementa al invalidar: un valor cargado
+ * antes de una invalidación concurrente no se guarda.
+ */
+public class CacheAcotada<K, V> {
+
+    private static final int SEGMENTOS = 16;
+
+    private final Segmento<K, V>[] segmentos;
+    private final long ttlNanos;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+    private final LongAdder expirados = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public CacheAcotada(int capacidad, long ttlMs) {
+        int capacidadSegmento = Math.max(1, capacidad / SEGMENTOS);
+        this.segmentos = new Segmento[SEGMENTOS];
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento<>(capacidadSegmento, desalojos);
+        }
+        this.ttlNanos = ttlMs * 1_000_000L;
+    }
+
+    /**
+     * Retorna el valor de la clave, cargándolo con `cargador` si no está o
+     * venció. Los valores null no se guardan.
+     */
+    public V obtener(K clave, Function<K, V> cargador) {
+        Segmento<K, V> segmento = segmentoDe(clave);
+        long ahora = System.nanoTime();
+        long version;
+
+        synchronized (segmento) {
+            Entrada<V> entrada = segmento.mapa.get(clave);
+            if (entrada != null) {
+                if (ahora - entrada.creadaEn < ttlNanos) {
+                    aciertos.increment();
+                    return entrada.valor;
+                }
+                segmento.mapa.remove(clave);
+                expirados.increment();
+            }
+            version = segmento.version;
+        }
+
+        fallos.increment();
+        V valor = cargador.apply(clave);
+        if (valor == null) {
+            return null;
+        }
+
+        synchronized (segmento) {
+            if (segmento.version == version) {
+                segmento.mapa.put(clave, new Entrada<>(valor, ahora));
+            }
+        }
+        return valor;
+    }
+
+    public void invalidar(K clave) {
+        Segmento<K, V> segmento = segmentoDe(clave);
+        synchronized (segmento) {
+            segmento.mapa.remove(clave);
+            segmento.version++;
+        }
+    }
+
+    public void invalidarTodo() {
+        for (Segmento<K, V> segmento : segmentos) {
+            synchronized (segmento) {
+                segmento.mapa.clear();
+                segmento.version++;
+            }
+        }
+    }
+
+    private Segmento<K, V> segmentoDe(K clave) {
+        int h = clave.hashCode();
+        return segmentos[(h ^ (h >>> 16)) & (SEGMENTOS - 1)];
+    }
+
+    // Métricas
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public long getDesalojos() {
+        return desalojos.sum();
+    }
+
+    public long getExpirados() {
+        return expirados.sum();
+    }
+
+    public int getTamano() {
+        int total = 0;
+        for (Segmento<K, V> segmento : segmentos) {
+            synchronized (segmento) {
+                total += segmento.mapa.size();
+            }
+        }
+        return total;
+    }
+
+    public double getTasaAciertos() {
+        long a = getAciertos();
+        long total = a + getFallos();
+        return total > 0 ? (double) a / total : 0.0;
+    }
+
+    private static final class Entrada<V> {
+        private final V valor;
+        private final long creadaEn;
+
+        private Entrada(V valor, long creadaEn) {
+            this.valor = valor;
+            this.creadaEn = creadaEn;
+        }
+    }
+
+    private static final class Segmento<K, V> {
+        private final LinkedHashMap<K, Entrada<V>> mapa;
+        private long version;
+
+        private Segmento(int capacidad, LongAdder desalojos) {
+            this.mapa = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> mayor) {
+                    if (size() > capacidad) {
+                        desalojos.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
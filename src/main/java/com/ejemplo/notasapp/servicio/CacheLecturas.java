@@ -0,0 +1,146 @@
+package com.ejemplo.notasapp.servicio;
+
+import com.ejemplo.notasapp.modelo.EstudianteResumen;
+import com.ejemplo.notasapp.modelo.FilaNotaEstudiante;
+import com.ejemplo.notasapp.modelo.Nota;
+import com.ejemplo.notasapp.modelo.VistaNotasEstudiante;
+import com.ejemplo.notasapp.repositorio.RepositorioEstudiante;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Caché de lectura de estudiantes y de la vista de notas de cada estudiante.
+ *
+ * notasapp.cache-lecturas.modo elige la estrategia:
+ * - APLICACION: cachés acotadas en memoria (CacheAcotada) con tamaño y TTL
+ * - HIBERNATE: caché de segundo nivel y de consultas de Hibernate
+ *   (ver ConfiguracionCacheHibernate); aquí solo se delega al repositorio
+ * - NINGUNA: siempre se consulta la base de datos
+ *
+ * Los controladores invalidan al guardar o eliminar estudiantes y notas; la
+ * importación masiva invalida todas las listas de notas porque escribe por
+ * JDBC, fuera de Hibernate.
+ */
+@Service
+public class CacheLecturas {
+
+    public enum Modo {
+        APLICACION,
+        HIBERNATE,
+        NINGUNA
+    }
+
+    @Autowired
+    private RepositorioEstudiante repositorioEstudiante;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${notasapp.cache-lecturas.modo:APLICACION}")
+    private Modo modo;
+
+    @Value("${notasapp.cache-lecturas.capacidad-estudiantes:10000}")
+    private int capacidadEstudiantes;
+
+    @Value("${notasapp.cache-lecturas.capacidad-notas:2000}")
+    private int capacidadNotas;
+
+    @Value("${notasapp.cache-lecturas.ttl-ms:300000}")
+    private long ttlMs;
+
+    private CacheAcotada<Long, EstudianteResumen> estudiantes;
+    private CacheAcotada<Long, VistaNotasEstudiante> notasPorEstudiante;
+
+    @PostConstruct
+    public void iniciar() {
+        estudiantes = new CacheAcotada<>(capacidadEstudiantes, ttlMs);
+        notasPorEstudiante = new CacheAcotada<>(capacidadNotas, ttlMs);
+    }
+
+    public Optional<EstudianteResumen> buscarEstudiante(Long id) {
+        if (modo != Modo.APLICACION) {
+            return cargarEstudiante(id);
+        }
+        return Optional.ofNullable(estudiantes.obtener(id, clave -> cargarEstudiante(clave).orElse(null)));
+    }
+
+    public boolean existeEstudiante(Long id) {
+        return buscarEstudiante(id).isPresent();
+    }
+
+    /**
+     * Encabezado y notas del estudiante en una sola consulta, opcionalmente
+     * filtradas por materia y ordenadas. En modo APLICACION se guarda en caché
+     * la vista sin filtro en el orden por defecto; las demás combinaciones
+     * van siempre a la base de datos. Retorna vacío si el estudiante no existe.
+     */
+    public Optional<VistaNotasEstudiante> vistaNotas(Long estudianteId, String materia,
+            VistaNotasEstudiante.Orden orden) {
+        boolean porDefecto = (materia == null || materia.isBlank()) && orden == VistaNotasEstudiante.Orden.ID;
+        if (modo != Modo.APLICACION || !porDefecto) {
+            return Optional.ofNullable(cargarVista(estudianteId, materia, orden));
+        }
+        return Optional.ofNullable(notasPorEstudiante.obtener(estudianteId,
+                clave -> cargarVista(clave, null, VistaNotasEstudiante.Orden.ID)));
+    }
+
+    private VistaNotasEstudiante cargarVista(Long estudianteId, String materia, VistaNotasEstudiante.Orden orden) {
+        Sort sort = JpaSort.unsafe(orden.getPropiedad());
+        if (orden != VistaNotasEstudiante.Orden.ID) {
+            sort = sort.and(JpaSort.unsafe("n.id"));
+        }
+        List<FilaNotaEstudiante> filas = materia == null || materia.isBlank()
+                ? repositorioEstudiante.buscarConNotas(estudianteId, sort)
+                : repositorioEstudiante.buscarConNotasDeMateria(estudianteId, materia.trim(), sort);
+        return VistaNotasEstudiante.desdeFilas(filas);
+    }
+
+    private Optional<EstudianteResumen> cargarEstudiante(Long id) {
+        return repositorioEstudiante.findById(id)
+                .map(e -> new EstudianteResumen(e.getId(), e.getNombre(), e.getApellido(), e.getCorreo()));
+    }
+
+    // Invalidación
+    public void invalidarEstudiante(Long id) {
+        estudiantes.invalidar(id);
+        notasPorEstudiante.invalidar(id);
+    }
+
+    public void invalidarNotas(Long estudianteId) {
+        notasPorEstudiante.invalidar(estudianteId);
+    }
+
+    /**
+     * Invalida todas las listas de notas, también en la caché de Hibernate,
+     * tras escrituras hechas por JDBC que Hibernate no ve.
+     */
+    public void invalidarTodasLasNotas() {
+        notasPorEstudiante.invalidarTodo();
+        if (modo == Modo.HIBERNATE) {
+            entityManagerFactory.getCache().evict(Nota.class);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        }
+    }
+
+    // Métricas
+    public Modo getModo() {
+        return modo;
+    }
+
+    public CacheAcotada<Long, EstudianteResumen> getEstudiantes() {
+        return estudiantes;
+    }
+
+    public CacheAcotada<Long, VistaNotasEstudiante> getNotasPorEstudiante() {
+        return notasPorEstudiante;
+    }
+}
@@ -0,0 +1,207 @@
+package com.ejemplo.notasapp.servicio;
+
+import com.ejemplo.notasapp.repositorio.RepositorioNota;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Índice en memoria notaId -> estudianteId usado por la autorización.
+ *
+ * Evita cargar la Nota completa (y su Estudiante) solo para comparar el
+ * propietario. Es una caché de tamaño fijo sobre arreglos de long: asociativa
+ * por conjuntos de 4 vías, con desalojo LRU dentro de cada conjunto y un
+ * candado por franja de conjuntos. En un fallo consulta únicamente la clave
+ * foránea mediante RepositorioNota.findEstudianteIdById.
+ *
+ * NotaController invalida la entrada al guardar o eliminar una nota y
+ * EstudianteController las de un estudiante eliminado. Cada franja lleva una
+ * versión que se incrementa al invalidar: un propietario leído de la base de
+ * datos antes de una invalidación concurrente no se guarda, como en
+ * CacheAcotada.
+ */
+@Service
+public class CachePropietarioNota {
+
+    public static final long SIN_PROPIETARIO = -1L;
+
+    private static final long VACIO = Long.MIN_VALUE;
+    private static final int VIAS = 4;
+    private static final int FRANJAS = 64;
+
+    @Autowired
+    private RepositorioNota repositorioNota;
+
+    @Value("${notasapp.cache-propietarios.capacidad:65536}")
+    private int capacidad;
+
+    private long[] claves;
+    private long[] valores;
+    private long[] usos;
+    private long[] relojes;
+    private long[] versiones;
+    private Object[] candados;
+    private int mascaraConjuntos;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    @PostConstruct
+    public void iniciar() {
+        int conjuntos = Integer.highestOneBit(Math.max(capacidad / VIAS, FRANJAS));
+        mascaraConjuntos = conjuntos - 1;
+        claves = new long[conjuntos * VIAS];
+        valores = new long[conjuntos * VIAS];
+        usos = new long[conjuntos * VIAS];
+        relojes = new long[FRANJAS];
+        versiones = new long[FRANJAS];
+        Arrays.fill(claves, VACIO);
+        candados = new Object[FRANJAS];
+        for (int i = 0; i < FRANJAS; i++) {
+            candados[i] = new Object();
+        }
+    }
+
+    /**
+     * Retorna el estudianteId propietario de la nota, o SIN_PROPIETARIO si la
+     * nota no existe.
+     */
+    public long obtenerPropietario(long notaId) {
+        long propietario = buscar(notaId);
+        if (propietario != SIN_PROPIETARIO) {
+            aciertos.increment();
+            return propietario;
+        }
+
+        fallos.increment();
+        long version = versionDe(notaId);
+        Long estudianteId = repositorioNota.findEstudianteIdById(notaId).orElse(null);
+        if (estudianteId == null) {
+            // Las notas inexistentes no se guardan en caché
+            return SIN_PROPIETARIO;
+        }
+        guardar(notaId, estudianteId, version);
+        return estudianteId;
+    }
+
+    /**
+     * Elimina la entrada de una nota modificada o borrada.
+     */
+    public void invalidar(long notaId) {
+        int base = indiceConjunto(notaId) * VIAS;
+        int franja = franjaDe(notaId);
+        synchronized (candados[franja]) {
+            versiones[franja]++;
+            for (int i = base; i < base + VIAS; i++) {
+                if (claves[i] == notaId) {
+                    claves[i] = VACIO;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Elimina las entradas de todas las notas de un estudiante borrado.
+     * Recorre la caché completa, franja por franja.
+     */
+    public void invalidarEstudiante(long estudianteId) {
+        int conjuntos = mascaraConjuntos + 1;
+        for (int franja = 0; franja < FRANJAS; franja++) {
+            synchronized (candados[franja]) {
+                versiones[franja]++;
+                for (int conjunto = franja; conjunto < conjuntos; conjunto += FRANJAS) {
+                    for (int i = conjunto * VIAS; i < (conjunto + 1) * VIAS; i++) {
+                        if (claves[i] != VACIO && valores[i] == estudianteId) {
+                            claves[i] = VACIO;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private long versionDe(long notaId) {
+        int franja = franjaDe(notaId);
+        synchronized (candados[franja]) {
+            return versiones[franja];
+        }
+    }
+
+    private long buscar(long notaId) {
+        int base = indiceConjunto(notaId) * VIAS;
+        int franja = franjaDe(notaId);
+        synchronized (candados[franja]) {
+            for (int i = base; i < base + VIAS; i++) {
+                if (claves[i] == notaId) {
+                    usos[i] = ++relojes[franja];
+                    return valores[i];
+                }
+            }
+        }
+        return SIN_PROPIETARIO;
+    }
+
+    private void guardar(long notaId, long estudianteId, long version) {
+        int base = indiceConjunto(notaId) * VIAS;
+        int franja = franjaDe(notaId);
+        synchronized (candados[franja]) {
+            if (versiones[franja] != version) {
+                // Hubo una invalidación mientras se consultaba: el valor puede ser el anterior
+                return;
+            }
+            int destino = -1;
+            for (int i = base; i < base + VIAS; i++) {
+                if (claves[i] == notaId || claves[i] == VACIO) {
+                    destino = i;
+                    break;
+                }
+            }
+            if (destino < 0) {
+                // Conjunto lleno: desalojar la vía usada hace más tiempo
+                destino = base;
+                for (int i = base + 1; i < base + VIAS; i++) {
+                    if (usos[i] < usos[destino]) {
+                        destino = i;
+                    }
+                }
+                desalojos.increment();
+            }
+            claves[destino] = notaId;
+            valores[destino] = estudianteId;
+            usos[destino] = ++relojes[franja];
+        }
+    }
+
+    private int indiceConjunto(long notaId) {
+        long h = notaId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascaraConjuntos;
+    }
+
+    // Los conjuntos de una misma franja comparten candado
+    private int franjaDe(long notaId) {
+        return indiceConjunto(notaId) & (FRANJAS - 1);
+    }
+
+    // Métricas
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public long getDesalojos() {
+        return desalojos.sum();
+    }
+
+    public int getCapacidad() {
+        return claves.length;
+    }
+}
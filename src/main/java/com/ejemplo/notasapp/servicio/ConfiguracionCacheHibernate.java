@@ -0,0 +1,37 @@
+package com.ejemplo.notasapp.servicio;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Activa la caché de segundo nivel y de consultas de Hibernate (JCache con
+ * Ehcache) solo cuando notasapp.cache-lecturas.modo=HIBERNATE, junto con las
+ * estadísticas de Hibernate para comparar la tasa de aciertos con la caché de
+ * la aplicación en /debug/cache-lecturas.
+ *
+ * Estudiante y Nota están marcadas con @Cache; las consultas de la vista de
+ * notas (RepositorioEstudiante.buscarConNotas*) llevan la pista cacheable.
+ */
+@Component
+public class ConfiguracionCacheHibernate implements HibernatePropertiesCustomizer {
+
+    @Value("${notasapp.cache-lecturas.modo:APLICACION}")
+    private CacheLecturas.Modo modo;
+
+    @Override
+    public void customize(Map<String, Object> propiedades) {
+        boolean habilitada = modo == CacheLecturas.Modo.HIBERNATE;
+        propiedades.put("hibernate.cache.use_second_level_cache", habilitada);
+        propiedades.put("hibernate.cache.use_query_cache", habilitada);
+        if (habilitada) {
+            propiedades.put("hibernate.cache.region.factory_class", "jcache");
+            propiedades.put("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+            // Regiones creadas al vuelo con la configuración por defecto del proveedor
+            propiedades.put("hibernate.javax.cache.missing_cache_strategy", "create");
+            propiedades.put("hibernate.generate_statistics", true);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.ejemplo.notasapp.servicio;
+
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Modo de ejecución de las peticiones y de los hilos de fondo.
+ *
+ * notasapp.hilos.modo elige la estrategia:
+ * - PLATAFORMA: pool de hilos de Tomcat e hilos de plataforma dedicados
+ * - VIRTUALES: cada petición corre en un hilo virtual, igual que el escritor
+ *   de auditoría, el appender de eventos, la retención y la limpieza del
+ *   limitador
+ *
+ * Los hilos virtuales requieren Java 21 (perfil Maven `virtuales`). La API se
+ * obtiene por reflexión para que el proyecto siga compilando con Java 17; si
+ * el modo es VIRTUALES y la JVM no la ofrece, el arranque falla.
+ *
+ * Sin el tope de hilos de Tomcat, el pool de conexiones de Hikari pasa a ser
+ * el límite de concurrencia contra H2 (spring.datasource.hikari.*). H2 ejecuta
+ * cada sentencia dentro de synchronized(session), lo que fija el hilo virtual
+ * a su portador: con más conexiones que portadores, las consultas lentas
+ * pueden ocupar todos los portadores. Al arrancar se avisa si el pool los
+ * supera.
+ */
+@Component
+public class ConfiguracionHilos implements TomcatProtocolHandlerCustomizer<ProtocolHandler> {
+
+    public enum Modo {
+        PLATAFORMA,
+        VIRTUALES
+    }
+
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_NAME_CONTADOR;
+    private static final Method BUILDER_FACTORY;
+    private static final Method POR_TAREA;
+    private static final Method ES_VIRTUAL;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method nameContador = null;
+        Method factory = null;
+        Method porTarea = null;
+        Method esVirtual = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class);
+            nameContador = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+            porTarea = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            esVirtual = Thread.class.getMethod("isVirtual");
+            // En Java 19/20 la API existe pero es preview
+            ofVirtual.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = name;
+        BUILDER_NAME_CONTADOR = nameContador;
+        BUILDER_FACTORY = factory;
+        POR_TAREA = porTarea;
+        ES_VIRTUAL = esVirtual;
+    }
+
+    private final Modo modo;
+
+    @Autowired
+    private ObjectProvider<DataSource> dataSource;
+
+    // Diferido: RegistroEventos crea su hilo appender con esta configuración
+    @Autowired
+    private ObjectProvider<RegistroEventos> registroEventos;
+
+    public ConfiguracionHilos(@Value("${notasapp.hilos.modo:PLATAFORMA}") Modo modo) {
+        if (modo == Modo.VIRTUALES && !virtualesDisponibles()) {
+            throw new IllegalStateException("notasapp.hilos.modo=VIRTUALES requiere Java 21 o superior. "
+                    + "JVM actual: " + Runtime.version());
+        }
+        this.modo = modo;
+    }
+
+    /**
+     * Reemplaza el pool de hilos de Tomcat por un ejecutor de un hilo virtual
+     * por petición cuando el modo es VIRTUALES.
+     */
+    @Override
+    public void customize(ProtocolHandler protocolHandler) {
+        if (modo == Modo.VIRTUALES) {
+            protocolHandler.setExecutor(porTarea(fabricaVirtual("http-virtual-", true)));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void revisarPool() throws SQLException {
+        DataSource ds = dataSource.getIfAvailable();
+        if (modo != Modo.VIRTUALES || ds == null || !ds.isWrapperFor(HikariDataSource.class)) {
+            return;
+        }
+        int conexiones = ds.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        int portadores = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+        if (conexiones > portadores) {
+            // Las sentencias de H2 fijan el hilo virtual y pueden dejar sin portadores al resto de peticiones
+            registroEventos.getObject().registrador("ConfiguracionHilos").evento(NivelEvento.WARN,
+                    "pool_supera_portadores", "maximumPoolSize", conexiones, "portadores", portadores);
+        }
+    }
+
+    /**
+     * Crea, sin iniciarlo, el hilo de fondo con el nombre dado: virtual en
+     * modo VIRTUALES, de plataforma y daemon en otro caso.
+     */
+    public Thread nuevoHilo(String nombre, Runnable tarea) {
+        return fabrica(nombre).newThread(tarea);
+    }
+
+    /**
+     * Fábrica de hilos de fondo para ejecutores. Todos los hilos llevan el
+     * mismo nombre, como los ejecutores de un solo hilo que la usan.
+     */
+    public ThreadFactory fabrica(String nombre) {
+        if (modo == Modo.VIRTUALES) {
+            return fabricaVirtual(nombre, false);
+        }
+        return r -> {
+            Thread hilo = new Thread(r, nombre);
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+
+    public Modo getModo() {
+        return modo;
+    }
+
+    public static boolean virtualesDisponibles() {
+        return OF_VIRTUAL != null;
+    }
+
+    public static boolean esVirtual(Thread hilo) {
+        if (ES_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) ES_VIRTUAL.invoke(hilo);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    private static ThreadFactory fabricaVirtual(String nombre, boolean conContador) {
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = conContador
+                    ? BUILDER_NAME_CONTADOR.invoke(builder, nombre, 0L)
+                    : BUILDER_NAME.invoke(builder, nombre);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo crear la fábrica de hilos virtuales", e);
+        }
+    }
+
+    private static ExecutorService porTarea(ThreadFactory fabrica) {
+        try {
+            return (ExecutorService) POR_TAREA.invoke(null, fabrica);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo crear el ejecutor de hilos virtuales", e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.ejemplo.notasapp.servicio;
+
+import com.ejemplo.notasapp.modelo.LogViolacionSeguridad;
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.Registrador;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Escritor asíncrono de la auditoría de violaciones de seguridad.
+ *
+ * Los aspectos encolan cada LogViolacionSeguridad en una cola acotada en
+ * memoria y regresan de inmediato. Un hilo dedicado vacía la cola e inserta
+ * los registros en lotes JDBC, de modo que una petición denegada ya no paga
+ * un INSERT + flush sincrónico contra H2.
+ *
+ * Cuando la cola está llena se aplica la política configurada:
+ * - BLOQUEAR: el hilo de la petición espera a que haya espacio
+ * - DESCARTAR_ANTIGUO: se descarta el registro más antiguo de la cola
+ * - MUESTREAR: solo uno de cada N registros nuevos reemplaza al más antiguo
+ */
+@Service
+public class EscritorAuditoria {
+
+    public enum PoliticaCola {
+        BLOQUEAR,
+        DESCARTAR_ANTIGUO,
+        MUESTREAR
+    }
+
+    private static final String SQL_INSERTAR = "INSERT INTO log_violacion_seguridad "
+            + "(nombre_usuario, rol, accion_intentada, detalles, fecha_hora) VALUES (?, ?, ?, ?, ?)";
+
+    // Longitud por defecto de las columnas VARCHAR generadas por Hibernate
+    private static final int LONGITUD_MAXIMA_TEXTO = 255;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ConfiguracionHilos configuracionHilos;
+
+    @Autowired
+    private RegistroEventos registroEventos;
+
+    @Value("${notasapp.auditoria.capacidad-cola:10000}")
+    private int capacidadCola;
+
+    @Value("${notasapp.auditoria.tamano-lote:200}")
+    private int tamanoLote;
+
+    @Value("${notasapp.auditoria.intervalo-flush-ms:500}")
+    private long intervaloFlushMs;
+
+    @Value("${notasapp.auditoria.politica:DESCARTAR_ANTIGUO}")
+    private PoliticaCola politica;
+
+    @Value("${notasapp.auditoria.tasa-muestreo:10}")
+    private int tasaMuestreo;
+
+    @Value("${notasapp.auditoria.timeout-apagado-ms:5000}")
+    private long timeoutApagadoMs;
+
+    private Registrador registro;
+    private ArrayBlockingQueue<LogViolacionSeguridad> cola;
+    private Thread hiloEscritor;
+    private volatile boolean activo;
+
+    private final LongAdder encolados = new LongAdder();
+    private final LongAdder escritos = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder fallidos = new LongAdder();
+    private final AtomicLong contadorMuestreo = new AtomicLong();
+
+    @PostConstruct
+    public void iniciar() {
+        // MUESTREAR divide por la tasa en cada registro con la cola llena
+        if (tasaMuestreo < 1) {
+            throw new IllegalStateException("notasapp.auditoria.tasa-muestreo debe ser 1 o mayor. "
+                    + "Valor actual: " + tasaMuestreo);
+        }
+        registro = registroEventos.registrador("EscritorAuditoria");
+        cola = new ArrayBlockingQueue<>(capacidadCola);
+        activo = true;
+        hiloEscritor = configuracionHilos.nuevoHilo("escritor-auditoria", this::ejecutarCiclo);
+        hiloEscritor.start();
+    }
+
+    /**
+     * Vacía la cola pendiente antes de que se cierre el DataSource.
+     */
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        try {
+            hiloEscritor.join(timeoutApagadoMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (hiloEscritor.isAlive()) {
+            registro.evento(NivelEvento.WARN, "apagado_auditoria_incompleto", "pendientes", cola.size());
+        }
+    }
+
+    /**
+     * Encola un registro de auditoría aplicando la política de contrapresión.
+     */
+    public void registrar(LogViolacionSeguridad log) {
+        if (cola.offer(log)) {
+            encolados.increment();
+            return;
+        }
+
+        switch (politica) {
+            case BLOQUEAR -> encolarBloqueando(log);
+            case DESCARTAR_ANTIGUO -> reemplazarMasAntiguo(log);
+            case MUESTREAR -> {
+                if (contadorMuestreo.incrementAndGet() % tasaMuestreo == 0) {
+                    reemplazarMasAntiguo(log);
+                } else {
+                    descartados.increment();
+                }
+            }
+        }
+    }
+
+    private void encolarBloqueando(LogViolacionSeguridad log) {
+        try {
+            cola.put(log);
+            encolados.increment();
+        } catch (InterruptedException e) {
+            descartados.increment();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void reemplazarMasAntiguo(LogViolacionSeguridad log) {
+        while (!cola.offer(log)) {
+            if (cola.poll() != null) {
+                descartados.increment();
+            }
+        }
+        encolados.increment();
+    }
+
+    private void ejecutarCiclo() {
+        List<LogViolacionSeguridad> lote = new ArrayList<>(tamanoLote);
+        long intervaloNanos = TimeUnit.MILLISECONDS.toNanos(intervaloFlushMs);
+
+        while (activo || !cola.isEmpty()) {
+            try {
+                LogViolacionSeguridad primero = cola.poll(intervaloFlushMs, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+
+                // Acumular hasta completar el lote o agotar el intervalo de flush
+                long limite = System.nanoTime() + intervaloNanos;
+                while (lote.size() < tamanoLote) {
+                    cola.drainTo(lote, tamanoLote - lote.size());
+                    long restante = limite - System.nanoTime();
+                    if (lote.size() >= tamanoLote || restante <= 0 || !activo) {
+                        break;
+                    }
+                    LogViolacionSeguridad siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+                    if (siguiente != null) {
+                        lote.add(siguiente);
+                    }
+                }
+            } catch (InterruptedException e) {
+                activo = false;
+                cola.drainTo(lote);
+            }
+
+            if (!lote.isEmpty()) {
+                escribirLote(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    private void escribirLote(List<LogViolacionSeguridad> lote) {
+        try {
+            jdbcTemplate.batchUpdate(SQL_INSERTAR, lote, lote.size(), (ps, log) -> {
+                ps.setString(1, truncar(log.getNombreUsuario()));
+                if (log.getRol() != null) {
+                    ps.setByte(2, log.getRol().getCodigo());
+                } else {
+                    ps.setNull(2, Types.TINYINT);
+                }
+                ps.setString(3, truncar(log.getAccionIntentada()));
+                ps.setString(4, truncar(log.getDetalles()));
+                ps.setTimestamp(5, Timestamp.valueOf(log.getFechaHora()));
+            });
+            escritos.add(lote.size());
+        } catch (Exception e) {
+            fallidos.add(lote.size());
+            registro.evento(NivelEvento.ERROR, "error_lote_auditoria",
+                    "perdidos", lote.size(), "error", e.getMessage());
+        }
+    }
+
+    private static String truncar(String texto) {
+        if (texto == null || texto.length() <= LONGITUD_MAXIMA_TEXTO) {
+            return texto;
+        }
+        return texto.substring(0, LONGITUD_MAXIMA_TEXTO);
+    }
+
+    // Contadores
+    public long getEncolados() {
+        return encolados.sum();
+    }
+
+    public long getEscritos() {
+        return escritos.sum();
+    }
+
+    public long getDescartados() {
+        return descartados.sum();
+    }
+
+    public long getFallidos() {
+        return fallidos.sum();
+    }
+
+    public int getPendientes() {
+        return cola.size();
+    }
+
+    public PoliticaCola getPolitica() {
+        return politica;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ejemplo.notasapp.servicio;
+
+/**
+ * Formatos de intercambio de archivos: CSV con encabezado o un objeto JSON
+ * por línea (NDJSON).
+ */
+public enum FormatoArchivo {
+    CSV("text/csv; charset=utf-8", "csv"),
+    NDJSON("application/x-ndjson; charset=utf-8", "ndjson");
+
+    private final String tipoContenido;
+    private final String extension;
+
+    FormatoArchivo(String tipoContenido, String extension) {
+        this.tipoContenido = tipoContenido;
+        this.extension = extension;
+    }
+
+    public String getTipoContenido() {
+        return tipoContenido;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
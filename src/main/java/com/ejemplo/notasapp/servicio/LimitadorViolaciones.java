@@ -0,0 +1,346 @@
+package com.ejemplo.notasapp.servicio;
+
+import com.ejemplo.notasapp.modelo.LogViolacionSeguridad;
+import com.ejemplo.notasapp.modelo.Rol;
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.Registrador;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitador de violaciones de seguridad por sesión y por nombre de usuario.
+ *
+ * Cuenta las violaciones en una ventana deslizante de
+ * notasapp.limitador.ventana-ms, dividida en cubetas. Cuando una sesión o un
+ * nombre de usuario supera el umbral, ambos quedan bloqueados durante
+ * notasapp.limitador.duracion-bloqueo-ms: FiltroBloqueoViolaciones corta sus
+ * peticiones antes de llegar a los aspectos o a la base de datos.
+ *
+ * En lugar de un registro de auditoría por intento, se escribe uno al
+ * iniciar el bloqueo y otro al terminar con el número de peticiones
+ * rechazadas mientras duró.
+ *
+ * Las entradas se reparten en franjas con su propio candado; un hilo de
+ * limpieza elimina las entradas inactivas.
+ */
+@Service
+public class LimitadorViolaciones {
+
+    public static final String ACCION_BLOQUEO = "BLOQUEO_AUTOMATICO";
+    public static final String ACCION_FIN_BLOQUEO = "FIN_BLOQUEO_AUTOMATICO";
+
+    private static final int FRANJAS = 64;
+
+    @Autowired
+    private EscritorAuditoria escritorAuditoria;
+
+    @Autowired
+    private ConfiguracionHilos configuracionHilos;
+
+    @Autowired
+    private RegistroEventos registroEventos;
+
+    @Value("${notasapp.limitador.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${notasapp.limitador.umbral:20}")
+    private int umbral;
+
+    @Value("${notasapp.limitador.ventana-ms:60000}")
+    private long ventanaMs;
+
+    @Value("${notasapp.limitador.cubetas:10}")
+    private int cubetas;
+
+    @Value("${notasapp.limitador.duracion-bloqueo-ms:300000}")
+    private long duracionBloqueoMs;
+
+    private long anchoCubetaMs;
+    private Franja[] franjas;
+    private ScheduledExecutorService limpieza;
+    private Registrador registro;
+
+    private final LongAdder bloqueos = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+
+    @PostConstruct
+    public void iniciar() {
+        registro = registroEventos.registrador("LimitadorViolaciones");
+        anchoCubetaMs = Math.max(1, ventanaMs / cubetas);
+        franjas = new Franja[FRANJAS];
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new Franja();
+        }
+        if (!habilitado) {
+            return;
+        }
+        limpieza = Executors.newSingleThreadScheduledExecutor(configuracionHilos.fabrica("limpieza-limitador"));
+        limpieza.scheduleWithFixedDelay(this::limpiar, ventanaMs, ventanaMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (limpieza != null) {
+            limpieza.shutdownNow();
+        }
+    }
+
+    /**
+     * Cuenta una violación de la sesión y del usuario. Si alguno supera el
+     * umbral, bloquea ambos y registra un único resumen en la auditoría.
+     * Retorna true si esta violación inició el bloqueo.
+     */
+    public boolean registrarViolacion(String sesionId, UsuarioSesion usuario) {
+        if (!habilitado || usuario == null) {
+            return false;
+        }
+        long ahora = System.currentTimeMillis();
+        String claveUsuario = claveUsuario(usuario.getNombre());
+
+        int enUsuario = incrementar(claveUsuario, usuario, ahora);
+        int enSesion = sesionId != null ? incrementar(claveSesion(sesionId), usuario, ahora) : 0;
+        if (enUsuario < umbral && enSesion < umbral) {
+            return false;
+        }
+
+        long hasta = ahora + duracionBloqueoMs;
+        boolean nuevo = bloquear(claveUsuario, hasta);
+        if (sesionId != null) {
+            bloquear(claveSesion(sesionId), hasta);
+        }
+        if (nuevo) {
+            bloqueos.increment();
+            escritorAuditoria.registrar(new LogViolacionSeguridad(usuario.getNombre(), usuario.getRol(),
+                    ACCION_BLOQUEO,
+                    String.format("%d violaciones en %d s (sesión: %d). Bloqueado durante %d s",
+                            enUsuario, ventanaMs / 1000, enSesion, duracionBloqueoMs / 1000)));
+        }
+        return nuevo;
+    }
+
+    /**
+     * Indica si la sesión o el usuario están bloqueados. Cada consulta
+     * positiva se cuenta como petición rechazada del usuario. No accede a la
+     * base de datos. nombreUsuario es null cuando la sesión ya fue invalidada.
+     */
+    public boolean estaBloqueado(String sesionId, String nombreUsuario) {
+        if (!habilitado) {
+            return false;
+        }
+        long ahora = System.currentTimeMillis();
+        String nombre = nombreUsuario;
+        boolean bloqueado = nombre != null && bloqueadoHasta(claveUsuario(nombre), ahora) > ahora;
+        if (!bloqueado && sesionId != null) {
+            String nombreSesion = usuarioDeSesionBloqueada(sesionId, ahora);
+            if (nombreSesion != null) {
+                bloqueado = true;
+                nombre = nombreSesion;
+            }
+        }
+        if (bloqueado) {
+            rechazadas.increment();
+            if (nombre != null) {
+                contarRechazo(claveUsuario(nombre));
+            }
+        }
+        return bloqueado;
+    }
+
+    /**
+     * Indica si el nombre de usuario está bloqueado, sin contar un rechazo.
+     */
+    public boolean usuarioBloqueado(String nombreUsuario) {
+        if (!habilitado || nombreUsuario == null) {
+            return false;
+        }
+        long ahora = System.currentTimeMillis();
+        return bloqueadoHasta(claveUsuario(nombreUsuario), ahora) > ahora;
+    }
+
+    private int incrementar(String clave, UsuarioSesion usuario, long ahora) {
+        Franja franja = franjaDe(clave);
+        synchronized (franja) {
+            Contador c = franja.entradas.computeIfAbsent(clave, k -> new Contador(cubetas));
+            c.nombreUsuario = usuario.getNombre();
+            c.rol = usuario.getRol();
+            c.ultimoUso = ahora;
+            return c.incrementar(ahora / anchoCubetaMs);
+        }
+    }
+
+    // Retorna true si la clave no estaba ya bloqueada
+    private boolean bloquear(String clave, long hasta) {
+        Franja franja = franjaDe(clave);
+        synchronized (franja) {
+            Contador c = franja.entradas.get(clave);
+            if (c == null) {
+                return false;
+            }
+            boolean nuevo = c.bloqueadoHasta <= System.currentTimeMillis();
+            c.bloqueadoHasta = hasta;
+            return nuevo;
+        }
+    }
+
+    private long bloqueadoHasta(String clave, long ahora) {
+        Franja franja = franjaDe(clave);
+        synchronized (franja) {
+            Contador c = franja.entradas.get(clave);
+            if (c == null) {
+                return 0;
+            }
+            c.ultimoUso = ahora;
+            return c.bloqueadoHasta;
+        }
+    }
+
+    // Nombre del usuario de la sesión si está bloqueada, o null
+    private String usuarioDeSesionBloqueada(String sesionId, long ahora) {
+        Franja franja = franjaDe(claveSesion(sesionId));
+        synchronized (franja) {
+            Contador c = franja.entradas.get(claveSesion(sesionId));
+            if (c == null || c.bloqueadoHasta <= ahora) {
+                return null;
+            }
+            c.ultimoUso = ahora;
+            return c.nombreUsuario;
+        }
+    }
+
+    private void contarRechazo(String clave) {
+        Franja franja = franjaDe(clave);
+        synchronized (franja) {
+            Contador c = franja.entradas.get(clave);
+            if (c != null) {
+                c.rechazadas++;
+            }
+        }
+    }
+
+    /**
+     * Elimina las entradas sin actividad en la ventana cuyo bloqueo terminó y
+     * registra el resumen de fin de bloqueo de los usuarios.
+     */
+    private void limpiar() {
+        try {
+            long ahora = System.currentTimeMillis();
+            List<LogViolacionSeguridad> resumenes = new ArrayList<>();
+            for (Franja franja : franjas) {
+                synchronized (franja) {
+                    Iterator<Map.Entry<String, Contador>> it = franja.entradas.entrySet().iterator();
+                    while (it.hasNext()) {
+                        Map.Entry<String, Contador> e = it.next();
+                        Contador c = e.getValue();
+                        if (c.bloqueadoHasta > 0 && c.bloqueadoHasta <= ahora && esClaveUsuario(e.getKey())) {
+                            resumenes.add(new LogViolacionSeguridad(c.nombreUsuario, c.rol, ACCION_FIN_BLOQUEO,
+                                    String.format("Fin del bloqueo. Peticiones rechazadas: %d", c.rechazadas)));
+                            c.bloqueadoHasta = 0;
+                            c.rechazadas = 0;
+                        }
+                        if (c.bloqueadoHasta <= ahora && ahora - c.ultimoUso > ventanaMs) {
+                            it.remove();
+                        }
+                    }
+                }
+            }
+            resumenes.forEach(escritorAuditoria::registrar);
+        } catch (Exception e) {
+            registro.evento(NivelEvento.ERROR, "error_limpieza_limitador", "error", e.getMessage());
+        }
+    }
+
+    private static String claveUsuario(String nombre) {
+        return "u:" + nombre;
+    }
+
+    private static String claveSesion(String sesionId) {
+        return "s:" + sesionId;
+    }
+
+    private static boolean esClaveUsuario(String clave) {
+        return clave.startsWith("u:");
+    }
+
+    private Franja franjaDe(String clave) {
+        int h = clave.hashCode();
+        return franjas[(h ^ (h >>> 16)) & (FRANJAS - 1)];
+    }
+
+    // Métricas
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public long getBloqueos() {
+        return bloqueos.sum();
+    }
+
+    public long getRechazadas() {
+        return rechazadas.sum();
+    }
+
+    public int getEntradas() {
+        int total = 0;
+        for (Franja franja : franjas) {
+            synchronized (franja) {
+                total += franja.entradas.size();
+            }
+        }
+        return total;
+    }
+
+    private static final class Franja {
+        private final Map<String, Contador> entradas = new HashMap<>();
+    }
+
+    /**
+     * Ventana deslizante por cubetas: cada cubeta guarda su número de época
+     * (tiempo / ancho) y se reutiliza cuando la época ya salió de la ventana.
+     */
+    private static final class Contador {
+        private final int[] conteos;
+        private final long[] epocas;
+        private String nombreUsuario;
+        private Rol rol;
+        private long ultimoUso;
+        private long bloqueadoHasta;
+        private long rechazadas;
+
+        private Contador(int cubetas) {
+            this.conteos = new int[cubetas];
+            this.epocas = new long[cubetas];
+        }
+
+        private int incrementar(long epoca) {
+            int indice = (int) (epoca % conteos.length);
+            if (epocas[indice] != epoca) {
+                epocas[indice] = epoca;
+                conteos[indice] = 0;
+            }
+            conteos[indice]++;
+
+            int total = 0;
+            for (int i = 0; i < conteos.length; i++) {
+                if (epoca - epocas[i] < conteos.length) {
+                    total += conteos[i];
+                }
+            }
+            return total;
+        }
+    }
+}
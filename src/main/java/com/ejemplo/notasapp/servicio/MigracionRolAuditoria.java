@@ -0,0 +1,93 @@
+package com.ejemplo.notasapp.servicio;
+
+import com.ejemplo.notasapp.modelo.Rol;
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Migra la columna rol de log_violacion_seguridad del nombre del rol
+ * (VARCHAR) a su código de un byte (TINYINT, ver Rol y ConvertidorRol).
+ *
+ * Se ejecuta al arrancar y antes de que Hibernate actualice el esquema
+ * (ddl-auto=update no cambia el tipo de una columna existente). Los pasos
+ * son idempotentes: si el arranque se interrumpe a mitad, el siguiente
+ * retoma la migración. Los valores que no corresponden a ningún Rol quedan
+ * en null y se informan en el evento de la migración (WARN si hay alguno).
+ */
+@Component
+public class MigracionRolAuditoria {
+
+    private static final String TABLA = "LOG_VIOLACION_SEGURIDAD";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RegistroEventos registroEventos;
+
+    @PostConstruct
+    public void migrar() {
+        String tipoRol = tipoColumna("ROL");
+        if (tipoRol == null) {
+            // Tabla nueva (la crea Hibernate) o migración interrumpida tras borrar la columna
+            if (tipoColumna("ROL_CODIGO") != null) {
+                jdbcTemplate.execute("ALTER TABLE log_violacion_seguridad ALTER COLUMN rol_codigo RENAME TO rol");
+            }
+            return;
+        }
+        if (!tipoRol.contains("CHAR")) {
+            return; // Ya migrada
+        }
+
+        jdbcTemplate.execute("ALTER TABLE log_violacion_seguridad ADD COLUMN IF NOT EXISTS rol_codigo TINYINT");
+
+        StringBuilder caso = new StringBuilder("UPDATE log_violacion_seguridad SET rol_codigo = CASE rol");
+        List<Object> parametros = new ArrayList<>();
+        for (Rol rol : Rol.values()) {
+            caso.append(" WHEN ? THEN ?");
+            parametros.add(rol.name());
+            parametros.add(rol.getCodigo());
+        }
+        caso.append(" END");
+        int migrados = jdbcTemplate.update(caso.toString(), parametros.toArray());
+        Integer desconocidos = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM log_violacion_seguridad WHERE rol IS NOT NULL AND rol_codigo IS NULL",
+                Integer.class);
+
+        // El índice (rol, fecha_hora, id) lo vuelve a crear Hibernate sobre la columna nueva
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_log_rol_fecha_id");
+        jdbcTemplate.execute("ALTER TABLE log_violacion_seguridad DROP COLUMN rol");
+        jdbcTemplate.execute("ALTER TABLE log_violacion_seguridad ALTER COLUMN rol_codigo RENAME TO rol");
+
+        registroEventos.registrador("MigracionRolAuditoria").evento(
+                desconocidos != null && desconocidos > 0 ? NivelEvento.WARN : NivelEvento.INFO,
+                "migracion_rol_auditoria", "migrados", migrados, "rolesNoReconocidos", desconocidos);
+    }
+
+    private String tipoColumna(String columna) {
+        List<String> tipos = jdbcTemplate.queryForList(
+                "SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS "
+                        + "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ? AND COLUMN_NAME = ?",
+                String.class, TABLA, columna);
+        return tipos.isEmpty() ? null : tipos.get(0).toUpperCase();
+    }
+
+    /**
+     * Hace que el EntityManagerFactory (y con él la actualización del esquema
+     * de Hibernate) espere a la migración.
+     */
+    @Component
+    static class DependenciaEntityManager extends EntityManagerFactoryDependsOnPostProcessor {
+        DependenciaEntityManager() {
+            super(MigracionRolAuditoria.class);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.ejemplo.notasapp.servicio;
+
+import com.ejemplo.notasapp.modelo.LogViolacionSeguridad;
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.Registrador;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import com.ejemplo.notasapp.repositorio.RepositorioLogViolacionSeguridad;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retención de la auditoría de violaciones de seguridad.
+ *
+ * Un hilo dedicado elimina periódicamente los registros con más de
+ * notasapp.auditoria.retencion.dias días. El borrado se hace por lotes
+ * acotados, cada uno en su propia sentencia y transacción corta, con una pausa
+ * entre lotes para no bloquear la tabla frente al EscritorAuditoria.
+ *
+ * Si notasapp.auditoria.retencion.archivo tiene una ruta, cada lote se añade
+ * antes como NDJSON a ese archivo. Si el borrado falla tras archivar, el lote
+ * se vuelve a archivar en la siguiente ejecución.
+ */
+@Service
+public class RetencionAuditoria {
+
+    @Autowired
+    private RepositorioLogViolacionSeguridad repositorioLog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ConfiguracionHilos configuracionHilos;
+
+    @Autowired
+    private RegistroEventos registroEventos;
+
+    @Value("${notasapp.auditoria.retencion.habilitada:false}")
+    private boolean habilitada;
+
+    @Value("${notasapp.auditoria.retencion.dias:180}")
+    private int dias;
+
+    @Value("${notasapp.auditoria.retencion.tamano-lote:1000}")
+    private int tamanoLote;
+
+    @Value("${notasapp.auditoria.retencion.pausa-entre-lotes-ms:50}")
+    private long pausaEntreLotesMs;
+
+    @Value("${notasapp.auditoria.retencion.intervalo-ms:3600000}")
+    private long intervaloMs;
+
+    @Value("${notasapp.auditoria.retencion.archivo:}")
+    private String archivo;
+
+    private Registrador registro;
+    private ScheduledExecutorService planificador;
+
+    private final LongAdder eliminados = new LongAdder();
+    private final LongAdder archivados = new LongAdder();
+    private volatile LocalDateTime ultimaEjecucion;
+
+    @PostConstruct
+    public void iniciar() {
+        registro = registroEventos.registrador("RetencionAuditoria");
+        if (!habilitada) {
+            return;
+        }
+        planificador = Executors.newSingleThreadScheduledExecutor(configuracionHilos.fabrica("retencion-auditoria"));
+        planificador.scheduleWithFixedDelay(this::ejecutarSeguro, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (planificador != null) {
+            planificador.shutdownNow();
+        }
+    }
+
+    private void ejecutarSeguro() {
+        try {
+            ejecutar();
+        } catch (Exception e) {
+            registro.evento(NivelEvento.ERROR, "error_retencion_auditoria", "error", e.getMessage());
+        }
+    }
+
+    /**
+     * Elimina (y archiva si corresponde) los registros vencidos.
+     * Retorna la cantidad de registros eliminados.
+     */
+    public long ejecutar() throws IOException, InterruptedException {
+        LocalDateTime limite = LocalDateTime.now().minusDays(dias);
+        long total = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            List<LogViolacionSeguridad> lote = repositorioLog.buscarAnterioresA(limite, tamanoLote);
+            if (lote.isEmpty()) {
+                break;
+            }
+            if (!archivo.isBlank()) {
+                archivar(lote);
+            }
+            int borrados = repositorioLog.eliminarPorIds(lote.stream().map(LogViolacionSeguridad::getId).toList());
+            eliminados.add(borrados);
+            total += borrados;
+
+            if (lote.size() < tamanoLote) {
+                break;
+            }
+            Thread.sleep(pausaEntreLotesMs);
+        }
+
+        ultimaEjecucion = LocalDateTime.now();
+        return total;
+    }
+
+    private void archivar(List<LogViolacionSeguridad> lote) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(archivo), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (LogViolacionSeguridad log : lote) {
+                writer.write(objectMapper.writeValueAsString(log));
+                writer.write('\n');
+            }
+        }
+        archivados.add(lote.size());
+    }
+
+    // Métricas
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    public int getDias() {
+        return dias;
+    }
+
+    public long getEliminados() {
+        return eliminados.sum();
+    }
+
+    public long getArchivados() {
+        return archivados.sum();
+    }
+
+    public LocalDateTime getUltimaEjecucion() {
+        return ultimaEjecucion;
+    }
+}
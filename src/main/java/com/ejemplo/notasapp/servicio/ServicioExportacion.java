@@ -0,0 +1,308 @@
+package com.ejemplo.notasapp.servicio;
+
+import com.ejemplo.notasapp.modelo.FilaReporteCurso;
+import com.ejemplo.notasapp.modelo.LogViolacionSeguridad;
+import com.ejemplo.notasapp.modelo.ReporteCurso;
+import com.ejemplo.notasapp.modelo.Rol;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Exportación de notas y registros de auditoría en CSV o NDJSON.
+ *
+ * Las filas se leen con un cursor JDBC de solo avance (fetch size
+ * notasapp.exportacion.tamano-fetch) y se escriben directamente en el flujo de
+ * salida a medida que llegan, sin construir listas ni cadenas con el resultado
+ * completo. La memoria usada no depende del número de filas.
+ */
+@Service
+public class ServicioExportacion {
+
+    private static final String[] COLUMNAS_NOTA = { "id", "estudianteId", "materia", "valor", "porcentaje",
+            "observacion" };
+
+    private static final String[] COLUMNAS_REPORTE = { "posicion", "estudianteId", "apellido", "nombre",
+            "promedioGeneral", "totalNotas" };
+
+    private static final String[] COLUMNAS_LOG = { "id", "fechaHora", "nombreUsuario", "rol", "accionIntentada",
+            "detalles" };
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notasapp.exportacion.tamano-fetch:500}")
+    private int tamanoFetch;
+
+    // Plantilla propia para no cambiar el fetch size del JdbcTemplate compartido
+    private JdbcTemplate jdbcCursor;
+
+    @PostConstruct
+    public void iniciar() {
+        jdbcCursor = new JdbcTemplate(dataSource);
+        jdbcCursor.setFetchSize(tamanoFetch);
+    }
+
+    /**
+     * Exporta las notas, opcionalmente filtradas por estudiante y/o materia.
+     */
+    public void exportarNotas(Long estudianteId, String materia, FormatoArchivo formato, OutputStream salida)
+            throws IOException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, estudiante_id, materia, valor, porcentaje, observacion FROM nota WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>(2);
+        if (estudianteId != null) {
+            sql.append(" AND estudiante_id = ?");
+            parametros.add(estudianteId);
+        }
+        if (materia != null && !materia.isBlank()) {
+            sql.append(" AND materia = ?");
+            parametros.add(materia.trim());
+        }
+        sql.append(" ORDER BY id");
+
+        try (EscritorFilas escritor = escritor(formato, salida, COLUMNAS_NOTA)) {
+            Object[] valores = new Object[COLUMNAS_NOTA.length];
+            consultar(sql.toString(), parametros.toArray(), rs -> {
+                valores[0] = rs.getLong(1);
+                valores[1] = rs.getObject(2, Long.class);
+                valores[2] = rs.getString(3);
+                valores[3] = rs.getObject(4, Double.class);
+                valores[4] = rs.getObject(5, Double.class);
+                valores[5] = rs.getString(6);
+                escritor.fila(valores);
+            });
+        }
+    }
+
+    /**
+     * Escribe el reporte del curso con una columna por materia, en orden de
+     * posición. Las notas sin materia van en la columna "(sin materia)".
+     */
+    public void exportarReporteCurso(ReporteCurso reporte, FormatoArchivo formato, OutputStream salida)
+            throws IOException {
+        List<String> materias = reporte.getMaterias();
+        String[] columnas = new String[COLUMNAS_REPORTE.length + materias.size()];
+        System.arraycopy(COLUMNAS_REPORTE, 0, columnas, 0, COLUMNAS_REPORTE.length);
+        for (int i = 0; i < materias.size(); i++) {
+            String materia = materias.get(i);
+            columnas[COLUMNAS_REPORTE.length + i] = materia.isEmpty() ? "(sin materia)" : materia;
+        }
+
+        try (EscritorFilas escritor = escritor(formato, salida, columnas)) {
+            Object[] valores = new Object[columnas.length];
+            for (FilaReporteCurso fila : reporte.getFilas()) {
+                valores[0] = fila.getPosicion() != null ? (long) fila.getPosicion() : null;
+                valores[1] = fila.getEstudianteId();
+                valores[2] = fila.getApellido();
+                valores[3] = fila.getNombre();
+                valores[4] = fila.getPromedioGeneral();
+                valores[5] = fila.getTotalNotas();
+                for (int i = 0; i < materias.size(); i++) {
+                    valores[COLUMNAS_REPORTE.length + i] = fila.getPromedios().get(materias.get(i));
+                }
+                escritor.fila(valores);
+            }
+        }
+    }
+
+    /**
+     * Exporta los registros de violaciones de seguridad con fechaHora en
+     * [desde, hasta). Ambos límites son opcionales.
+     */
+    public void exportarLogs(LocalDateTime desde, LocalDateTime hasta, FormatoArchivo formato,
+            OutputStream salida) throws IOException {
+        try (EscritorFilas escritor = escritor(formato, salida, COLUMNAS_LOG)) {
+            Object[] valores = new Object[COLUMNAS_LOG.length];
+            recorrerLogs(desde, hasta, log -> {
+                valores[0] = log.getId();
+                valores[1] = log.getFechaHora() != null ? log.getFechaHora().toString() : null;
+                valores[2] = log.getNombreUsuario();
+                valores[3] = log.getRol() != null ? log.getRol().name() : null;
+                valores[4] = log.getAccionIntentada();
+                valores[5] = log.getDetalles();
+                try {
+                    escritor.fila(valores);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Recorre los registros de violaciones de seguridad en orden de fecha sin
+     * cargarlos todos en memoria.
+     */
+    public void recorrerLogs(LocalDateTime desde, LocalDateTime hasta, Consumer<LogViolacionSeguridad> consumidor) {
+        StringBuilder sql = new StringBuilder("SELECT id, fecha_hora, nombre_usuario, rol, accion_intentada, detalles "
+                + "FROM log_violacion_seguridad WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>(2);
+        if (desde != null) {
+            sql.append(" AND fecha_hora >= ?");
+            parametros.add(Timestamp.valueOf(desde));
+        }
+        if (hasta != null) {
+            sql.append(" AND fecha_hora < ?");
+            parametros.add(Timestamp.valueOf(hasta));
+        }
+        sql.append(" ORDER BY fecha_hora, id");
+
+        jdbcCursor.query(sql.toString(), rs -> {
+            LogViolacionSeguridad log = new LogViolacionSeguridad();
+            log.setId(rs.getLong(1));
+            Timestamp fechaHora = rs.getTimestamp(2);
+            log.setFechaHora(fechaHora != null ? fechaHora.toLocalDateTime() : null);
+            log.setNombreUsuario(rs.getString(3));
+            byte codigoRol = rs.getByte(4);
+            log.setRol(rs.wasNull() ? null : Rol.desdeCodigo(codigoRol));
+            log.setAccionIntentada(rs.getString(5));
+            log.setDetalles(rs.getString(6));
+            consumidor.accept(log);
+        }, parametros.toArray());
+    }
+
+    private void consultar(String sql, Object[] parametros, ProcesadorFila procesador) throws IOException {
+        try {
+            jdbcCursor.query(sql, rs -> {
+                try {
+                    procesador.procesar(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, parametros);
+        } catch (UncheckedIOException e) {
+            // Normalmente el cliente cerró la conexión: la consulta ya se cortó
+            throw e.getCause();
+        }
+    }
+
+    private EscritorFilas escritor(FormatoArchivo formato, OutputStream salida, String[] columnas)
+            throws IOException {
+        return formato == FormatoArchivo.NDJSON
+                ? new EscritorNdjson(objectMapper, salida, columnas)
+                : new EscritorCsv(salida, columnas);
+    }
+
+    @FunctionalInterface
+    private interface ProcesadorFila {
+        void procesar(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private interface EscritorFilas extends AutoCloseable {
+        void fila(Object[] valores) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class EscritorCsv implements EscritorFilas {
+        private final Writer writer;
+
+        private EscritorCsv(OutputStream salida, String[] columnas) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 16 * 1024);
+            escribir(columnas);
+        }
+
+        @Override
+        public void fila(Object[] valores) throws IOException {
+            escribir(valores);
+        }
+
+        private void escribir(Object[] valores) throws IOException {
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (valores[i] != null) {
+                    campo(valores[i].toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void campo(String texto) throws IOException {
+            boolean comillas = texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0
+                    || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0;
+            if (!comillas) {
+                writer.write(texto);
+                return;
+            }
+            writer.write('"');
+            writer.write(texto.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class EscritorNdjson implements EscritorFilas {
+        private final JsonGenerator generador;
+        private final String[] columnas;
+        private boolean conFilas;
+
+        private EscritorNdjson(ObjectMapper objectMapper, OutputStream salida, String[] columnas) throws IOException {
+            this.generador = objectMapper.getFactory().createGenerator(salida);
+            this.generador.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            // El flujo de la respuesta lo cierra el contenedor
+            this.generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.columnas = columnas;
+        }
+
+        @Override
+        public void fila(Object[] valores) throws IOException {
+            generador.writeStartObject();
+            for (int i = 0; i < columnas.length; i++) {
+                Object valor = valores[i];
+                if (valor == null) {
+                    generador.writeNullField(columnas[i]);
+                } else if (valor instanceof Long l) {
+                    generador.writeNumberField(columnas[i], l);
+                } else if (valor instanceof Double d) {
+                    generador.writeNumberField(columnas[i], d);
+                } else {
+                    generador.writeStringField(columnas[i], valor.toString());
+                }
+            }
+            generador.writeEndObject();
+            conFilas = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (conFilas) {
+                generador.writeRaw('\n');
+            }
+            generador.close();
+        }
+    }
+}
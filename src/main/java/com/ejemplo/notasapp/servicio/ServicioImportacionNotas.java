@@ -0,0 +1,318 @@
+package com.ejemplo.notasapp.servicio;
+
+import com.ejemplo.notasapp.modelo.ResultadoImportacion;
+import com.ejemplo.notasapp.repositorio.RepositorioEstudiante;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Importación masiva de notas desde CSV o JSON por líneas (NDJSON).
+ *
+ * El archivo se lee línea por línea sin cargarlo completo en memoria. Cada
+ * fila se valida contra el conjunto de ids de estudiantes cargado una sola vez
+ * al inicio, y las filas válidas se insertan con lotes JDBC. La transacción se
+ * confirma cada notasapp.importacion.intervalo-commit filas, de modo que un
+ * archivo grande no mantiene una única transacción abierta.
+ *
+ * Si un lote falla en la base de datos se revierte el tramo sin confirmar y
+ * sus filas se informan como rechazadas; la importación continúa con el
+ * siguiente tramo.
+ *
+ * Formato CSV (con encabezado): estudianteId,materia,valor,porcentaje[,observacion]
+ * Formato NDJSON: {"estudianteId":1,"materia":"Fisica","valor":4.5,"porcentaje":30,"observacion":"..."}
+ */
+@Service
+public class ServicioImportacionNotas {
+
+    private static final String SQL_INSERTAR = "INSERT INTO nota (materia, observacion, valor, porcentaje, estudiante_id) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private static final int LONGITUD_MAXIMA_TEXTO = 255;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RepositorioEstudiante repositorioEstudiante;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ServicioResumenNotas servicioResumenNotas;
+
+    @Value("${notasapp.importacion.tamano-lote:500}")
+    private int tamanoLote;
+
+    @Value("${notasapp.importacion.intervalo-commit:5000}")
+    private int intervaloCommit;
+
+    public ResultadoImportacion importar(InputStream entrada, FormatoArchivo formato) throws IOException {
+        long[] idsEstudiantes = cargarIdsEstudiantes();
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        Lote lote = new Lote(tamanoLote);
+        Tramo tramo = new Tramo();
+
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            String linea;
+            long numeroLinea = 0;
+
+            if (formato == FormatoArchivo.CSV) {
+                // Encabezado
+                lector.readLine();
+                numeroLinea++;
+            }
+
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                resultado.filaLeida();
+
+                Object[] fila;
+                try {
+                    fila = formato == FormatoArchivo.CSV ? filaDesdeCsv(linea) : filaDesdeJson(linea);
+                    validar(fila, idsEstudiantes);
+                } catch (IllegalArgumentException e) {
+                    resultado.rechazar(numeroLinea, e.getMessage());
+                    continue;
+                }
+
+                lote.agregar(fila, numeroLinea);
+                if (lote.lleno()) {
+                    escribir(lote, tramo, resultado);
+                    if (tramo.filas >= intervaloCommit) {
+                        confirmar(tramo, resultado);
+                    }
+                }
+            }
+
+            escribir(lote, tramo, resultado);
+            confirmar(tramo, resultado);
+        } finally {
+            if (tramo.transaccion != null && !tramo.transaccion.isCompleted()) {
+                transactionManager.rollback(tramo.transaccion);
+            }
+        }
+
+        return resultado;
+    }
+
+    private long[] cargarIdsEstudiantes() {
+        List<Long> ids = repositorioEstudiante.findAllIds();
+        long[] arreglo = new long[ids.size()];
+        for (int i = 0; i < arreglo.length; i++) {
+            arreglo[i] = ids.get(i);
+        }
+        Arrays.sort(arreglo);
+        return arreglo;
+    }
+
+    private void escribir(Lote lote, Tramo tramo, ResultadoImportacion resultado) {
+        if (lote.filas.isEmpty()) {
+            return;
+        }
+        if (tramo.transaccion == null) {
+            tramo.transaccion = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            tramo.primeraLinea = lote.primeraLinea;
+        }
+        try {
+            jdbcTemplate.batchUpdate(SQL_INSERTAR, lote.filas);
+            // El resumen se actualiza en la misma transacción del tramo
+            servicioResumenNotas.acumularFilas(lote.filas);
+            tramo.filas += lote.filas.size();
+            tramo.ultimaLinea = lote.ultimaLinea;
+        } catch (DataAccessException e) {
+            // El rollback descarta también los lotes anteriores del tramo sin confirmar
+            transactionManager.rollback(tramo.transaccion);
+            resultado.rechazarLote(tramo.primeraLinea, lote.ultimaLinea, tramo.filas + lote.filas.size(),
+                    "error al insertar el lote: " + e.getMostSpecificCause().getMessage());
+            tramo.reiniciar();
+        } finally {
+            lote.limpiar();
+        }
+    }
+
+    private void confirmar(Tramo tramo, ResultadoImportacion resultado) {
+        if (tramo.transaccion == null) {
+            return;
+        }
+        transactionManager.commit(tramo.transaccion);
+        resultado.filasInsertadas(tramo.filas);
+        tramo.reiniciar();
+    }
+
+    // Orden de las columnas: materia, observacion, valor, porcentaje, estudiante_id
+    private static Object[] filaDesdeCsv(String linea) {
+        List<String> campos = separarCsv(linea);
+        if (campos.size() < 4) {
+            throw new IllegalArgumentException("se esperaban al menos 4 columnas y hay " + campos.size());
+        }
+        return new Object[] {
+                campos.get(1).trim(),
+                campos.size() > 4 ? campos.get(4).trim() : null,
+                numero(campos.get(2), "valor"),
+                numero(campos.get(3), "porcentaje"),
+                entero(campos.get(0), "estudianteId")
+        };
+    }
+
+    private Object[] filaDesdeJson(String linea) {
+        JsonNode nodo;
+        try {
+            nodo = objectMapper.readTree(linea);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("JSON inválido");
+        }
+        if (!nodo.isObject()) {
+            throw new IllegalArgumentException("se esperaba un objeto JSON");
+        }
+        return new Object[] {
+                nodo.path("materia").asText("").trim(),
+                nodo.hasNonNull("observacion") ? nodo.get("observacion").asText() : null,
+                numero(nodo.path("valor").asText(""), "valor"),
+                numero(nodo.path("porcentaje").asText(""), "porcentaje"),
+                entero(nodo.path("estudianteId").asText(""), "estudianteId")
+        };
+    }
+
+    private static void validar(Object[] fila, long[] idsEstudiantes) {
+        String materia = (String) fila[0];
+        if (materia.isEmpty()) {
+            throw new IllegalArgumentException("la materia es obligatoria");
+        }
+        if (materia.length() > LONGITUD_MAXIMA_TEXTO) {
+            throw new IllegalArgumentException("la materia supera " + LONGITUD_MAXIMA_TEXTO + " caracteres");
+        }
+        String observacion = (String) fila[1];
+        if (observacion != null && observacion.length() > LONGITUD_MAXIMA_TEXTO) {
+            throw new IllegalArgumentException("la observación supera " + LONGITUD_MAXIMA_TEXTO + " caracteres");
+        }
+        if ((Double) fila[2] < 0) {
+            throw new IllegalArgumentException("el valor no puede ser negativo");
+        }
+        double porcentaje = (Double) fila[3];
+        if (porcentaje < 0 || porcentaje > 100) {
+            throw new IllegalArgumentException("el porcentaje debe estar entre 0 y 100");
+        }
+        long estudianteId = (Long) fila[4];
+        if (Arrays.binarySearch(idsEstudiantes, estudianteId) < 0) {
+            throw new IllegalArgumentException("el estudiante ID " + estudianteId + " no existe");
+        }
+    }
+
+    private static Double numero(String texto, String campo) {
+        try {
+            double valor = Double.parseDouble(texto.trim());
+            if (!Double.isFinite(valor)) {
+                throw new NumberFormatException();
+            }
+            return valor;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("el campo " + campo + " no es numérico: '" + texto + "'");
+        }
+    }
+
+    private static Long entero(String texto, String campo) {
+        try {
+            return Long.parseLong(texto.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("el campo " + campo + " no es un entero: '" + texto + "'");
+        }
+    }
+
+    /**
+     * Separa una línea CSV respetando comillas dobles ("a,b" y "" como comilla).
+     */
+    static List<String> separarCsv(String linea) {
+        List<String> campos = new ArrayList<>(5);
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    // Filas escritas en la transacción abierta, pendientes de confirmar
+    private static final class Tramo {
+        private TransactionStatus transaccion;
+        private int filas;
+        private long primeraLinea;
+        private long ultimaLinea;
+
+        private void reiniciar() {
+            transaccion = null;
+            filas = 0;
+        }
+    }
+
+    private static final class Lote {
+        private final int capacidad;
+        private final List<Object[]> filas;
+        private long primeraLinea;
+        private long ultimaLinea;
+
+        private Lote(int capacidad) {
+            this.capacidad = capacidad;
+            this.filas = new ArrayList<>(capacidad);
+        }
+
+        private void agregar(Object[] fila, long linea) {
+            if (filas.isEmpty()) {
+                primeraLinea = linea;
+            }
+            ultimaLinea = linea;
+            filas.add(fila);
+        }
+
+        private boolean lleno() {
+            return filas.size() >= capacidad;
+        }
+
+        private void limpiar() {
+            filas.clear();
+        }
+    }
+}
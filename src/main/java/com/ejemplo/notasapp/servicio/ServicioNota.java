@@ -1,7 +1,10 @@
 package com.ejemplo.notasapp.servicio;
 
 import com.ejemplo.notasapp.modelo.Nota;
+import com.ejemplo.notasapp.modelo.PromedioMateria;
+import com.ejemplo.notasapp.modelo.ResumenNota;
 import com.ejemplo.notasapp.repositorio.RepositorioNota;
+import com.ejemplo.notasapp.repositorio.RepositorioResumenNota;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -13,19 +16,37 @@ public class ServicioNota {
     @Autowired
     private RepositorioNota repositorioNota;
 
+    @Autowired
+    private RepositorioResumenNota repositorioResumenNota;
+
     public List<Nota> obtenerNotasPorEstudianteYMateria(Long estudianteId, String materia) {
         return repositorioNota.findByEstudianteIdAndMateria(estudianteId, materia);
     }
+
+    /**
+     * Promedio ponderado de una materia leído de la fila de resumen, sin
+     * recorrer las notas. Retorna 0 si el estudiante no tiene notas con
+     * porcentaje en la materia.
+     */
     public double calcularPromedioPorMateria(Long estudianteId, String materia) {
-        List<Nota> notas = obtenerNotasPorEstudianteYMateria(estudianteId, materia);
-        double sumaPonderada = notas.stream()
-                .mapToDouble(n -> n.getValor() * n.getPorcentaje())
-                .sum();
-        double totalPorcentaje = notas.stream()
-                .mapToDouble(Nota::getPorcentaje)
-                .sum();
-        return totalPorcentaje > 0 ? sumaPonderada / totalPorcentaje : null;
-        //return notas.stream().mapToDouble((Nota::getValor)).average().orElse(0.0);
+        return repositorioResumenNota.findByEstudianteIdAndMateria(estudianteId, materia != null ? materia : "")
+                .map(ResumenNota::getPromedio)
+                .orElse(0.0);
+    }
+
+    /**
+     * Promedio ponderado de cada materia del estudiante, leído del resumen.
+     */
+    public List<PromedioMateria> calcularPromediosPorMateria(Long estudianteId) {
+        return repositorioResumenNota.promediosPorMateria(estudianteId);
+    }
+
+    /**
+     * Promedio ponderado por materia de todos los estudiantes (curso completo),
+     * leído del resumen.
+     */
+    public List<PromedioMateria> calcularPromediosPorMateriaCurso() {
+        return repositorioResumenNota.promediosPorMateriaCurso();
     }
 
 }
@@ -0,0 +1,168 @@
+package com.ejemplo.notasapp.servicio;
+
+import com.ejemplo.notasapp.modelo.FilaReporteCurso;
+import com.ejemplo.notasapp.modelo.ReporteCurso;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Reporte de notas finales del curso completo: promedio por materia,
+ * promedio general y posición de cada estudiante.
+ *
+ * El rango de ids de estudiante se divide recursivamente en un ForkJoinPool
+ * hasta particiones de notasapp.reporte.estudiantes-por-particion; cada
+ * partición lee sus estudiantes con el resumen de notas en una consulta de
+ * solo lectura, y los resultados parciales se concatenan en orden de id. Al
+ * final se ordena por promedio general y se asignan las posiciones.
+ *
+ * Cada tarea hoja ocupa una conexión mientras consulta, así que el
+ * paralelismo por defecto no supera el tamaño del pool de conexiones.
+ */
+@Service
+public class ServicioReporteCurso {
+
+    private static final String SQL_PARTICION = "SELECT e.id, e.nombre, e.apellido, r.materia, r.suma_ponderada, "
+            + "r.suma_porcentajes, r.total_notas FROM estudiante e "
+            + "LEFT JOIN resumen_nota r ON r.estudiante_id = e.id AND r.total_notas > 0 "
+            + "WHERE e.id BETWEEN ? AND ? ORDER BY e.id, r.materia";
+
+    // Mayor promedio primero; sin promedio al final; empates por id
+    private static final Comparator<FilaReporteCurso> ORDEN_POSICION = Comparator
+            .comparing(FilaReporteCurso::getPromedioGeneral, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparingLong(FilaReporteCurso::getEstudianteId);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${notasapp.reporte.estudiantes-por-particion:2000}")
+    private int estudiantesPorParticion;
+
+    @Value("${notasapp.reporte.paralelismo:0}")
+    private int paralelismo;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int tamanoPoolConexiones;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void iniciar() {
+        int hilos = paralelismo > 0 ? paralelismo
+                : Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), tamanoPoolConexiones));
+        pool = nuevoPool(hilos);
+    }
+
+    @PreDestroy
+    public void detener() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Pool con hilos daemon llamados reporte-curso-N. Los benchmarks lo usan
+     * para medir el mismo reporte con distinto paralelismo.
+     */
+    public static ForkJoinPool nuevoPool(int hilos) {
+        return new ForkJoinPool(hilos, p -> {
+            ForkJoinWorkerThread hilo = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            hilo.setName("reporte-curso-" + hilo.getPoolIndex());
+            hilo.setDaemon(true);
+            return hilo;
+        }, null, false);
+    }
+
+    public ReporteCurso generar() {
+        return generar(pool);
+    }
+
+    public ReporteCurso generar(ForkJoinPool pool) {
+        long inicio = System.currentTimeMillis();
+        long[] rango = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM estudiante", (rs, i) -> {
+            long minimo = rs.getLong(1);
+            return rs.wasNull() ? null : new long[] { minimo, rs.getLong(2) };
+        });
+        Parcial total = rango == null ? new Parcial()
+                : pool.invoke(new TareaParticion(rango[0], rango[1]));
+
+        List<FilaReporteCurso> filas = total.filas;
+        filas.sort(ORDEN_POSICION);
+        // Posición de competición: empates comparten posición y la siguiente salta (1, 2, 2, 4)
+        for (int i = 0; i < filas.size(); i++) {
+            FilaReporteCurso fila = filas.get(i);
+            if (fila.getPromedioGeneral() == null) {
+                break;
+            }
+            boolean empate = i > 0 && fila.getPromedioGeneral().equals(filas.get(i - 1).getPromedioGeneral());
+            fila.setPosicion(empate ? filas.get(i - 1).getPosicion() : i + 1);
+        }
+        return new ReporteCurso(new ArrayList<>(total.materias), filas, total.particiones, pool.getParallelism(),
+                System.currentTimeMillis() - inicio);
+    }
+
+    private Parcial consultarParticion(long desde, long hasta) {
+        Parcial parcial = new Parcial();
+        parcial.particiones = 1;
+        jdbcTemplate.query(SQL_PARTICION, rs -> {
+            long estudianteId = rs.getLong(1);
+            List<FilaReporteCurso> filas = parcial.filas;
+            FilaReporteCurso fila = filas.isEmpty() ? null : filas.get(filas.size() - 1);
+            if (fila == null || fila.getEstudianteId() != estudianteId) {
+                fila = new FilaReporteCurso(estudianteId, rs.getString(2), rs.getString(3));
+                filas.add(fila);
+            }
+            String materia = rs.getString(4);
+            if (materia != null) {
+                fila.agregarMateria(materia, rs.getDouble(5), rs.getDouble(6), rs.getLong(7));
+                parcial.materias.add(materia);
+            }
+        }, desde, hasta);
+        return parcial;
+    }
+
+    private static final class Parcial {
+        private final List<FilaReporteCurso> filas = new ArrayList<>();
+        private final TreeSet<String> materias = new TreeSet<>();
+        private int particiones;
+
+        // Las filas de la derecha tienen ids mayores: concatenar mantiene el orden por id
+        private Parcial unir(Parcial derecha) {
+            filas.addAll(derecha.filas);
+            materias.addAll(derecha.materias);
+            particiones += derecha.particiones;
+            return this;
+        }
+    }
+
+    private final class TareaParticion extends RecursiveTask<Parcial> {
+        private final long desde;
+        private final long hasta;
+
+        private TareaParticion(long desde, long hasta) {
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Parcial compute() {
+            if (hasta - desde < estudiantesPorParticion) {
+                return consultarParticion(desde, hasta);
+            }
+            long medio = desde + (hasta - desde) / 2;
+            TareaParticion izquierda = new TareaParticion(desde, medio);
+            izquierda.fork();
+            Parcial derecha = new TareaParticion(medio + 1, hasta).compute();
+            return izquierda.join().unir(derecha);
+        }
+    }
+}
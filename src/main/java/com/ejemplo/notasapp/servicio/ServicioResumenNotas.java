@@ -0,0 +1,402 @@
+package com.ejemplo.notasapp.servicio;
+
+import com.ejemplo.notasapp.modelo.Nota;
+import com.ejemplo.notasapp.modelo.ResultadoVerificacionResumen;
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import com.ejemplo.notasapp.repositorio.RepositorioEstudiante;
+import com.ejemplo.notasapp.repositorio.RepositorioNota;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mantiene la tabla resumen_nota: por (estudiante, materia) la suma de
+ * valor * porcentaje, la suma de porcentajes y la cantidad de notas.
+ *
+ * Cada escritura de notas (guardar, editar, eliminar, importar) aplica su
+ * diferencia al resumen en la misma transacción, con un MERGE que suma sobre
+ * la fila existente. Al editar, la fila anterior de la nota se lee con
+ * SELECT ... FOR UPDATE para que dos ediciones concurrentes no resten los
+ * mismos valores. Las diferencias se aplican en orden de clave para que dos
+ * transacciones no se bloqueen mutuamente.
+ *
+ * verificar recalcula el resumen desde las notas en paralelo, por
+ * particiones de estudiantes, e informa la deriva; con corregir=true
+ * reconstruye las particiones que la tengan. Conviene reconstruir con poca
+ * escritura concurrente; la verificación sola solo lee.
+ */
+@Service
+public class ServicioResumenNotas {
+
+    private static final String SQL_ACUMULAR = "MERGE INTO resumen_nota r "
+            + "USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), CAST(? AS DOUBLE PRECISION), "
+            + "CAST(? AS DOUBLE PRECISION), CAST(? AS BIGINT))) "
+            + "AS d(estudiante_id, materia, suma_ponderada, suma_porcentajes, total_notas) "
+            + "ON r.estudiante_id = d.estudiante_id AND r.materia = d.materia "
+            + "WHEN MATCHED THEN UPDATE SET suma_ponderada = r.suma_ponderada + d.suma_ponderada, "
+            + "suma_porcentajes = r.suma_porcentajes + d.suma_porcentajes, total_notas = r.total_notas + d.total_notas "
+            + "WHEN NOT MATCHED THEN INSERT (estudiante_id, materia, suma_ponderada, suma_porcentajes, total_notas) "
+            + "VALUES (d.estudiante_id, d.materia, d.suma_ponderada, d.suma_porcentajes, d.total_notas)";
+
+    private static final String SQL_NOTA_BLOQUEADA =
+            "SELECT estudiante_id, materia, valor, porcentaje FROM nota WHERE id = ? FOR UPDATE";
+
+    // Misma definición que el cálculo incremental: los productos o porcentajes nulos no suman
+    private static final String SQL_AGREGAR_NOTAS = "SELECT estudiante_id, COALESCE(materia, '') AS materia, "
+            + "COALESCE(SUM(valor * porcentaje), 0) AS suma_ponderada, "
+            + "COALESCE(SUM(porcentaje), 0) AS suma_porcentajes, COUNT(*) AS total_notas "
+            + "FROM nota WHERE estudiante_id BETWEEN ? AND ? GROUP BY estudiante_id, COALESCE(materia, '')";
+
+    private static final String SQL_RESUMEN_PARTICION = "SELECT estudiante_id, materia, suma_ponderada, "
+            + "suma_porcentajes, total_notas FROM resumen_nota WHERE estudiante_id BETWEEN ? AND ? AND total_notas > 0";
+
+    // Tolerancia relativa de las sumas de punto flotante acumuladas
+    private static final double TOLERANCIA = 1e-6;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RepositorioNota repositorioNota;
+
+    @Autowired
+    private RepositorioEstudiante repositorioEstudiante;
+
+    @Autowired
+    private ConfiguracionHilos configuracionHilos;
+
+    @Autowired
+    private RegistroEventos registroEventos;
+
+    @Value("${notasapp.resumenes.estudiantes-por-particion:500}")
+    private int estudiantesPorParticion;
+
+    @Value("${notasapp.resumenes.hilos-verificacion:4}")
+    private int hilosVerificacion;
+
+    @Value("${notasapp.resumenes.reconstruir-al-iniciar:true}")
+    private boolean reconstruirAlIniciar;
+
+    private TransactionTemplate transaccion;
+    private final AtomicBoolean verificando = new AtomicBoolean();
+    private volatile ResultadoVerificacionResumen ultimaVerificacion;
+
+    @PostConstruct
+    public void iniciar() {
+        transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Construye el resumen si la tabla está vacía y ya hay notas, por ejemplo
+     * en una base creada antes de existir el resumen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirSiFalta() {
+        if (!reconstruirAlIniciar) {
+            return;
+        }
+        Long resumenes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM resumen_nota", Long.class);
+        Long notas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM nota", Long.class);
+        if (resumenes == 0 && notas > 0) {
+            ResultadoVerificacionResumen resultado = verificar(true);
+            registroEventos.registrador("ServicioResumenNotas").evento(NivelEvento.INFO, "resumen_construido",
+                    "filas", resultado.getFilasEsperadas(), "duracionMs", resultado.getDuracionMs());
+        }
+    }
+
+    /**
+     * Guarda una nota nueva o editada y aplica la diferencia al resumen en la
+     * misma transacción.
+     */
+    public Nota guardarNota(Nota nota) {
+        return transaccion.execute(estado -> {
+            Map<Clave, Delta> deltas = new TreeMap<>();
+            if (nota.getId() != null) {
+                List<Object[]> anterior = jdbcTemplate.query(SQL_NOTA_BLOQUEADA, (rs, i) -> new Object[] {
+                        rs.getObject("estudiante_id", Long.class), rs.getString("materia"),
+                        rs.getObject("valor", Double.class), rs.getObject("porcentaje", Double.class) }, nota.getId());
+                if (!anterior.isEmpty()) {
+                    Object[] fila = anterior.get(0);
+                    sumar(deltas, (Long) fila[0], (String) fila[1], (Double) fila[2], (Double) fila[3], -1);
+                }
+            }
+            Nota guardada = repositorioNota.save(nota);
+            Long estudianteId = guardada.getEstudiante() != null ? guardada.getEstudiante().getId() : null;
+            sumar(deltas, estudianteId, guardada.getMateria(), guardada.getValor(), guardada.getPorcentaje(), 1);
+            aplicar(deltas);
+            return guardada;
+        });
+    }
+
+    /**
+     * Elimina la nota y resta su aporte del resumen. Retorna el id del
+     * estudiante propietario, o vacío si la nota no existe.
+     */
+    public Optional<Long> eliminarNota(Long notaId) {
+        return transaccion.execute(estado -> {
+            List<Object[]> filas = jdbcTemplate.query(SQL_NOTA_BLOQUEADA, (rs, i) -> new Object[] {
+                    rs.getObject("estudiante_id", Long.class), rs.getString("materia"),
+                    rs.getObject("valor", Double.class), rs.getObject("porcentaje", Double.class) }, notaId);
+            if (filas.isEmpty()) {
+                return Optional.<Long>empty();
+            }
+            Object[] fila = filas.get(0);
+            repositorioNota.deleteById(notaId);
+            Map<Clave, Delta> deltas = new TreeMap<>();
+            sumar(deltas, (Long) fila[0], (String) fila[1], (Double) fila[2], (Double) fila[3], -1);
+            aplicar(deltas);
+            return Optional.ofNullable((Long) fila[0]);
+        });
+    }
+
+    /**
+     * Elimina el estudiante junto con sus notas, borradas en una sola
+     * sentencia antes de la cascada, y sus filas de resumen.
+     */
+    public void eliminarEstudiante(Long estudianteId) {
+        transaccion.executeWithoutResult(estado -> {
+            repositorioNota.eliminarPorEstudiante(estudianteId);
+            repositorioEstudiante.deleteById(estudianteId);
+            repositorioEstudiante.flush();
+            jdbcTemplate.update("DELETE FROM resumen_nota WHERE estudiante_id = ?", estudianteId);
+        });
+    }
+
+    /**
+     * Suma al resumen las filas insertadas por la importación, dentro de la
+     * transacción del llamador. Cada fila sigue el orden de columnas del
+     * INSERT de la importación: materia, observacion, valor, porcentaje,
+     * estudiante_id.
+     */
+    public void acumularFilas(List<Object[]> filas) {
+        Map<Clave, Delta> deltas = new TreeMap<>();
+        for (Object[] fila : filas) {
+            sumar(deltas, (Long) fila[4], (String) fila[0], (Double) fila[2], (Double) fila[3], 1);
+        }
+        aplicar(deltas);
+    }
+
+    private static void sumar(Map<Clave, Delta> deltas, Long estudianteId, String materia, Double valor,
+            Double porcentaje, int signo) {
+        if (estudianteId == null) {
+            return;
+        }
+        Delta delta = deltas.computeIfAbsent(new Clave(estudianteId, materia != null ? materia : ""),
+                k -> new Delta());
+        if (valor != null && porcentaje != null) {
+            delta.sumaPonderada += signo * valor * porcentaje;
+        }
+        if (porcentaje != null) {
+            delta.sumaPorcentajes += signo * porcentaje;
+        }
+        delta.totalNotas += signo;
+    }
+
+    private void aplicar(Map<Clave, Delta> deltas) {
+        List<Object[]> filas = new ArrayList<>(deltas.size());
+        deltas.forEach((clave, delta) -> {
+            // Una edición que solo cambia la observación no modifica el resumen
+            if (delta.sumaPonderada != 0 || delta.sumaPorcentajes != 0 || delta.totalNotas != 0) {
+                filas.add(new Object[] { clave.estudianteId, clave.materia, delta.sumaPonderada,
+                        delta.sumaPorcentajes, delta.totalNotas });
+            }
+        });
+        if (filas.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(SQL_ACUMULAR, filas);
+        } catch (DuplicateKeyException e) {
+            // Otra transacción insertó la misma fila nueva a la vez; ahora existe y el MERGE la
+            // actualiza. H2 ejecuta el lote entero antes de lanzar: solo se repiten las que fallaron
+            for (Object[] fila : filasFallidas(e, filas)) {
+                jdbcTemplate.update(SQL_ACUMULAR, fila);
+            }
+        }
+    }
+
+    /**
+     * Filas del lote que no se aplicaron según los resultados del
+     * BatchUpdateException. Sin ellos no se sabe qué filas se sumaron y se
+     * relanza la excepción para que la transacción se revierta.
+     */
+    private static List<Object[]> filasFallidas(DuplicateKeyException e, List<Object[]> filas) {
+        if (!(e.getCause() instanceof BatchUpdateException lote)) {
+            throw e;
+        }
+        int[] resultados = lote.getUpdateCounts();
+        List<Object[]> fallidas = new ArrayList<>();
+        for (int i = 0; i < filas.size(); i++) {
+            // Si el controlador se detuvo antes, las filas restantes no se ejecutaron
+            if (i >= resultados.length || resultados[i] == Statement.EXECUTE_FAILED) {
+                fallidas.add(filas.get(i));
+            }
+        }
+        return fallidas;
+    }
+
+    /**
+     * Recalcula el resumen desde las notas en paralelo y lo compara con la
+     * tabla. Con corregir=true reconstruye cada partición con deriva en su
+     * propia transacción.
+     */
+    public ResultadoVerificacionResumen verificar(boolean corregir) {
+        if (!verificando.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una verificación del resumen en curso");
+        }
+        long inicio = System.currentTimeMillis();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(Math.max(1, hilosVerificacion),
+                configuracionHilos.fabrica("verificacion-resumen"));
+        try {
+            ResultadoVerificacionResumen resultado = new ResultadoVerificacionResumen();
+            long[] rango = rangoEstudiantes();
+            if (rango != null) {
+                List<Future<ResultadoVerificacionResumen>> particiones = new ArrayList<>();
+                for (long desde = rango[0]; desde <= rango[1]; desde += estudiantesPorParticion) {
+                    long inicioParticion = desde;
+                    long finParticion = Math.min(rango[1], desde + estudiantesPorParticion - 1);
+                    particiones.add(ejecutor.submit(() -> verificarParticion(inicioParticion, finParticion, corregir)));
+                }
+                for (Future<ResultadoVerificacionResumen> particion : particiones) {
+                    resultado.combinar(particion.get());
+                }
+            }
+            resultado.setDuracionMs(System.currentTimeMillis() - inicio);
+            ultimaVerificacion = resultado;
+            return resultado;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verificación del resumen interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al verificar el resumen: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            ejecutor.shutdownNow();
+            verificando.set(false);
+        }
+    }
+
+    // Menor y mayor estudiante_id presentes en las notas o en el resumen, o null si no hay filas
+    private long[] rangoEstudiantes() {
+        return jdbcTemplate.queryForObject("SELECT MIN(m), MAX(x) FROM ("
+                + "SELECT MIN(estudiante_id) AS m, MAX(estudiante_id) AS x FROM nota UNION ALL "
+                + "SELECT MIN(estudiante_id), MAX(estudiante_id) FROM resumen_nota)", (rs, i) -> {
+                    long minimo = rs.getLong(1);
+                    return rs.wasNull() ? null : new long[] { minimo, rs.getLong(2) };
+                });
+    }
+
+    private ResultadoVerificacionResumen verificarParticion(long desde, long hasta, boolean corregir) {
+        Map<Clave, double[]> esperado = new HashMap<>();
+        jdbcTemplate.query(SQL_AGREGAR_NOTAS, rs -> {
+            esperado.put(new Clave(rs.getLong(1), rs.getString(2)),
+                    new double[] { rs.getDouble(3), rs.getDouble(4), rs.getLong(5) });
+        }, desde, hasta);
+        Map<Clave, double[]> actual = new HashMap<>();
+        jdbcTemplate.query(SQL_RESUMEN_PARTICION, rs -> {
+            actual.put(new Clave(rs.getLong(1), rs.getString(2)),
+                    new double[] { rs.getDouble(3), rs.getDouble(4), rs.getLong(5) });
+        }, desde, hasta);
+
+        ResultadoVerificacionResumen resultado = new ResultadoVerificacionResumen();
+        resultado.filas(esperado.size(), actual.size());
+        esperado.forEach((clave, valores) -> {
+            double[] guardados = actual.get(clave);
+            if (guardados == null) {
+                resultado.faltante(clave.toString());
+                return;
+            }
+            double diferencia = Math.max(diferenciaRelativa(valores[0], guardados[0]),
+                    diferenciaRelativa(valores[1], guardados[1]));
+            if (diferencia > TOLERANCIA || valores[2] != guardados[2]) {
+                resultado.diferente(clave.toString(), diferencia, String.format(
+                        "esperado (%.4f, %.4f, %d), resumen (%.4f, %.4f, %d)", valores[0], valores[1],
+                        (long) valores[2], guardados[0], guardados[1], (long) guardados[2]));
+            }
+        });
+        actual.keySet().stream().filter(clave -> !esperado.containsKey(clave))
+                .forEach(clave -> resultado.sobrante(clave.toString()));
+
+        boolean reconstruir = corregir && resultado.hayDeriva();
+        if (reconstruir) {
+            transaccion.executeWithoutResult(estado -> {
+                jdbcTemplate.update("DELETE FROM resumen_nota WHERE estudiante_id BETWEEN ? AND ?", desde, hasta);
+                jdbcTemplate.update("INSERT INTO resumen_nota "
+                        + "(estudiante_id, materia, suma_ponderada, suma_porcentajes, total_notas) "
+                        + SQL_AGREGAR_NOTAS, desde, hasta);
+            });
+        }
+        resultado.particionRevisada(reconstruir);
+        return resultado;
+    }
+
+    private static double diferenciaRelativa(double esperado, double actual) {
+        return Math.abs(esperado - actual) / Math.max(1.0, Math.abs(esperado));
+    }
+
+    public ResultadoVerificacionResumen getUltimaVerificacion() {
+        return ultimaVerificacion;
+    }
+
+    private static final class Clave implements Comparable<Clave> {
+        private final long estudianteId;
+        private final String materia;
+
+        private Clave(long estudianteId, String materia) {
+            this.estudianteId = estudianteId;
+            this.materia = materia;
+        }
+
+        @Override
+        public int compareTo(Clave otra) {
+            int c = Long.compare(estudianteId, otra.estudianteId);
+            return c != 0 ? c : materia.compareTo(otra.materia);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Clave otra && estudianteId == otra.estudianteId && materia.equals(otra.materia);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(estudianteId, materia);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + estudianteId + ", " + materia + ")";
+        }
+    }
+
+    private static final class Delta {
+        private double sumaPonderada;
+        private double sumaPorcentajes;
+        private long totalNotas;
+    }
+}
@@ -0,0 +1,98 @@
+package com.ejemplo.notasapp.servicio;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versión de los datos de cada estudiante para las respuestas condicionales
+ * de las páginas de notas y promedios (ETag y Last-Modified).
+ *
+ * Los controladores llaman a modificado() en cada escritura, junto a la
+ * invalidación de CacheLecturas; la importación masiva cambia la generación
+ * de todos. Las versiones viven en memoria de la instancia: el ETag incluye
+ * el arranque de la instancia y el periodo de notasapp.cache-lecturas.ttl-ms,
+ * de modo que una escritura hecha en otra instancia no se sirve como vigente
+ * más tiempo que la caché de lecturas.
+ */
+@Service
+public class VersionesEstudiante {
+
+    private final long inicio = System.currentTimeMillis();
+    private final String prefijo = Long.toString(inicio, 36);
+    private final Map<Long, Version> versiones = new ConcurrentHashMap<>();
+
+    // Importaciones: cambian todas las páginas de estudiante
+    private volatile Version generacion = new Version(0, inicio);
+    // Cualquier escritura: cambia las páginas del curso completo
+    private volatile Version curso = new Version(0, inicio);
+
+    @Value("${notasapp.cache-lecturas.ttl-ms:300000}")
+    private long ttlMs;
+
+    public void modificado(Long estudianteId) {
+        if (estudianteId == null) {
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        versiones.compute(estudianteId, (id, v) -> new Version(v == null ? 1 : v.numero + 1, ahora));
+        cursoModificado(ahora);
+    }
+
+    public void todosModificados() {
+        long ahora = System.currentTimeMillis();
+        synchronized (this) {
+            generacion = new Version(generacion.numero + 1, ahora);
+        }
+        cursoModificado(ahora);
+    }
+
+    /** ETag fuerte de las páginas del estudiante, con comillas. */
+    public String etag(Long estudianteId) {
+        Version v = versiones.get(estudianteId);
+        return etag(generacion.numero + "." + (v == null ? 0 : v.numero));
+    }
+
+    public long ultimaModificacion(Long estudianteId) {
+        Version v = versiones.get(estudianteId);
+        return Math.max(inicioPeriodo(), Math.max(generacion.modificado, v == null ? inicio : v.modificado));
+    }
+
+    public String etagCurso() {
+        return etag("c" + curso.numero);
+    }
+
+    public long ultimaModificacionCurso() {
+        return Math.max(inicioPeriodo(), curso.modificado);
+    }
+
+    private synchronized void cursoModificado(long ahora) {
+        curso = new Version(curso.numero + 1, ahora);
+    }
+
+    private String etag(String version) {
+        return "\"" + prefijo + "." + System.currentTimeMillis() / periodoMs() + "." + version + "\"";
+    }
+
+    // Last-Modified avanza con el periodo igual que el ETag
+    private long inicioPeriodo() {
+        long periodo = periodoMs();
+        return Math.max(inicio, System.currentTimeMillis() / periodo * periodo);
+    }
+
+    private long periodoMs() {
+        return Math.max(1, ttlMs);
+    }
+
+    private static final class Version {
+        private final long numero;
+        private final long modificado;
+
+        private Version(long numero, long modificado) {
+            this.numero = numero;
+            this.modificado = modificado;
+        }
+    }
+}
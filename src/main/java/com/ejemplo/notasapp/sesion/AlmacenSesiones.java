@@ -0,0 +1,33 @@
+package com.ejemplo.notasapp.sesion;
+
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+
+import java.util.Optional;
+
+/**
+ * Almacén de sesiones de usuario indexado por el token de la cookie
+ * NOTASAPP_SESION. La implementación se elige con notasapp.sesiones.almacen:
+ * MEMORIA (por defecto, local a la instancia) o ARCHIVO (sobrevive a los
+ * reinicios y lo comparten las instancias del mismo equipo).
+ *
+ * Una entrada vence notasapp.sesiones.duracion-minutos después del último
+ * acceso registrado con obtener o tocar.
+ */
+public interface AlmacenSesiones {
+
+    void guardar(String token, UsuarioSesion usuario);
+
+    Optional<UsuarioSesion> obtener(String token);
+
+    // Extiende el vencimiento sin leer el usuario
+    void tocar(String token);
+
+    void eliminar(String token);
+
+    // Elimina las entradas vencidas y retorna cuántas eliminó
+    int limpiarVencidas();
+
+    long contar();
+
+    String getTipo();
+}
@@ -0,0 +1,170 @@
+package com.ejemplo.notasapp.sesion;
+
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.Registrador;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Sesiones en un directorio local, un archivo {token}.ses por sesión con el
+ * formato de CodecUsuarioSesion. Sobreviven a los reinicios y varias
+ * instancias del mismo equipo pueden compartir el directorio.
+ *
+ * Cada archivo se escribe en un temporal y se renombra de forma atómica, así
+ * que otra instancia nunca lee uno a medias. El último acceso es la fecha de
+ * modificación del archivo; se actualiza como mucho una vez por décima parte
+ * de la duración para no escribir en cada petición.
+ */
+@Component
+@ConditionalOnProperty(name = "notasapp.sesiones.almacen", havingValue = "ARCHIVO")
+public class AlmacenSesionesArchivo implements AlmacenSesiones {
+
+    private static final String EXTENSION = ".ses";
+    private static final Pattern TOKEN_VALIDO = Pattern.compile("[A-Za-z0-9_-]{16,64}");
+
+    private final Path directorio;
+    private final long duracionMs;
+    private final long intervaloToqueMs;
+    private final Registrador registro;
+
+    public AlmacenSesionesArchivo(@Value("${notasapp.sesiones.directorio:./data/sesiones}") String directorio,
+            @Value("${notasapp.sesiones.duracion-minutos:30}") long duracionMinutos,
+            RegistroEventos registroEventos) throws IOException {
+        this.registro = registroEventos.registrador("AlmacenSesionesArchivo");
+        this.directorio = Files.createDirectories(Paths.get(directorio));
+        this.duracionMs = TimeUnit.MINUTES.toMillis(duracionMinutos);
+        this.intervaloToqueMs = duracionMs / 10;
+    }
+
+    @Override
+    public void guardar(String token, UsuarioSesion usuario) {
+        Path archivo = archivo(token);
+        try {
+            Path temporal = Files.createTempFile(directorio, token, ".tmp");
+            try {
+                Files.write(temporal, CodecUsuarioSesion.codificar(usuario));
+                Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temporal);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar la sesión", e);
+        }
+    }
+
+    @Override
+    public Optional<UsuarioSesion> obtener(String token) {
+        if (!TOKEN_VALIDO.matcher(token).matches()) {
+            return Optional.empty();
+        }
+        Path archivo = archivo(token);
+        try {
+            long ahora = System.currentTimeMillis();
+            long ultimoAcceso = Files.getLastModifiedTime(archivo).toMillis();
+            if (ahora - ultimoAcceso > duracionMs) {
+                Files.deleteIfExists(archivo);
+                return Optional.empty();
+            }
+            UsuarioSesion usuario = CodecUsuarioSesion.decodificar(Files.readAllBytes(archivo));
+            if (ahora - ultimoAcceso > intervaloToqueMs) {
+                Files.setLastModifiedTime(archivo, FileTime.fromMillis(ahora));
+            }
+            return Optional.of(usuario);
+        } catch (NoSuchFileException e) {
+            // Eliminada por otra instancia o por la limpieza
+            return Optional.empty();
+        } catch (IllegalArgumentException e) {
+            registro.evento(NivelEvento.WARN, "sesion_ilegible", "archivo", archivo, "error", e.getMessage());
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la sesión", e);
+        }
+    }
+
+    @Override
+    public void tocar(String token) {
+        if (!TOKEN_VALIDO.matcher(token).matches()) {
+            return;
+        }
+        try {
+            Files.setLastModifiedTime(archivo(token), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            // Ya no existe: la siguiente lectura la dará por cerrada
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo actualizar la sesión", e);
+        }
+    }
+
+    @Override
+    public void eliminar(String token) {
+        if (!TOKEN_VALIDO.matcher(token).matches()) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(archivo(token));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo eliminar la sesión", e);
+        }
+    }
+
+    @Override
+    public int limpiarVencidas() {
+        long limite = System.currentTimeMillis() - duracionMs;
+        int eliminadas = 0;
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "*" + EXTENSION)) {
+            for (Path archivo : archivos) {
+                try {
+                    if (Files.getLastModifiedTime(archivo).toMillis() < limite && Files.deleteIfExists(archivo)) {
+                        eliminadas++;
+                    }
+                } catch (NoSuchFileException e) {
+                    // Eliminada por otra instancia mientras se recorría el directorio
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo limpiar el directorio de sesiones", e);
+        }
+        return eliminadas;
+    }
+
+    @Override
+    public long contar() {
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "*" + EXTENSION)) {
+            long total = 0;
+            for (Path ignorado : archivos) {
+                total++;
+            }
+            return total;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo recorrer el directorio de sesiones", e);
+        }
+    }
+
+    @Override
+    public String getTipo() {
+        return "ARCHIVO (" + directorio.toAbsolutePath().normalize() + ")";
+    }
+
+    private Path archivo(String token) {
+        if (!TOKEN_VALIDO.matcher(token).matches()) {
+            throw new IllegalArgumentException("Token de sesión inválido");
+        }
+        return directorio.resolve(token + EXTENSION);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ejemplo.notasapp.sesion;
+
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sesiones en memoria de esta instancia, guardadas con el formato compacto
+ * de CodecUsuarioSesion. No sobreviven a un reinicio.
+ */
+@Component
+@ConditionalOnProperty(name = "notasapp.sesiones.almacen", havingValue = "MEMORIA", matchIfMissing = true)
+public class AlmacenSesionesMemoria implements AlmacenSesiones {
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final long duracionMs;
+
+    public AlmacenSesionesMemoria(@Value("${notasapp.sesiones.duracion-minutos:30}") long duracionMinutos) {
+        this.duracionMs = TimeUnit.MINUTES.toMillis(duracionMinutos);
+    }
+
+    @Override
+    public void guardar(String token, UsuarioSesion usuario) {
+        entradas.put(token, new Entrada(CodecUsuarioSesion.codificar(usuario), System.currentTimeMillis()));
+    }
+
+    @Override
+    public Optional<UsuarioSesion> obtener(String token) {
+        Entrada entrada = entradas.get(token);
+        long ahora = System.currentTimeMillis();
+        if (entrada == null) {
+            return Optional.empty();
+        }
+        if (ahora - entrada.ultimoAcceso > duracionMs) {
+            entradas.remove(token, entrada);
+            return Optional.empty();
+        }
+        entrada.ultimoAcceso = ahora;
+        return Optional.of(CodecUsuarioSesion.decodificar(entrada.datos));
+    }
+
+    @Override
+    public void tocar(String token) {
+        Entrada entrada = entradas.get(token);
+        if (entrada != null) {
+            entrada.ultimoAcceso = System.currentTimeMillis();
+        }
+    }
+
+    @Override
+    public void eliminar(String token) {
+        entradas.remove(token);
+    }
+
+    @Override
+    public int limpiarVencidas() {
+        long limite = System.currentTimeMillis() - duracionMs;
+        int antes = entradas.size();
+        entradas.values().removeIf(entrada -> entrada.ultimoAcceso < limite);
+        return Math.max(0, antes - entradas.size());
+    }
+
+    @Override
+    public long contar() {
+        return entradas.size();
+    }
+
+    @Override
+    public String getTipo() {
+        return "MEMORIA";
+    }
+
+    private static final class Entrada {
+        private final byte[] datos;
+        private volatile long ultimoAcceso;
+
+        private Entrada(byte[] datos, long ultimoAcceso) {
+            this.datos = datos;
+            this.ultimoAcceso = ultimoAcceso;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ejemplo.notasapp.sesion;
+
+import com.ejemplo.notasapp.modelo.Rol;
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Formato binario compacto de UsuarioSesion para los almacenes de sesiones:
+ *
+ * <pre>
+ * versión     1 byte
+ * rol         1 byte: 0 sin rol o el código de Rol (1 ALUMNO, 2 PROFESOR)
+ * estudiante  varlong: 0 si es null, si no zigzag(id) + 1
+ * nombre      texto: varint con 0 si es null o longitud + 1, y los bytes UTF-8
+ * </pre>
+ *
+ * Un alumno típico ocupa menos de 20 bytes, frente a unos 200 con la
+ * serialización de Java. Al decodificar, los nombres se internan en un mapa
+ * acotado para que las sesiones del mismo usuario compartan el String.
+ */
+public final class CodecUsuarioSesion {
+
+    private static final byte VERSION = 1;
+    private static final byte SIN_ROL = 0;
+
+    private static final int MAXIMO_INTERNADOS = 10_000;
+    private static final ConcurrentHashMap<String, String> INTERNADOS = new ConcurrentHashMap<>();
+
+    private CodecUsuarioSesion() {
+    }
+
+    public static byte[] codificar(UsuarioSesion usuario) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(24);
+        salida.write(VERSION);
+        Rol rol = usuario.getRol();
+        salida.write(rol == null ? SIN_ROL : rol.getCodigo());
+        Long estudianteId = usuario.getEstudianteId();
+        escribirVarlong(salida, estudianteId == null ? 0 : ((estudianteId << 1) ^ (estudianteId >> 63)) + 1);
+        escribirTexto(salida, usuario.getNombre());
+        return salida.toByteArray();
+    }
+
+    /**
+     * Decodifica un UsuarioSesion. Lanza IllegalArgumentException si los
+     * datos están truncados, son de otra versión o el rol no existe.
+     */
+    public static UsuarioSesion decodificar(byte[] datos) {
+        Lector lector = new Lector(datos);
+        if (lector.leerByte() != VERSION) {
+            throw new IllegalArgumentException("Versión de sesión desconocida");
+        }
+        byte codigoRol = lector.leerByte();
+        Rol rol = codigoRol == SIN_ROL ? null : Rol.desdeCodigo(codigoRol);
+        long estudiante = lector.leerVarlong();
+        Long estudianteId = null;
+        if (estudiante != 0) {
+            long zigzag = estudiante - 1;
+            estudianteId = (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+        String nombre = internar(lector.leerTexto());
+        if (lector.posicion != datos.length) {
+            throw new IllegalArgumentException("Datos de sesión con bytes sobrantes");
+        }
+        return new UsuarioSesion(nombre, rol, estudianteId);
+    }
+
+    private static String internar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String internado = INTERNADOS.get(texto);
+        if (internado != null) {
+            return internado;
+        }
+        if (INTERNADOS.size() >= MAXIMO_INTERNADOS) {
+            return texto;
+        }
+        internado = INTERNADOS.putIfAbsent(texto, texto);
+        return internado != null ? internado : texto;
+    }
+
+    private static void escribirTexto(ByteArrayOutputStream salida, String texto) {
+        if (texto == null) {
+            escribirVarlong(salida, 0);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        escribirVarlong(salida, bytes.length + 1L);
+        salida.write(bytes, 0, bytes.length);
+    }
+
+    // LEB128 sin signo: 7 bits por byte, el bit alto indica que sigue otro byte
+    private static void escribirVarlong(ByteArrayOutputStream salida, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            salida.write((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        salida.write((int) valor);
+    }
+
+    private static final class Lector {
+        private final byte[] datos;
+        private int posicion;
+
+        private Lector(byte[] datos) {
+            this.datos = datos;
+        }
+
+        private byte leerByte() {
+            if (posicion >= datos.length) {
+                throw new IllegalArgumentException("Datos de sesión truncados");
+            }
+            return datos[posicion++];
+        }
+
+        private long leerVarlong() {
+            long valor = 0;
+            for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+                byte b = leerByte();
+                valor |= (long) (b & 0x7F) << desplazamiento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+            }
+            throw new IllegalArgumentException("Varlong de sesión demasiado largo");
+        }
+
+        private String leerTexto() {
+            long longitud = leerVarlong();
+            if (longitud == 0) {
+                return null;
+            }
+            if (longitud - 1 > datos.length - posicion) {
+                throw new IllegalArgumentException("Datos de sesión truncados");
+            }
+            int bytes = (int) (longitud - 1);
+            String texto = new String(datos, posicion, bytes, StandardCharsets.UTF_8);
+            posicion += bytes;
+            return texto;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.ejemplo.notasapp.sesion;
+
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+import com.ejemplo.notasapp.registro.NivelEvento;
+import com.ejemplo.notasapp.registro.Registrador;
+import com.ejemplo.notasapp.registro.RegistroEventos;
+import com.ejemplo.notasapp.servicio.ConfiguracionHilos;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enlaza la HttpSession de Tomcat con el AlmacenSesiones configurado.
+ *
+ * Al identificarse, el usuario se guarda en el almacén bajo un token aleatorio
+ * que viaja en la cookie NOTASAPP_SESION. Si una petición llega sin usuario en
+ * la HttpSession (reinicio, otra instancia, sesión de Tomcat vencida) pero con
+ * la cookie, FiltroSesionCompartida la restaura desde el almacén. La
+ * HttpSession queda como caché local del usuario ya decodificado.
+ */
+@Component
+public class SesionesCompartidas {
+
+    public static final String COOKIE = "NOTASAPP_SESION";
+    private static final String ATRIBUTO_TOKEN = "tokenSesion";
+    private static final String ATRIBUTO_ULTIMO_TOQUE = "tokenSesionTocado";
+
+    private final SecureRandom aleatorio = new SecureRandom();
+
+    @Autowired
+    private AlmacenSesiones almacen;
+
+    @Autowired
+    private ConfiguracionHilos configuracionHilos;
+
+    @Autowired
+    private RegistroEventos registroEventos;
+
+    @Value("${notasapp.sesiones.duracion-minutos:30}")
+    private long duracionMinutos;
+
+    @Value("${notasapp.sesiones.intervalo-limpieza-ms:60000}")
+    private long intervaloLimpiezaMs;
+
+    private long intervaloToqueMs;
+    private ScheduledExecutorService limpieza;
+    private Registrador registro;
+
+    @PostConstruct
+    public void iniciar() {
+        registro = registroEventos.registrador("SesionesCompartidas");
+        intervaloToqueMs = TimeUnit.MINUTES.toMillis(duracionMinutos) / 10;
+        limpieza = Executors.newSingleThreadScheduledExecutor(configuracionHilos.fabrica("limpieza-sesiones"));
+        limpieza.scheduleWithFixedDelay(this::limpiarSeguro, intervaloLimpiezaMs, intervaloLimpiezaMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        limpieza.shutdownNow();
+    }
+
+    /**
+     * Guarda el usuario recién identificado en el almacén y envía la cookie
+     * con el token. Una identificación nueva reemplaza al token anterior.
+     */
+    public void iniciar(HttpSession session, UsuarioSesion usuario, HttpServletResponse response) {
+        String anterior = (String) session.getAttribute(ATRIBUTO_TOKEN);
+        if (anterior != null) {
+            almacen.eliminar(anterior);
+        }
+        String token = nuevoToken();
+        almacen.guardar(token, usuario);
+        session.setAttribute(ATRIBUTO_TOKEN, token);
+        session.setAttribute(ATRIBUTO_ULTIMO_TOQUE, System.currentTimeMillis());
+        response.addCookie(cookie(token, -1));
+    }
+
+    /**
+     * Deja el usuario en la HttpSession si el almacén tiene la sesión de la
+     * cookie. Con el usuario ya presente solo renueva el último acceso, como
+     * mucho una vez por décima parte de la duración.
+     */
+    public void restaurar(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        try {
+            if (session != null && session.getAttribute("usuario") != null) {
+                tocar(session);
+                return;
+            }
+        } catch (IllegalStateException e) {
+            // Sesión invalidada por otra petición concurrente
+            return;
+        }
+
+        String token = leerCookie(request);
+        if (token == null) {
+            return;
+        }
+        Optional<UsuarioSesion> usuario = almacen.obtener(token);
+        if (usuario.isEmpty()) {
+            return;
+        }
+        session = request.getSession(true);
+        session.setAttribute("usuario", usuario.get());
+        session.setAttribute(ATRIBUTO_TOKEN, token);
+        session.setAttribute(ATRIBUTO_ULTIMO_TOQUE, System.currentTimeMillis());
+    }
+
+    /**
+     * Cierra la sesión en el almacén y en Tomcat. Reemplaza a
+     * session.invalidate() en el cierre de sesión y en los bloqueos.
+     */
+    public void cerrar(HttpSession session) {
+        try {
+            String token = (String) session.getAttribute(ATRIBUTO_TOKEN);
+            if (token != null) {
+                almacen.eliminar(token);
+            }
+            session.invalidate();
+        } catch (IllegalStateException e) {
+            // Ya invalidada por otra petición
+        }
+    }
+
+    /** Borra la cookie en el cliente tras cerrar la sesión. */
+    public void borrarCookie(HttpServletResponse response) {
+        response.addCookie(cookie("", 0));
+    }
+
+    public AlmacenSesiones getAlmacen() {
+        return almacen;
+    }
+
+    private void tocar(HttpSession session) {
+        String token = (String) session.getAttribute(ATRIBUTO_TOKEN);
+        Long ultimoToque = (Long) session.getAttribute(ATRIBUTO_ULTIMO_TOQUE);
+        long ahora = System.currentTimeMillis();
+        if (token != null && (ultimoToque == null || ahora - ultimoToque > intervaloToqueMs)) {
+            almacen.tocar(token);
+            session.setAttribute(ATRIBUTO_ULTIMO_TOQUE, ahora);
+        }
+    }
+
+    private void limpiarSeguro() {
+        try {
+            almacen.limpiarVencidas();
+        } catch (Exception e) {
+            registro.evento(NivelEvento.ERROR, "error_limpieza_sesiones", "error", e.getMessage());
+        }
+    }
+
+    private String nuevoToken() {
+        byte[] bytes = new byte[16];
+        aleatorio.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String leerCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Cookie cookie(String valor, int maxAge) {
+        Cookie cookie = new Cookie(COOKIE, valor);
+        cookie.setHttpOnly(true);
+        cookie.setPath("/");
+        cookie.setMaxAge(maxAge);
+        cookie.setAttribute("SameSite", "Lax");
+        return cookie;
+    }
+}
@@ -0,0 +1,366 @@
+package com.ejemplo.notasapp.aspecto;
+
+import com.ejemplo.notasapp.controlador.EstudianteController;
+import com.ejemplo.notasapp.controlador.NotaController;
+import com.ejemplo.notasapp.excepcion.ViolacionSeguridad;
+import com.ejemplo.notasapp.modelo.Estudiante;
+import com.ejemplo.notasapp.modelo.Nota;
+import com.ejemplo.notasapp.modelo.Rol;
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+import com.ejemplo.notasapp.repositorio.RepositorioEstudiante;
+import com.ejemplo.notasapp.servicio.ServicioNota;
+import com.ejemplo.notasapp.servicio.ServicioResumenNotas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Recorre las reglas de TablaDecisionesAutorizacion para el usuario anónimo,
+ * un ALUMNO y un PROFESOR, a través de MockMvc (controladores) y llamando
+ * directamente a ServicioNota.
+ *
+ * Con -Paspectj las mismas pruebas se ejecutan sobre las clases tejidas por
+ * ajc; el perfil fija notasapp.aspectos.modo-esperado para comprobar que el
+ * modo de los aspectos es el de la compilación.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:autorizacion;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "notasapp.limitador.habilitado=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AutorizacionTest {
+
+    private static final String PERMITIDO = "PERMITIDO";
+    private static final String NO_AUTENTICADO = "USUARIO_NO_AUTENTICADO";
+    private static final String ACCESO = "ACCESO_NO_AUTORIZADO";
+    private static final String OPERACION = "OPERACION_NO_PERMITIDA";
+    private static final String RECURSO = "RECURSO_NO_PERMITIDO";
+
+    private static final String PAGINA_VIOLACION = "/error/violacion-seguridad";
+
+    // Una nota que no existe: el alumno la ve como recurso no permitido
+    private static final long NOTA_INEXISTENTE = 999_999L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TablaDecisionesAutorizacion tabla;
+
+    @Autowired
+    private ServicioNota servicioNota;
+
+    @Autowired
+    private RepositorioEstudiante repositorioEstudiante;
+
+    @Autowired
+    private ServicioResumenNotas servicioResumenNotas;
+
+    private long propio;
+    private long ajeno;
+    private long notaPropia;
+    private long notaAjena;
+
+    @BeforeAll
+    void crearDatos() {
+        propio = crearEstudiante("Ana").getId();
+        ajeno = crearEstudiante("Bruno").getId();
+        notaPropia = crearNota(propio);
+        notaAjena = crearNota(ajeno);
+    }
+
+    @AfterEach
+    void limpiarContexto() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void modoDeAspectosSegunLaCompilacion() {
+        String esperado = System.getProperty("notasapp.aspectos.modo-esperado", "PROXY");
+        assertEquals(esperado, ConfiguracionAspectos.modo().name());
+    }
+
+    @TestFactory
+    Stream<DynamicTest> reglasPorRol() {
+        List<DynamicTest> pruebas = new ArrayList<>();
+        List<Caso> casos = casos();
+        for (int i = 0; i < casos.size(); i++) {
+            Caso caso = casos.get(i);
+            agregar(pruebas, i, caso, null, caso.anonimo);
+            agregar(pruebas, i, caso, Rol.ALUMNO, caso.alumno);
+            agregar(pruebas, i, caso, Rol.PROFESOR, caso.profesor);
+        }
+        return pruebas.stream();
+    }
+
+    /**
+     * Todo método protegido con reglas para algún rol (o para el anónimo)
+     * tiene al menos un caso en casos().
+     */
+    @Test
+    void todasLasOperacionesConReglasTienenCaso() {
+        Set<String> cubiertas = new HashSet<>();
+        casos().forEach(caso -> cubiertas.add(caso.operacion));
+
+        for (Class<?> clase : List.of(NotaController.class, EstudianteController.class, ServicioNota.class)) {
+            for (Method metodo : clase.getDeclaredMethods()) {
+                // ajc agrega métodos auxiliares con $ en el nombre
+                if (!Modifier.isPublic(metodo.getModifiers()) || metodo.isSynthetic()
+                        || metodo.getName().contains("$")) {
+                    continue;
+                }
+                TablaDecisionesAutorizacion.Entrada entrada = tabla.buscar(metodo);
+                if (entrada == null) {
+                    fail("Método sin entrada en la tabla de decisiones: " + metodo);
+                }
+                if (tieneReglas(entrada)) {
+                    assertTrue(cubiertas.contains(entrada.getOperacion()),
+                            "Operación con reglas sin caso de prueba: " + entrada.getOperacion());
+                }
+            }
+        }
+    }
+
+    private List<Caso> casos() {
+        MockMultipartFile csv = new MockMultipartFile("archivo", "notas.csv", "text/csv",
+                "estudianteId,materia,valor,porcentaje\n".getBytes(StandardCharsets.UTF_8));
+
+        return List.of(
+                // Notas de un estudiante
+                web("listar", () -> get("/notas/{id}", propio), PERMITIDO, PERMITIDO, PERMITIDO),
+                web("listar", () -> get("/notas/{id}", ajeno), PERMITIDO, ACCESO, PERMITIDO),
+                web("mostrarFormularioPromedio", () -> get("/notas/{id}/promedio", propio),
+                        PERMITIDO, PERMITIDO, PERMITIDO),
+                web("mostrarFormularioPromedio", () -> get("/notas/{id}/promedio", ajeno),
+                        PERMITIDO, ACCESO, PERMITIDO),
+                web("calcularPromedio", () -> post("/notas/promedio")
+                        .param("estudianteId", String.valueOf(propio)).param("materia", "Matemáticas"),
+                        PERMITIDO, PERMITIDO, PERMITIDO),
+                web("calcularPromedio", () -> post("/notas/promedio")
+                        .param("estudianteId", String.valueOf(ajeno)).param("materia", "Matemáticas"),
+                        PERMITIDO, ACCESO, PERMITIDO),
+                web("promediosPorMateria", () -> get("/notas/{id}/promedios", propio),
+                        PERMITIDO, PERMITIDO, PERMITIDO),
+                web("promediosPorMateria", () -> get("/notas/{id}/promedios", ajeno),
+                        PERMITIDO, ACCESO, PERMITIDO),
+                web("promediosCurso", () -> get("/notas/promedios"), PERMITIDO, OPERACION, PERMITIDO),
+
+                // Escritura de notas
+                web("nueva", () -> get("/notas/{id}/nueva", propio), PERMITIDO, OPERACION, PERMITIDO),
+                web("guardar", () -> post("/notas/guardar")
+                        .param("materia", "Física").param("valor", "3.5").param("porcentaje", "10")
+                        .param("estudiante.id", String.valueOf(propio)),
+                        PERMITIDO, OPERACION, PERMITIDO),
+                web("editar", () -> get("/notas/editar/{id}", notaPropia), PERMITIDO, OPERACION, PERMITIDO),
+                web("editar", () -> get("/notas/editar/{id}", notaAjena), PERMITIDO, RECURSO, PERMITIDO),
+                // Sin rol de alumno la nota inexistente llega al controlador (500)
+                web("editar", () -> get("/notas/editar/{id}", NOTA_INEXISTENTE), null, RECURSO, null),
+                web("eliminar", () -> get("/notas/eliminar/{id}", crearNota(propio)),
+                        PERMITIDO, OPERACION, PERMITIDO),
+                web("eliminar", () -> get("/notas/eliminar/{id}", crearNota(ajeno)),
+                        PERMITIDO, RECURSO, PERMITIDO),
+                web("formularioImportar", () -> get("/notas/importar"), NO_AUTENTICADO, OPERACION, PERMITIDO),
+                web("importar", () -> multipart("/notas/importar").file(csv),
+                        NO_AUTENTICADO, OPERACION, PERMITIDO),
+
+                // Exportación y consultas del curso
+                web("exportar", () -> get("/notas/{id}/exportar", propio), NO_AUTENTICADO, PERMITIDO, PERMITIDO),
+                web("exportar", () -> get("/notas/{id}/exportar", ajeno), NO_AUTENTICADO, ACCESO, PERMITIDO),
+                web("exportarCurso", () -> get("/notas/exportar"), NO_AUTENTICADO, OPERACION, PERMITIDO),
+                web("estadisticas", () -> get("/notas/estadisticas"), NO_AUTENTICADO, OPERACION, PERMITIDO),
+                web("reporteCurso", () -> get("/notas/reporte"), NO_AUTENTICADO, OPERACION, PERMITIDO),
+
+                // Gestión de estudiantes
+                web("EstudianteController.listar", () -> get("/estudiantes"), NO_AUTENTICADO, PERMITIDO, PERMITIDO),
+                web("EstudianteController.nuevo", () -> get("/estudiantes/nuevo"),
+                        NO_AUTENTICADO, OPERACION, PERMITIDO),
+                web("EstudianteController.guardar", () -> post("/estudiantes/guardar")
+                        .param("nombre", "Carla").param("apellido", "Prueba").param("correo", "carla@ejemplo.com"),
+                        NO_AUTENTICADO, OPERACION, PERMITIDO),
+                web("EstudianteController.editar", () -> get("/estudiantes/editar/{id}", ajeno),
+                        NO_AUTENTICADO, OPERACION, PERMITIDO),
+                web("EstudianteController.eliminar",
+                        () -> get("/estudiantes/eliminar/{id}", crearEstudiante("Temporal").getId()),
+                        NO_AUTENTICADO, OPERACION, PERMITIDO),
+
+                // Servicio de notas, llamado sin pasar por un controlador
+                servicio("ServicioNota.obtenerNotasPorEstudianteYMateria",
+                        () -> servicioNota.obtenerNotasPorEstudianteYMateria(propio, "Matemáticas"),
+                        PERMITIDO, PERMITIDO, PERMITIDO),
+                servicio("ServicioNota.obtenerNotasPorEstudianteYMateria",
+                        () -> servicioNota.obtenerNotasPorEstudianteYMateria(ajeno, "Matemáticas"),
+                        PERMITIDO, ACCESO, PERMITIDO),
+                servicio("ServicioNota.calcularPromedioPorMateria",
+                        () -> servicioNota.calcularPromedioPorMateria(ajeno, "Matemáticas"),
+                        PERMITIDO, ACCESO, PERMITIDO),
+                servicio("ServicioNota.calcularPromediosPorMateria",
+                        () -> servicioNota.calcularPromediosPorMateria(propio),
+                        PERMITIDO, PERMITIDO, PERMITIDO),
+                servicio("ServicioNota.calcularPromediosPorMateria",
+                        () -> servicioNota.calcularPromediosPorMateria(ajeno),
+                        PERMITIDO, ACCESO, PERMITIDO),
+                servicio("ServicioNota.calcularPromediosPorMateriaCurso",
+                        () -> servicioNota.calcularPromediosPorMateriaCurso(),
+                        PERMITIDO, OPERACION, PERMITIDO));
+    }
+
+    private void agregar(List<DynamicTest> pruebas, int indice, Caso caso, Rol rol, String esperado) {
+        if (esperado == null) {
+            return;
+        }
+        String nombre = "#" + indice + " " + (rol != null ? rol.name() : "ANONIMO") + " " + caso.operacion
+                + " -> " + esperado;
+        pruebas.add(DynamicTest.dynamicTest(nombre, () -> {
+            MockHttpSession sesion = sesionDe(rol);
+            assertEquals(esperado, caso.ejecucion.ejecutar(sesion, caso.operacion), nombre);
+        }));
+    }
+
+    private Caso web(String operacion, Peticion peticion, String anonimo, String alumno, String profesor) {
+        return new Caso(operacion, (sesion, op) -> resultadoWeb(peticion.crear(), sesion, op),
+                anonimo, alumno, profesor);
+    }
+
+    private Caso servicio(String operacion, Llamada llamada, String anonimo, String alumno, String profesor) {
+        return new Caso(operacion, (sesion, op) -> resultadoServicio(llamada, sesion, op),
+                anonimo, alumno, profesor);
+    }
+
+    /**
+     * Resultado de la petición: PERMITIDO, o el tipo de violación de la
+     * redirección a la página de violaciones de seguridad.
+     */
+    private String resultadoWeb(MockHttpServletRequestBuilder peticion, MockHttpSession sesion, String operacion)
+            throws Exception {
+        if (sesion != null) {
+            peticion.session(sesion);
+        }
+        MvcResult resultado = mockMvc.perform(peticion).andReturn();
+        String destino = resultado.getResponse().getRedirectedUrl();
+        if (destino != null && destino.startsWith(PAGINA_VIOLACION)) {
+            var parametros = UriComponentsBuilder.fromUriString(destino).build().getQueryParams();
+            assertEquals(operacion, parametros.getFirst("operacion"));
+            return parametros.getFirst("tipoViolacion");
+        }
+        int estado = resultado.getResponse().getStatus();
+        assertTrue(estado < 500, "Estado inesperado " + estado + " en " + operacion);
+        return PERMITIDO;
+    }
+
+    private String resultadoServicio(Llamada llamada, MockHttpSession sesion, String operacion) {
+        MockHttpServletRequest peticion = new MockHttpServletRequest();
+        if (sesion != null) {
+            peticion.setSession(sesion);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(peticion));
+        try {
+            llamada.ejecutar();
+            return PERMITIDO;
+        } catch (ViolacionSeguridad e) {
+            assertEquals(operacion, e.getOperacion());
+            return e.getTipoViolacion();
+        }
+    }
+
+    private MockHttpSession sesionDe(Rol rol) {
+        if (rol == null) {
+            return null;
+        }
+        MockHttpSession sesion = new MockHttpSession();
+        String nombre = rol.requiereEstudiante() ? "Ana" : "Profesor";
+        sesion.setAttribute("usuario", new UsuarioSesion(nombre, rol, propio));
+        return sesion;
+    }
+
+    private static boolean tieneReglas(TablaDecisionesAutorizacion.Entrada entrada) {
+        if (entrada.reglasPara(null).length > 0) {
+            return true;
+        }
+        for (Rol rol : Rol.values()) {
+            if (entrada.reglasPara(rol).length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Estudiante crearEstudiante(String nombre) {
+        Estudiante estudiante = new Estudiante();
+        estudiante.setNombre(nombre);
+        estudiante.setApellido("Prueba");
+        estudiante.setCorreo(nombre.toLowerCase() + "@ejemplo.com");
+        return repositorioEstudiante.save(estudiante);
+    }
+
+    private long crearNota(long estudianteId) {
+        Nota nota = new Nota();
+        nota.setMateria("Matemáticas");
+        nota.setValor(4.0);
+        nota.setPorcentaje(20.0);
+        nota.setEstudiante(repositorioEstudiante.findById(estudianteId).orElseThrow());
+        return servicioResumenNotas.guardarNota(nota).getId();
+    }
+
+    private interface Peticion {
+        MockHttpServletRequestBuilder crear();
+    }
+
+    private interface Llamada {
+        void ejecutar();
+    }
+
+    private interface Ejecucion {
+        String ejecutar(MockHttpSession sesion, String operacion) throws Exception;
+    }
+
+    private static final class Caso {
+        private final String operacion;
+        private final Ejecucion ejecucion;
+        // Resultado esperado por rol; null = sin comprobar
+        private final String anonimo;
+        private final String alumno;
+        private final String profesor;
+
+        private Caso(String operacion, Ejecucion ejecucion,
+                String anonimo, String alumno, String profesor) {
+            this.operacion = operacion;
+            this.ejecucion = ejecucion;
+            this.anonimo = anonimo;
+            this.alumno = alumno;
+            this.profesor = profesor;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ejemplo.notasapp.metricas;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramaLatenciaTest {
+
+    // Mayor valor que todavía tiene cubeta propia (exponente 35, última sub-cubeta)
+    private static final long MAYOR_CON_CUBETA = (1L << 36) - 1;
+
+    @Test
+    void cadaValorCaeEnUnaCubetaQueLoContiene() {
+        for (int exponente = 0; exponente < 36; exponente++) {
+            long inferior = 1L << exponente;
+            for (long valor : new long[] { inferior, inferior + inferior / 2, 2 * inferior - 1 }) {
+                int indice = HistogramaLatencia.indiceCubeta(valor);
+                assertTrue(HistogramaLatencia.limiteSuperior(indice) >= valor, "valor " + valor);
+                if (indice > 0) {
+                    assertTrue(HistogramaLatencia.limiteSuperior(indice - 1) < valor, "valor " + valor);
+                }
+            }
+        }
+    }
+
+    @Test
+    void valoresDesde2a36VanALaUltimaCubeta() {
+        int ultima = HistogramaLatencia.indiceCubeta(MAYOR_CON_CUBETA);
+        assertEquals(MAYOR_CON_CUBETA, HistogramaLatencia.limiteSuperior(ultima));
+        assertEquals(ultima, HistogramaLatencia.indiceCubeta(1L << 36));
+        assertEquals(ultima, HistogramaLatencia.indiceCubeta(100_000_000_000L));
+        assertEquals(ultima, HistogramaLatencia.indiceCubeta((1L << 37) - 1));
+        assertEquals(ultima, HistogramaLatencia.indiceCubeta(Long.MAX_VALUE));
+    }
+
+    @Test
+    void registrarLatenciasMuyLargas() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        histograma.registrar(MAYOR_CON_CUBETA);
+        histograma.registrar(1L << 36);
+        histograma.registrar(100_000_000_000L);
+
+        assertEquals(3, histograma.getTotal());
+        assertEquals(100_000_000_000L, histograma.getMaximoNanos());
+        // Los percentiles de la última cubeta se informan como su límite superior
+        assertArrayEquals(new long[] { MAYOR_CON_CUBETA, MAYOR_CON_CUBETA }, histograma.percentiles(0.5, 1.0));
+    }
+}
@@ -0,0 +1,184 @@
+package com.ejemplo.notasapp.metricas;
+
+import com.ejemplo.notasapp.controlador.EstudianteController;
+import com.ejemplo.notasapp.controlador.NotaController;
+import com.ejemplo.notasapp.modelo.Estudiante;
+import com.ejemplo.notasapp.modelo.Nota;
+import com.ejemplo.notasapp.modelo.Rol;
+import com.ejemplo.notasapp.modelo.UsuarioSesion;
+import com.ejemplo.notasapp.repositorio.RepositorioEstudiante;
+import com.ejemplo.notasapp.servicio.ServicioResumenNotas;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Ejecuta cada endpoint con @PresupuestoSql en modo estricto: la sentencia
+ * que supera el presupuesto lanza PresupuestoSqlExcedido y la prueba falla.
+ *
+ * Cada petición se hace dos veces, con las cachés de lectura frías y
+ * calientes. Además de la excepción se comprueba el contador de excesos de
+ * MonitorSql, por si algún código intermedio la capturara.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:presupuestos;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "notasapp.limitador.habilitado=false",
+        "notasapp.sql.monitor.habilitado=true",
+        "notasapp.sql.presupuesto.estricto=true"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PresupuestoSqlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MonitorSql monitorSql;
+
+    @Autowired
+    private RepositorioEstudiante repositorioEstudiante;
+
+    @Autowired
+    private ServicioResumenNotas servicioResumenNotas;
+
+    private long estudiante;
+    private long nota;
+
+    @BeforeAll
+    void crearDatos() {
+        estudiante = crearEstudiante("Ana");
+        crearEstudiante("Bruno");
+        nota = crearNota(estudiante, "Matemáticas");
+        crearNota(estudiante, "Física");
+    }
+
+    @Test
+    void modoEstrictoActivo() {
+        assertTrue(monitorSql.isEstricto());
+    }
+
+    @TestFactory
+    Stream<DynamicTest> endpointsDentroDelPresupuesto() {
+        return casos().stream().map(caso -> DynamicTest.dynamicTest(caso.metodo, () -> {
+            ejecutar(caso);
+            ejecutar(caso);
+        }));
+    }
+
+    /** Todo método anotado con @PresupuestoSql tiene al menos un caso. */
+    @Test
+    void todosLosPresupuestosTienenCaso() {
+        Set<String> cubiertos = new HashSet<>();
+        casos().forEach(caso -> cubiertos.add(caso.metodo));
+
+        for (Class<?> clase : List.of(NotaController.class, EstudianteController.class)) {
+            for (Method metodo : clase.getDeclaredMethods()) {
+                if (metodo.isAnnotationPresent(PresupuestoSql.class)) {
+                    String nombre = clase.getSimpleName() + "." + metodo.getName();
+                    assertTrue(cubiertos.contains(nombre), "Presupuesto SQL sin caso de prueba: " + nombre);
+                }
+            }
+        }
+    }
+
+    private List<Caso> casos() {
+        return List.of(
+                new Caso("NotaController.listar", () -> get("/notas/{id}", estudiante)),
+                new Caso("NotaController.nueva", () -> get("/notas/{id}/nueva", estudiante)),
+                new Caso("NotaController.guardar", () -> post("/notas/guardar")
+                        .param("materia", "Química").param("valor", "3.5").param("porcentaje", "10")
+                        .param("estudiante.id", String.valueOf(estudiante))),
+                new Caso("NotaController.guardar", () -> post("/notas/guardar")
+                        .param("id", String.valueOf(nota))
+                        .param("materia", "Matemáticas").param("valor", "4.5").param("porcentaje", "20")
+                        .param("estudiante.id", String.valueOf(estudiante))),
+                new Caso("NotaController.editar", () -> get("/notas/editar/{id}", nota)),
+                new Caso("NotaController.eliminar", () -> get("/notas/eliminar/{id}",
+                        crearNota(estudiante, "Historia"))),
+                new Caso("NotaController.calcularPromedio", () -> post("/notas/promedio")
+                        .param("estudianteId", String.valueOf(estudiante)).param("materia", "Matemáticas")),
+                new Caso("NotaController.promediosPorMateria", () -> get("/notas/{id}/promedios", estudiante)),
+                new Caso("NotaController.promediosCurso", () -> get("/notas/promedios")),
+                new Caso("NotaController.estadisticas", () -> get("/notas/estadisticas")),
+                new Caso("NotaController.exportar", () -> get("/notas/{id}/exportar", estudiante)),
+                new Caso("NotaController.exportarCurso", () -> get("/notas/exportar")),
+                new Caso("EstudianteController.listar", () -> get("/estudiantes")),
+                new Caso("EstudianteController.guardar", () -> post("/estudiantes/guardar")
+                        .param("nombre", "Carla").param("apellido", "Prueba").param("correo", "carla@ejemplo.com")),
+                new Caso("EstudianteController.editar", () -> get("/estudiantes/editar/{id}", estudiante)),
+                new Caso("EstudianteController.eliminar", () -> {
+                    long temporal = crearEstudiante("Temporal");
+                    crearNota(temporal, "Matemáticas");
+                    crearNota(temporal, "Física");
+                    return get("/estudiantes/eliminar/{id}", temporal);
+                }));
+    }
+
+    private void ejecutar(Caso caso) throws Exception {
+        long excedidos = monitorSql.getExcedidos();
+        MvcResult resultado = mockMvc.perform(caso.peticion.crear().session(sesionProfesor())).andReturn();
+
+        int estado = resultado.getResponse().getStatus();
+        assertTrue(estado < 400, "Estado " + estado + " en " + caso.metodo);
+        assertEquals(excedidos, monitorSql.getExcedidos(), "Presupuesto SQL excedido en " + caso.metodo);
+    }
+
+    private static MockHttpSession sesionProfesor() {
+        MockHttpSession sesion = new MockHttpSession();
+        sesion.setAttribute("usuario", new UsuarioSesion("Profesor", Rol.PROFESOR, null));
+        return sesion;
+    }
+
+    private long crearEstudiante(String nombre) {
+        Estudiante nuevo = new Estudiante();
+        nuevo.setNombre(nombre);
+        nuevo.setApellido("Prueba");
+        nuevo.setCorreo(nombre.toLowerCase() + "@ejemplo.com");
+        return repositorioEstudiante.save(nuevo).getId();
+    }
+
+    private long crearNota(long estudianteId, String materia) {
+        Nota nueva = new Nota();
+        nueva.setMateria(materia);
+        nueva.setValor(4.0);
+        nueva.setPorcentaje(20.0);
+        nueva.setEstudiante(repositorioEstudiante.findById(estudianteId).orElseThrow());
+        return servicioResumenNotas.guardarNota(nueva).getId();
+    }
+
+    private interface Peticion {
+        MockHttpServletRequestBuilder crear();
+    }
+
+    private static final class Caso {
+        private final String metodo;
+        private final Peticion peticion;
+
+        private Caso(String metodo, Peticion peticion) {
+            this.metodo = metodo;
+            this.peticion = peticion;
+        }
+    }
+}